@@ -0,0 +1,41 @@
+package dev.bnacar.springx.data.actuate;
+
+import dev.bnacar.springx.data.repository.CacheWarmer;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * Health indicator reporting the progress of repository cache warm-up.
+ * Reports {@code OUT_OF_SERVICE} until warm-up has finished, so that adding it to the
+ * readiness group ({@code management.endpoint.health.group.readiness.include=readinessState,cacheWarmUp})
+ * keeps the instance out of rotation while its caches are cold. A warm-up that ran out
+ * of time is reported as {@code UP}, since the remaining entries are loaded on demand.
+ */
+public class CacheWarmUpHealthIndicator extends AbstractHealthIndicator {
+
+    private final CacheWarmer cacheWarmer;
+
+    /**
+     * Constructs a new CacheWarmUpHealthIndicator.
+     *
+     * @param cacheWarmer the cache warmer
+     */
+    public CacheWarmUpHealthIndicator(CacheWarmer cacheWarmer) {
+        super("Cache warm-up health check failed");
+        this.cacheWarmer = cacheWarmer;
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) {
+        CacheWarmer.State state = cacheWarmer.getState();
+        if (state == CacheWarmer.State.PENDING || state == CacheWarmer.State.WARMING) {
+            builder.outOfService();
+        } else {
+            builder.up();
+        }
+        builder.withDetail("state", state)
+                .withDetail("total", cacheWarmer.getTotalTasks())
+                .withDetail("completed", cacheWarmer.getCompletedTasks())
+                .withDetail("failed", cacheWarmer.getFailedTasks());
+    }
+}
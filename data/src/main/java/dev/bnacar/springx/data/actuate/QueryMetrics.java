@@ -0,0 +1,83 @@
+package dev.bnacar.springx.data.actuate;
+
+import dev.bnacar.springx.data.instrument.QueryInstrumentation;
+import dev.bnacar.springx.data.instrument.StatementExecution;
+import dev.bnacar.springx.data.instrument.StatementListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the statements recorded by {@link QueryInstrumentation} to Micrometer.
+ * Statement meters are tagged with the label of the issuing code in the {@code query} tag.
+ */
+public class QueryMetrics implements MeterBinder, StatementListener {
+
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new QueryMetrics.
+     *
+     * @param instrumentation the query instrumentation
+     */
+    public QueryMetrics(QueryInstrumentation instrumentation) {
+        instrumentation.addListener(this);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+    }
+
+    @Override
+    public void statementExecuted(StatementExecution execution) {
+        for (MeterRegistry registry : registries) {
+            Timer.builder("springx.data.statements")
+                    .tag("query", execution.getLabel())
+                    .description("The execution time of JDBC statements")
+                    .register(registry)
+                    .record(execution.getElapsedNanos(), TimeUnit.NANOSECONDS);
+            if (execution.getRows() >= 0) {
+                DistributionSummary.builder("springx.data.statements.rows")
+                        .tag("query", execution.getLabel())
+                        .description("The number of rows returned or updated by JDBC statements")
+                        .register(registry)
+                        .record(execution.getRows());
+            }
+            if (execution.isSlow()) {
+                Counter.builder("springx.data.statements.slow")
+                        .tag("query", execution.getLabel())
+                        .description("The number of statements slower than the slow statement threshold")
+                        .register(registry)
+                        .increment();
+            }
+        }
+    }
+
+    @Override
+    public void nPlusOneDetected(String label, String sql, int executions) {
+        for (MeterRegistry registry : registries) {
+            Counter.builder("springx.data.statements.n-plus-one")
+                    .tag("query", label)
+                    .description("The number of scopes in which a statement was repeated past the N+1 threshold")
+                    .register(registry)
+                    .increment();
+        }
+    }
+
+    @Override
+    public void scopeCompleted(int statements) {
+        for (MeterRegistry registry : registries) {
+            DistributionSummary.builder("springx.data.statements.per-scope")
+                    .description("The number of statements per transaction or explicit scope")
+                    .register(registry)
+                    .record(statements);
+        }
+    }
+}
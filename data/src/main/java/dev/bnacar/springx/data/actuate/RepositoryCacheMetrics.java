@@ -0,0 +1,113 @@
+package dev.bnacar.springx.data.actuate;
+
+import dev.bnacar.springx.data.repository.CacheStatistics;
+import dev.bnacar.springx.data.repository.CacheableRepositoryAspect;
+import dev.bnacar.springx.data.repository.EvictionCause;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binds the statistics of every repository cache to Micrometer.
+ * Meters follow the naming used by Micrometer's own cache binders ({@code cache.gets},
+ * {@code cache.evictions}, {@code cache.size}, ...) and are tagged with the cache name.
+ * Caches created after binding are registered as soon as they are created.
+ */
+public class RepositoryCacheMetrics implements MeterBinder {
+
+    private static final String CACHE_MANAGER = "springx-repository";
+
+    private final CacheableRepositoryAspect cacheAspect;
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new RepositoryCacheMetrics.
+     *
+     * @param cacheAspect the repository cache aspect
+     */
+    public RepositoryCacheMetrics(CacheableRepositoryAspect cacheAspect) {
+        this.cacheAspect = cacheAspect;
+        cacheAspect.addCacheCreationListener(this::bindCache);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        for (String cacheName : cacheAspect.getCacheNames()) {
+            bindCache(registry, cacheName);
+        }
+    }
+
+    /**
+     * Registers the meters of a new cache with all bound registries.
+     *
+     * @param cacheName the cache name
+     */
+    private void bindCache(String cacheName) {
+        for (MeterRegistry registry : registries) {
+            bindCache(registry, cacheName);
+        }
+    }
+
+    /**
+     * Registers the meters of a cache with a registry.
+     *
+     * @param registry the meter registry
+     * @param cacheName the cache name
+     */
+    private void bindCache(MeterRegistry registry, String cacheName) {
+        CacheStatistics statistics = cacheAspect.getCacheStatistics(cacheName);
+        if (statistics == null) {
+            return;
+        }
+
+        Tags tags = Tags.of(Tag.of("cache", cacheName), Tag.of("cacheManager", CACHE_MANAGER));
+
+        FunctionCounter.builder("cache.gets", statistics, CacheStatistics::getHitCount)
+                .tags(tags).tag("result", "hit")
+                .description("The number of times cache lookup methods have returned a cached value")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", statistics, CacheStatistics::getMissCount)
+                .tags(tags).tag("result", "miss")
+                .description("The number of times cache lookup methods have not returned a cached value")
+                .register(registry);
+        FunctionCounter.builder("cache.load", statistics, CacheStatistics::getLoadCount)
+                .tags(tags).tag("result", "success")
+                .description("The number of times a cache miss was loaded successfully")
+                .register(registry);
+        FunctionCounter.builder("cache.load", statistics, CacheStatistics::getLoadFailureCount)
+                .tags(tags).tag("result", "failure")
+                .description("The number of times a cache miss failed to load")
+                .register(registry);
+        FunctionTimer.builder("cache.load.duration", statistics,
+                        s -> s.getLoadCount() + s.getLoadFailureCount(),
+                        CacheStatistics::getTotalLoadTimeNanos, TimeUnit.NANOSECONDS)
+                .tags(tags)
+                .description("The time spent loading cache misses")
+                .register(registry);
+
+        for (EvictionCause cause : EvictionCause.values()) {
+            FunctionCounter.builder("cache.evictions", statistics, s -> s.getEvictionCount(cause))
+                    .tags(tags).tag("cause", cause.name().toLowerCase())
+                    .description("The number of entries evicted from the cache")
+                    .register(registry);
+        }
+
+        Gauge.builder("cache.size", cacheAspect, aspect -> aspect.getCacheSize(cacheName))
+                .tags(tags)
+                .description("The number of entries in the cache")
+                .register(registry);
+        Gauge.builder("cache.weight", cacheAspect, aspect -> aspect.getCacheWeight(cacheName))
+                .tags(tags)
+                .description("The total weight of the entries in caches with a weight budget")
+                .register(registry);
+    }
+}
@@ -0,0 +1,105 @@
+package dev.bnacar.springx.data.actuate;
+
+import dev.bnacar.springx.data.repository.CacheStatistics;
+import dev.bnacar.springx.data.repository.CacheableRepositoryAspect;
+import dev.bnacar.springx.data.repository.EvictionCause;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Actuator endpoint for inspecting and clearing repository caches.
+ * Exposed as {@code /actuator/repositorycaches} when web exposure is enabled.
+ */
+@Endpoint(id = "repositorycaches")
+public class RepositoryCachesEndpoint {
+
+    private final CacheableRepositoryAspect cacheAspect;
+
+    /**
+     * Constructs a new RepositoryCachesEndpoint.
+     *
+     * @param cacheAspect the repository cache aspect
+     */
+    public RepositoryCachesEndpoint(CacheableRepositoryAspect cacheAspect) {
+        this.cacheAspect = cacheAspect;
+    }
+
+    /**
+     * Describes all repository caches.
+     *
+     * @return the cache descriptions keyed by cache name
+     */
+    @ReadOperation
+    public Map<String, Map<String, Object>> caches() {
+        Map<String, Map<String, Object>> result = new LinkedHashMap<>();
+        for (String cacheName : new TreeSet<>(cacheAspect.getCacheNames())) {
+            result.put(cacheName, describe(cacheName));
+        }
+        return result;
+    }
+
+    /**
+     * Describes a single repository cache.
+     *
+     * @param cacheName the cache name
+     * @return the cache description, or null if no such cache exists
+     */
+    @ReadOperation
+    public Map<String, Object> cache(@Selector String cacheName) {
+        return cacheAspect.getCacheNames().contains(cacheName) ? describe(cacheName) : null;
+    }
+
+    /**
+     * Clears all repository caches.
+     */
+    @DeleteOperation
+    public void clearCaches() {
+        for (String cacheName : cacheAspect.getCacheNames()) {
+            cacheAspect.clearCache(cacheName);
+        }
+    }
+
+    /**
+     * Clears a single repository cache.
+     *
+     * @param cacheName the cache name
+     * @return true if the cache exists
+     */
+    @DeleteOperation
+    public boolean clearCache(@Selector String cacheName) {
+        return cacheAspect.clearCache(cacheName);
+    }
+
+    /**
+     * Builds the description of a cache.
+     *
+     * @param cacheName the cache name
+     * @return the cache description
+     */
+    private Map<String, Object> describe(String cacheName) {
+        CacheStatistics statistics = cacheAspect.getCacheStatistics(cacheName);
+
+        Map<String, Object> evictions = new LinkedHashMap<>();
+        for (EvictionCause cause : EvictionCause.values()) {
+            evictions.put(cause.name().toLowerCase(), statistics.getEvictionCount(cause));
+        }
+
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cacheAspect.getCacheSize(cacheName));
+        description.put("weight", cacheAspect.getCacheWeight(cacheName));
+        description.put("hits", statistics.getHitCount());
+        description.put("misses", statistics.getMissCount());
+        description.put("hitRatio", statistics.getHitRatio());
+        description.put("loads", statistics.getLoadCount());
+        description.put("loadFailures", statistics.getLoadFailureCount());
+        description.put("averageLoadMillis", statistics.getAverageLoadPenaltyNanos() / 1_000_000.0);
+        description.put("evictions", evictions);
+        return description;
+    }
+}
@@ -0,0 +1,167 @@
+package dev.bnacar.springx.data.bulk;
+
+import java.util.List;
+
+/**
+ * SQL dialects supported by {@link BulkWriter}.
+ * All dialects write multi-row {@code INSERT ... VALUES (...), (...)} statements;
+ * they differ in how upserts are expressed.
+ */
+public enum BulkDialect {
+
+    /**
+     * H2, upserting with {@code MERGE INTO ... KEY (...) VALUES ...}.
+     */
+    H2 {
+        @Override
+        String upsert(BulkTable<?> table, int rows) {
+            StringBuilder sql = new StringBuilder("MERGE INTO ").append(table.getName());
+            appendColumns(sql, table.getColumns());
+            sql.append(" KEY");
+            appendColumns(sql, table.getKeyColumns());
+            appendValues(sql, table.getColumns().size(), rows);
+            return sql.toString();
+        }
+    },
+
+    /**
+     * PostgreSQL, upserting with {@code INSERT ... ON CONFLICT (...) DO UPDATE}.
+     */
+    POSTGRESQL {
+        @Override
+        String upsert(BulkTable<?> table, int rows) {
+            StringBuilder sql = new StringBuilder(insert(table, rows)).append(" ON CONFLICT");
+            appendColumns(sql, table.getKeyColumns());
+            List<String> updated = nonKeyColumns(table);
+            if (updated.isEmpty()) {
+                return sql.append(" DO NOTHING").toString();
+            }
+            sql.append(" DO UPDATE SET ");
+            for (int i = 0; i < updated.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(updated.get(i)).append(" = EXCLUDED.").append(updated.get(i));
+            }
+            return sql.toString();
+        }
+    },
+
+    /**
+     * MySQL and MariaDB, upserting with {@code INSERT ... ON DUPLICATE KEY UPDATE}.
+     */
+    MYSQL {
+        @Override
+        String upsert(BulkTable<?> table, int rows) {
+            StringBuilder sql = new StringBuilder(insert(table, rows)).append(" ON DUPLICATE KEY UPDATE ");
+            List<String> updated = nonKeyColumns(table);
+            if (updated.isEmpty()) {
+                // Assigning a key column to itself turns duplicates into no-ops
+                updated = table.getKeyColumns().subList(0, 1);
+            }
+            for (int i = 0; i < updated.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(updated.get(i)).append(" = VALUES(").append(updated.get(i)).append(")");
+            }
+            return sql.toString();
+        }
+    },
+
+    /**
+     * Any other database; supports inserts only.
+     */
+    GENERIC {
+        @Override
+        String upsert(BulkTable<?> table, int rows) {
+            throw new UnsupportedOperationException("Upserts are not supported for this database");
+        }
+    };
+
+    /**
+     * Builds an upsert statement for a number of rows.
+     *
+     * @param table the table mapping, with at least one key column
+     * @param rows the number of rows in the statement
+     * @return the SQL statement
+     */
+    abstract String upsert(BulkTable<?> table, int rows);
+
+    /**
+     * Builds an insert statement for a number of rows.
+     *
+     * @param table the table mapping
+     * @param rows the number of rows in the statement
+     * @return the SQL statement
+     */
+    String insert(BulkTable<?> table, int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table.getName());
+        appendColumns(sql, table.getColumns());
+        appendValues(sql, table.getColumns().size(), rows);
+        return sql.toString();
+    }
+
+    /**
+     * Resolves the dialect from a JDBC database product name.
+     *
+     * @param databaseProductName the database product name
+     * @return the dialect
+     */
+    public static BulkDialect fromDatabaseProductName(String databaseProductName) {
+        String name = databaseProductName == null ? "" : databaseProductName.toLowerCase();
+        if (name.contains("h2")) {
+            return H2;
+        }
+        if (name.contains("postgres")) {
+            return POSTGRESQL;
+        }
+        if (name.contains("mysql") || name.contains("mariadb")) {
+            return MYSQL;
+        }
+        return GENERIC;
+    }
+
+    /**
+     * Gets the columns that are not key columns.
+     *
+     * @param table the table mapping
+     * @return the non-key columns
+     */
+    private static List<String> nonKeyColumns(BulkTable<?> table) {
+        return table.getColumns().stream().filter(column -> !table.getKeyColumns().contains(column)).toList();
+    }
+
+    /**
+     * Appends a parenthesized column list.
+     *
+     * @param sql the statement
+     * @param columns the column names
+     */
+    private static void appendColumns(StringBuilder sql, List<String> columns) {
+        sql.append(" (").append(String.join(", ", columns)).append(")");
+    }
+
+    /**
+     * Appends a multi-row VALUES clause.
+     *
+     * @param sql the statement
+     * @param columns the number of columns per row
+     * @param rows the number of rows
+     */
+    private static void appendValues(StringBuilder sql, int columns, int rows) {
+        StringBuilder row = new StringBuilder("(");
+        for (int i = 0; i < columns; i++) {
+            row.append(i > 0 ? ", ?" : "?");
+        }
+        row.append(")");
+
+        sql.append(" VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(row);
+        }
+    }
+}
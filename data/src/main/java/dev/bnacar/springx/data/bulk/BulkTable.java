@@ -0,0 +1,113 @@
+package dev.bnacar.springx.data.bulk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Describes how rows of a type are written to a table by {@link BulkWriter}.
+ * Columns are mapped with accessor functions, and key columns identify existing rows for upserts.
+ *
+ * <pre>{@code
+ * BulkTable<User> users = BulkTable.of("users", User.class)
+ *         .keyColumn("id", User::getId)
+ *         .column("name", User::getName)
+ *         .column("email", User::getEmail);
+ * }</pre>
+ *
+ * @param <T> the row type
+ */
+public class BulkTable<T> {
+
+    private final String name;
+    private final List<String> columns = new ArrayList<>();
+    private final List<String> keyColumns = new ArrayList<>();
+    private final List<Function<? super T, ?>> accessors = new ArrayList<>();
+
+    /**
+     * Constructs a new BulkTable with the specified table name.
+     *
+     * @param name the table name
+     */
+    private BulkTable(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a new table mapping.
+     *
+     * @param name the table name
+     * @param rowType the row type
+     * @param <T> the row type
+     * @return the BulkTable instance
+     */
+    public static <T> BulkTable<T> of(String name, Class<T> rowType) {
+        return new BulkTable<>(name);
+    }
+
+    /**
+     * Adds a column.
+     *
+     * @param column the column name
+     * @param accessor the function reading the column value from a row
+     * @return the BulkTable instance
+     */
+    public BulkTable<T> column(String column, Function<? super T, ?> accessor) {
+        columns.add(column);
+        accessors.add(accessor);
+        return this;
+    }
+
+    /**
+     * Adds a key column, used to match existing rows on upsert.
+     *
+     * @param column the column name
+     * @param accessor the function reading the column value from a row
+     * @return the BulkTable instance
+     */
+    public BulkTable<T> keyColumn(String column, Function<? super T, ?> accessor) {
+        keyColumns.add(column);
+        return column(column, accessor);
+    }
+
+    /**
+     * Gets the table name.
+     *
+     * @return the table name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the column names in parameter order.
+     *
+     * @return the column names
+     */
+    public List<String> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Gets the key column names.
+     *
+     * @return the key column names
+     */
+    public List<String> getKeyColumns() {
+        return Collections.unmodifiableList(keyColumns);
+    }
+
+    /**
+     * Reads the column values of a row into a parameter array.
+     *
+     * @param row the row
+     * @param target the parameter array
+     * @param offset the index of the first column value in the array
+     */
+    void readValues(T row, Object[] target, int offset) {
+        for (int i = 0; i < accessors.size(); i++) {
+            target[offset + i] = accessors.get(i).apply(row);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package dev.bnacar.springx.data.bulk;
+
+import dev.bnacar.springx.data.converter.EntityDtoConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * High-throughput JDBC writer for loading large numbers of rows.
+ * Bypasses JPA entirely: rows are mapped to columns by a {@link BulkTable}, grouped into
+ * multi-row {@code VALUES} statements, sent as JDBC batches, and committed in chunks so that
+ * neither the persistence context nor a single transaction grows with the input.
+ * Upserts use the dialect's native statement, such as H2 {@code MERGE} or PostgreSQL
+ * {@code ON CONFLICT}.
+ * <p>
+ * When called within an existing transaction, all chunks join it.
+ */
+public class BulkWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkWriter.class);
+
+    // Most drivers limit a statement to 32767 or 65535 bind parameters
+    private static final int MAX_PARAMETERS = 32_767;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int rowsPerStatement;
+    private final int chunkSize;
+    private volatile BulkDialect dialect;
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs a new BulkWriter.
+     *
+     * @param dataSource the data source
+     * @param transactionManager the transaction manager for chunk transactions, or null to run without
+     * @param dialect the dialect, or null to detect it from the database on first use
+     * @param batchSize the number of statements sent per JDBC batch
+     * @param rowsPerStatement the number of rows per multi-row statement
+     * @param chunkSize the number of rows committed per transaction
+     */
+    public BulkWriter(DataSource dataSource, PlatformTransactionManager transactionManager, BulkDialect dialect,
+                      int batchSize, int rowsPerStatement, int chunkSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        Assert.isTrue(rowsPerStatement > 0, "Rows per statement must be positive");
+        Assert.isTrue(chunkSize > 0, "Chunk size must be positive");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = transactionManager != null ? new TransactionTemplate(transactionManager) : null;
+        this.dialect = dialect;
+        this.batchSize = batchSize;
+        this.rowsPerStatement = rowsPerStatement;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets the publisher of the {@link TableWriteEvent} sent after each write.
+     *
+     * @param eventPublisher the event publisher, or null to publish no events
+     */
+    public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Inserts rows.
+     *
+     * @param table the table mapping
+     * @param rows the rows to insert
+     * @param <T> the row type
+     * @return the number of rows written
+     */
+    public <T> long insert(BulkTable<T> table, Iterable<? extends T> rows) {
+        return write(table, rows, Function.identity(), false);
+    }
+
+    /**
+     * Inserts rows, or updates the non-key columns of rows whose key already exists.
+     *
+     * @param table the table mapping, with at least one key column
+     * @param rows the rows to upsert
+     * @param <T> the row type
+     * @return the number of rows written
+     * @throws UnsupportedOperationException if the dialect does not support upserts
+     */
+    public <T> long upsert(BulkTable<T> table, Iterable<? extends T> rows) {
+        Assert.notEmpty(table.getKeyColumns(), "Upserts require at least one key column");
+        return write(table, rows, Function.identity(), true);
+    }
+
+    /**
+     * Converts DTOs to entities and inserts them.
+     * DTOs are converted one chunk at a time, so the input may be a lazily produced sequence.
+     *
+     * @param table the entity table mapping
+     * @param dtos the DTOs to insert
+     * @param converter the converter from DTOs to entities
+     * @param <E> the entity type
+     * @param <D> the DTO type
+     * @return the number of rows written
+     */
+    public <E, D> long insert(BulkTable<E> table, Iterable<? extends D> dtos, EntityDtoConverter<E, D> converter) {
+        return write(table, dtos, converter::convertToEntity, false);
+    }
+
+    /**
+     * Converts DTOs to entities and upserts them.
+     * DTOs are converted one chunk at a time, so the input may be a lazily produced sequence.
+     *
+     * @param table the entity table mapping, with at least one key column
+     * @param dtos the DTOs to upsert
+     * @param converter the converter from DTOs to entities
+     * @param <E> the entity type
+     * @param <D> the DTO type
+     * @return the number of rows written
+     * @throws UnsupportedOperationException if the dialect does not support upserts
+     */
+    public <E, D> long upsert(BulkTable<E> table, Iterable<? extends D> dtos, EntityDtoConverter<E, D> converter) {
+        Assert.notEmpty(table.getKeyColumns(), "Upserts require at least one key column");
+        return write(table, dtos, converter::convertToEntity, true);
+    }
+
+    /**
+     * Gets the dialect, detecting it from the database on first use.
+     *
+     * @return the dialect
+     */
+    public BulkDialect getDialect() {
+        BulkDialect current = dialect;
+        if (current == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(
+                        jdbcTemplate.getDataSource(), DatabaseMetaData::getDatabaseProductName);
+                current = BulkDialect.fromDatabaseProductName(productName);
+            } catch (MetaDataAccessException e) {
+                logger.warn("Could not detect the database, falling back to generic bulk statements", e);
+                current = BulkDialect.GENERIC;
+            }
+            dialect = current;
+        }
+        return current;
+    }
+
+    /**
+     * Writes rows in chunked transactions.
+     *
+     * @param table the table mapping
+     * @param sources the source objects
+     * @param mapper the function mapping a source object to a row
+     * @param upsert whether to upsert instead of insert
+     * @param <S> the source type
+     * @param <T> the row type
+     * @return the number of rows written
+     */
+    private <S, T> long write(BulkTable<T> table, Iterable<? extends S> sources,
+                              Function<? super S, ? extends T> mapper, boolean upsert) {
+        int columns = table.getColumns().size();
+        Assert.isTrue(columns > 0, "Table mapping has no columns");
+        BulkDialect currentDialect = getDialect();
+        int rowsPerStatement = Math.max(1, Math.min(this.rowsPerStatement, MAX_PARAMETERS / columns));
+
+        long written = 0;
+        Iterator<? extends S> iterator = sources.iterator();
+        List<T> chunk = new ArrayList<>(Math.min(chunkSize, 10_000));
+        try {
+            while (iterator.hasNext()) {
+                chunk.add(mapper.apply(iterator.next()));
+                if (chunk.size() == chunkSize || !iterator.hasNext()) {
+                    writeChunk(table, chunk, currentDialect, rowsPerStatement, upsert);
+                    written += chunk.size();
+                    chunk.clear();
+                }
+            }
+        } finally {
+            // Chunks committed before a failure are reported as well
+            if (eventPublisher != null && written > 0) {
+                eventPublisher.publishEvent(new TableWriteEvent(this, table.getName(), written));
+            }
+        }
+
+        logger.debug("Bulk {} of {} rows into {}", upsert ? "upsert" : "insert", written, table.getName());
+        return written;
+    }
+
+    /**
+     * Writes one chunk of rows in a transaction.
+     *
+     * @param table the table mapping
+     * @param rows the rows
+     * @param dialect the dialect
+     * @param rowsPerStatement the number of rows per statement
+     * @param upsert whether to upsert instead of insert
+     * @param <T> the row type
+     */
+    private <T> void writeChunk(BulkTable<T> table, List<T> rows, BulkDialect dialect, int rowsPerStatement,
+                                boolean upsert) {
+        Runnable work = () -> {
+            int columns = table.getColumns().size();
+            int fullStatements = rows.size() / rowsPerStatement;
+
+            // Full statements share one SQL string and go out as JDBC batches
+            if (fullStatements > 0) {
+                List<Object[]> batchArgs = new ArrayList<>(fullStatements);
+                for (int statement = 0; statement < fullStatements; statement++) {
+                    batchArgs.add(parameters(table, rows, statement * rowsPerStatement, rowsPerStatement, columns));
+                }
+                String sql = upsert ? dialect.upsert(table, rowsPerStatement) : dialect.insert(table, rowsPerStatement);
+                jdbcTemplate.batchUpdate(sql, batchArgs, batchSize, (ps, args) -> {
+                    for (int i = 0; i < args.length; i++) {
+                        StatementCreatorUtils.setParameterValue(ps, i + 1, SqlTypeValue.TYPE_UNKNOWN, args[i]);
+                    }
+                });
+            }
+
+            int remaining = rows.size() - fullStatements * rowsPerStatement;
+            if (remaining > 0) {
+                String sql = upsert ? dialect.upsert(table, remaining) : dialect.insert(table, remaining);
+                jdbcTemplate.update(sql, parameters(table, rows, fullStatements * rowsPerStatement, remaining, columns));
+            }
+        };
+
+        if (transactionTemplate != null) {
+            transactionTemplate.executeWithoutResult(status -> work.run());
+        } else {
+            work.run();
+        }
+    }
+
+    /**
+     * Flattens the column values of consecutive rows into statement parameters.
+     *
+     * @param table the table mapping
+     * @param rows the rows
+     * @param from the index of the first row
+     * @param count the number of rows
+     * @param columns the number of columns per row
+     * @param <T> the row type
+     * @return the parameters
+     */
+    private static <T> Object[] parameters(BulkTable<T> table, List<T> rows, int from, int count, int columns) {
+        Object[] parameters = new Object[count * columns];
+        for (int i = 0; i < count; i++) {
+            table.readValues(rows.get(from + i), parameters, i * columns);
+        }
+        return parameters;
+    }
+}
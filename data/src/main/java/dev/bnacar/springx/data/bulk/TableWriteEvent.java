@@ -0,0 +1,45 @@
+package dev.bnacar.springx.data.bulk;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published when rows have been written to a table through the {@link BulkWriter}.
+ * The event is published synchronously on the writing thread, so listeners can still
+ * register transaction callbacks for an enclosing transaction.
+ */
+public class TableWriteEvent extends ApplicationEvent {
+
+    private final String tableName;
+    private final long rowCount;
+
+    /**
+     * Constructs a new TableWriteEvent.
+     *
+     * @param source the object that wrote the rows
+     * @param tableName the table name
+     * @param rowCount the number of rows written
+     */
+    public TableWriteEvent(Object source, String tableName, long rowCount) {
+        super(source);
+        this.tableName = tableName;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Gets the table name.
+     *
+     * @return the table name
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Gets the number of rows written.
+     *
+     * @return the number of rows written
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+}
@@ -1,11 +1,52 @@
 package dev.bnacar.springx.data.config;
 
+import dev.bnacar.springx.data.actuate.CacheWarmUpHealthIndicator;
+import dev.bnacar.springx.data.actuate.QueryMetrics;
+import dev.bnacar.springx.data.actuate.RepositoryCacheMetrics;
+import dev.bnacar.springx.data.actuate.RepositoryCachesEndpoint;
+import dev.bnacar.springx.data.bulk.BulkWriter;
+import dev.bnacar.springx.data.id.SequenceIdGenerators;
+import dev.bnacar.springx.data.id.SnowflakeIdGenerator;
+import dev.bnacar.springx.data.instrument.QueryInstrumentation;
+import dev.bnacar.springx.data.instrument.QueryInstrumentationBeanPostProcessor;
+import dev.bnacar.springx.data.instrument.QueryScopeFilter;
+import dev.bnacar.springx.data.instrument.RepositoryQueryLabelAspect;
+import dev.bnacar.springx.data.query.QueryResultCache;
+import dev.bnacar.springx.data.repository.CacheSnapshotManager;
+import dev.bnacar.springx.data.repository.CacheWarmer;
 import dev.bnacar.springx.data.repository.CacheableRepositoryAspect;
+import dev.bnacar.springx.data.repository.CountedRepositoryAspect;
+import dev.bnacar.springx.data.repository.EntityCountRegistry;
+import dev.bnacar.springx.data.repository.ExistenceFilterRegistry;
+import dev.bnacar.springx.data.repository.NegativeLookupAspect;
+import dev.bnacar.springx.data.repository.RepositoryEntityResolver;
+import dev.bnacar.springx.data.repository.RepositoryEventAspect;
+import dev.bnacar.springx.data.routing.ReadOnlyRoutingAspect;
+import dev.bnacar.springx.data.routing.ReplicaRoutingBeanPostProcessor;
+import dev.bnacar.springx.data.routing.ReplicaRoutingDataSource;
+import dev.bnacar.springx.data.scan.InMemoryScanCheckpointStore;
+import dev.bnacar.springx.data.scan.JdbcScanCheckpointStore;
+import dev.bnacar.springx.data.scan.PartitionedTableScanner;
+import dev.bnacar.springx.data.scan.ScanCheckpointStore;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Auto-configuration for Spring X data features.
@@ -28,12 +69,434 @@ public class DataAutoConfiguration {
     /**
      * Creates the CacheableRepositoryAspect bean.
      *
+     * @param repositoryEntityResolver the repository entity resolver
      * @return the CacheableRepositoryAspect bean
      */
     @Bean
     @ConditionalOnProperty(name = "spring-x.data.repository-caching.enabled", havingValue = "true", matchIfMissing = true)
     @ConditionalOnMissingBean(CacheableRepositoryAspect.class)
-    public CacheableRepositoryAspect cacheableRepositoryAspect() {
-        return new CacheableRepositoryAspect();
+    public CacheableRepositoryAspect cacheableRepositoryAspect(RepositoryEntityResolver repositoryEntityResolver) {
+        CacheableRepositoryAspect aspect = new CacheableRepositoryAspect();
+        aspect.setDefaultMaxWeight(dataProperties.getRepositoryCaching().getDefaultMaxWeight());
+        aspect.setEntityResolver(repositoryEntityResolver);
+        return aspect;
+    }
+
+    /**
+     * Creates the CacheSnapshotManager bean.
+     *
+     * @param cacheableRepositoryAspect the repository cache aspect
+     * @return the CacheSnapshotManager bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.repository-caching.snapshot.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(CacheSnapshotManager.class)
+    public CacheSnapshotManager cacheSnapshotManager(CacheableRepositoryAspect cacheableRepositoryAspect) {
+        return new CacheSnapshotManager(cacheableRepositoryAspect,
+                Paths.get(dataProperties.getRepositoryCaching().getSnapshot().getPath()));
+    }
+
+    /**
+     * Creates the RepositoryEntityResolver bean.
+     *
+     * @param entityManagerFactory provider of the entity manager factory
+     * @return the RepositoryEntityResolver bean
+     */
+    @Bean
+    @ConditionalOnMissingBean(RepositoryEntityResolver.class)
+    public RepositoryEntityResolver repositoryEntityResolver(ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new RepositoryEntityResolver(entityManagerFactory);
+    }
+
+    /**
+     * Creates the RepositoryEventAspect bean.
+     *
+     * @param repositoryEntityResolver the repository entity resolver
+     * @param eventPublisher the application event publisher
+     * @return the RepositoryEventAspect bean
+     */
+    @Bean
+    @ConditionalOnMissingBean(RepositoryEventAspect.class)
+    public RepositoryEventAspect repositoryEventAspect(RepositoryEntityResolver repositoryEntityResolver,
+                                                      ApplicationEventPublisher eventPublisher) {
+        return new RepositoryEventAspect(repositoryEntityResolver, eventPublisher);
+    }
+
+    /**
+     * Creates the ExistenceFilterRegistry bean.
+     *
+     * @param repositoryEntityResolver the repository entity resolver
+     * @return the ExistenceFilterRegistry bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.repository-caching.negative-lookup.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(ExistenceFilterRegistry.class)
+    public ExistenceFilterRegistry existenceFilterRegistry(RepositoryEntityResolver repositoryEntityResolver) {
+        DataProperties.NegativeLookupProperties negativeLookupProps =
+                dataProperties.getRepositoryCaching().getNegativeLookup();
+        return new ExistenceFilterRegistry(
+                repositoryEntityResolver,
+                negativeLookupProps.getExpectedInsertions(),
+                negativeLookupProps.getFalsePositiveProbability(),
+                negativeLookupProps.getFetchSize(),
+                negativeLookupProps.getRebuildIntervalSeconds());
+    }
+
+    /**
+     * Creates the NegativeLookupAspect bean.
+     *
+     * @param existenceFilterRegistry the existence filter registry
+     * @return the NegativeLookupAspect bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.repository-caching.negative-lookup.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(NegativeLookupAspect.class)
+    public NegativeLookupAspect negativeLookupAspect(ExistenceFilterRegistry existenceFilterRegistry) {
+        return new NegativeLookupAspect(existenceFilterRegistry);
+    }
+
+    /**
+     * Creates the EntityCountRegistry bean.
+     *
+     * @param repositoryEntityResolver the repository entity resolver
+     * @return the EntityCountRegistry bean
+     */
+    @Bean
+    @ConditionalOnMissingBean(EntityCountRegistry.class)
+    public EntityCountRegistry entityCountRegistry(RepositoryEntityResolver repositoryEntityResolver) {
+        return new EntityCountRegistry(repositoryEntityResolver,
+                dataProperties.getRepositoryCaching().getCounts().getReconcileIntervalSeconds());
+    }
+
+    /**
+     * Creates the CountedRepositoryAspect bean.
+     *
+     * @param entityCountRegistry the entity count registry
+     * @param repositoryEntityResolver the repository entity resolver
+     * @return the CountedRepositoryAspect bean
+     */
+    @Bean
+    @ConditionalOnMissingBean(CountedRepositoryAspect.class)
+    public CountedRepositoryAspect countedRepositoryAspect(EntityCountRegistry entityCountRegistry,
+                                                          RepositoryEntityResolver repositoryEntityResolver) {
+        return new CountedRepositoryAspect(entityCountRegistry, repositoryEntityResolver);
+    }
+
+    /**
+     * Creates the CacheWarmer bean.
+     *
+     * @param repositoryEntityResolver the repository entity resolver
+     * @return the CacheWarmer bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.repository-caching.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+    @ConditionalOnMissingBean(CacheWarmer.class)
+    public CacheWarmer cacheWarmer(RepositoryEntityResolver repositoryEntityResolver) {
+        DataProperties.WarmUpProperties warmUpProps = dataProperties.getRepositoryCaching().getWarmUp();
+        return new CacheWarmer(
+                repositoryEntityResolver,
+                warmUpProps.getIds(),
+                warmUpProps.getParallelism(),
+                warmUpProps.getTimeoutSeconds());
+    }
+
+    /**
+     * Creates the BulkWriter bean.
+     *
+     * @param dataSource the data source
+     * @param transactionManager provider of the transaction manager
+     * @param eventPublisher the application event publisher
+     * @return the BulkWriter bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.bulk-write.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(BulkWriter.class)
+    public BulkWriter bulkWriter(DataSource dataSource, ObjectProvider<PlatformTransactionManager> transactionManager,
+                                 ApplicationEventPublisher eventPublisher) {
+        DataProperties.BulkWriteProperties bulkWriteProps = dataProperties.getBulkWrite();
+        BulkWriter bulkWriter = new BulkWriter(
+                dataSource,
+                transactionManager.getIfUnique(),
+                bulkWriteProps.getDialect(),
+                bulkWriteProps.getBatchSize(),
+                bulkWriteProps.getRowsPerStatement(),
+                bulkWriteProps.getChunkSize());
+        bulkWriter.setEventPublisher(eventPublisher);
+        return bulkWriter;
+    }
+
+    /**
+     * Creates the QueryResultCache bean.
+     *
+     * @return the QueryResultCache bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.query-builder.result-cache.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(QueryResultCache.class)
+    public QueryResultCache queryResultCache() {
+        DataProperties.ResultCacheProperties resultCacheProps = dataProperties.getQueryBuilder().getResultCache();
+        return new QueryResultCache(resultCacheProps.getMaxEntries(), resultCacheProps.getTtlSeconds());
+    }
+
+    /**
+     * Creates the ScanCheckpointStore bean, backed by the checkpoint table if one is configured,
+     * or in memory otherwise, in which case scans do not resume after a restart.
+     *
+     * @param dataSource the data source
+     * @return the ScanCheckpointStore bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.scan.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(ScanCheckpointStore.class)
+    public ScanCheckpointStore scanCheckpointStore(DataSource dataSource) {
+        String checkpointTable = dataProperties.getScan().getCheckpointTable();
+        if (checkpointTable == null || checkpointTable.isEmpty()) {
+            return new InMemoryScanCheckpointStore();
+        }
+
+        JdbcScanCheckpointStore checkpointStore = new JdbcScanCheckpointStore(dataSource, checkpointTable);
+        checkpointStore.initializeSchema();
+        return checkpointStore;
+    }
+
+    /**
+     * Creates the PartitionedTableScanner bean.
+     *
+     * @param dataSource the data source
+     * @param checkpointStore the scan checkpoint store
+     * @return the PartitionedTableScanner bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.scan.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(PartitionedTableScanner.class)
+    public PartitionedTableScanner partitionedTableScanner(DataSource dataSource, ScanCheckpointStore checkpointStore) {
+        DataProperties.ScanProperties scanProps = dataProperties.getScan();
+        return new PartitionedTableScanner(dataSource, checkpointStore, scanProps.getParallelism(), scanProps.getBatchSize());
+    }
+
+    /**
+     * Creates the SequenceIdGenerators bean.
+     *
+     * @param dataSource the data source
+     * @return the SequenceIdGenerators bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.id-generation.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(SequenceIdGenerators.class)
+    public SequenceIdGenerators sequenceIdGenerators(DataSource dataSource) {
+        return new SequenceIdGenerators(
+                dataSource,
+                dataProperties.getBulkWrite().getDialect(),
+                dataProperties.getIdGeneration().getAllocationSize());
+    }
+
+    /**
+     * Creates the SnowflakeIdGenerator bean when a worker id is configured.
+     *
+     * @return the SnowflakeIdGenerator bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.id-generation.worker-id")
+    @ConditionalOnMissingBean(SnowflakeIdGenerator.class)
+    public SnowflakeIdGenerator snowflakeIdGenerator() {
+        return new SnowflakeIdGenerator(dataProperties.getIdGeneration().getWorkerId());
+    }
+
+    /**
+     * Creates the ReplicaRoutingBeanPostProcessor bean, which routes read-only work on the
+     * {@code dataSource} bean to the configured replicas. The properties are bound from the
+     * environment, since post-processors are created before configuration properties beans.
+     *
+     * @param environment the environment
+     * @return the ReplicaRoutingBeanPostProcessor bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.replicas.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(ReplicaRoutingBeanPostProcessor.class)
+    public static ReplicaRoutingBeanPostProcessor replicaRoutingBeanPostProcessor(Environment environment) {
+        DataProperties.ReplicaProperties replicaProps = Binder.get(environment)
+                .bind("spring-x.data.replicas", DataProperties.ReplicaProperties.class)
+                .orElseGet(DataProperties.ReplicaProperties::new);
+        return new ReplicaRoutingBeanPostProcessor("dataSource", primary -> {
+            List<DataSource> replicas = new ArrayList<>();
+            for (DataProperties.ReplicaDataSourceProperties replica : replicaProps.getDataSources()) {
+                replicas.add(DataSourceBuilder.create()
+                        .url(replica.getUrl())
+                        .username(replica.getUsername())
+                        .password(replica.getPassword())
+                        .driverClassName(replica.getDriverClassName())
+                        .build());
+            }
+            return new ReplicaRoutingDataSource(
+                    primary,
+                    replicas,
+                    replicaProps.getSelection(),
+                    replicaProps.getLagQuery(),
+                    replicaProps.getMaxLagSeconds(),
+                    replicaProps.getCheckIntervalSeconds());
+        });
+    }
+
+    /**
+     * Creates the QueryInstrumentation bean. The properties are bound from the environment,
+     * since the instrumentation is needed by a post-processor.
+     *
+     * @param environment the environment
+     * @return the QueryInstrumentation bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.instrumentation.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(QueryInstrumentation.class)
+    public static QueryInstrumentation queryInstrumentation(Environment environment) {
+        DataProperties.InstrumentationProperties instrumentationProps = Binder.get(environment)
+                .bind("spring-x.data.instrumentation", DataProperties.InstrumentationProperties.class)
+                .orElseGet(DataProperties.InstrumentationProperties::new);
+        return new QueryInstrumentation(
+                instrumentationProps.getSlowThresholdMillis(),
+                instrumentationProps.getNPlusOneThreshold());
+    }
+
+    /**
+     * Creates the QueryInstrumentationBeanPostProcessor bean, which instruments the {@code dataSource} bean.
+     *
+     * @param queryInstrumentation the query instrumentation
+     * @return the QueryInstrumentationBeanPostProcessor bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.instrumentation.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(QueryInstrumentationBeanPostProcessor.class)
+    public static QueryInstrumentationBeanPostProcessor queryInstrumentationBeanPostProcessor(
+            QueryInstrumentation queryInstrumentation) {
+        return new QueryInstrumentationBeanPostProcessor("dataSource", queryInstrumentation);
+    }
+
+    /**
+     * Creates the RepositoryQueryLabelAspect bean.
+     *
+     * @return the RepositoryQueryLabelAspect bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.instrumentation.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(RepositoryQueryLabelAspect.class)
+    public RepositoryQueryLabelAspect repositoryQueryLabelAspect() {
+        return new RepositoryQueryLabelAspect();
+    }
+
+    /**
+     * Creates the ReadOnlyRoutingAspect bean.
+     *
+     * @return the ReadOnlyRoutingAspect bean
+     */
+    @Bean
+    @ConditionalOnProperty(name = "spring-x.data.replicas.enabled", havingValue = "true")
+    @ConditionalOnMissingBean(ReadOnlyRoutingAspect.class)
+    public ReadOnlyRoutingAspect readOnlyRoutingAspect() {
+        return new ReadOnlyRoutingAspect();
+    }
+
+    /**
+     * Micrometer binding for repository caches, active when Micrometer is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    @ConditionalOnProperty(name = "spring-x.data.repository-caching.enabled", havingValue = "true", matchIfMissing = true)
+    static class RepositoryCacheMetricsConfiguration {
+
+        /**
+         * Creates the RepositoryCacheMetrics bean.
+         *
+         * @param cacheableRepositoryAspect the repository cache aspect
+         * @return the RepositoryCacheMetrics bean
+         */
+        @Bean
+        @ConditionalOnMissingBean(RepositoryCacheMetrics.class)
+        public RepositoryCacheMetrics repositoryCacheMetrics(CacheableRepositoryAspect cacheableRepositoryAspect) {
+            return new RepositoryCacheMetrics(cacheableRepositoryAspect);
+        }
+    }
+
+    /**
+     * Micrometer binding for statement instrumentation, active when Micrometer is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+    @ConditionalOnProperty(name = "spring-x.data.instrumentation.enabled", havingValue = "true")
+    static class QueryMetricsConfiguration {
+
+        /**
+         * Creates the QueryMetrics bean.
+         *
+         * @param queryInstrumentation the query instrumentation
+         * @return the QueryMetrics bean
+         */
+        @Bean
+        @ConditionalOnMissingBean(QueryMetrics.class)
+        public QueryMetrics queryMetrics(QueryInstrumentation queryInstrumentation) {
+            return new QueryMetrics(queryInstrumentation);
+        }
+    }
+
+    /**
+     * Request scopes for statement counting, active in servlet web applications.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnClass(name = "org.springframework.web.filter.OncePerRequestFilter")
+    @ConditionalOnProperty(name = "spring-x.data.instrumentation.enabled", havingValue = "true")
+    static class QueryScopeFilterConfiguration {
+
+        /**
+         * Creates the QueryScopeFilter bean.
+         *
+         * @param queryInstrumentation the query instrumentation
+         * @return the QueryScopeFilter bean
+         */
+        @Bean
+        @ConditionalOnMissingBean(QueryScopeFilter.class)
+        public QueryScopeFilter queryScopeFilter(QueryInstrumentation queryInstrumentation) {
+            return new QueryScopeFilter(queryInstrumentation);
+        }
+    }
+
+    /**
+     * Actuator endpoint for repository caches, active when Spring Boot Actuator is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    @ConditionalOnProperty(name = "spring-x.data.repository-caching.enabled", havingValue = "true", matchIfMissing = true)
+    static class RepositoryCachesEndpointConfiguration {
+
+        /**
+         * Creates the RepositoryCachesEndpoint bean.
+         *
+         * @param cacheableRepositoryAspect the repository cache aspect
+         * @return the RepositoryCachesEndpoint bean
+         */
+        @Bean
+        @ConditionalOnMissingBean(RepositoryCachesEndpoint.class)
+        public RepositoryCachesEndpoint repositoryCachesEndpoint(CacheableRepositoryAspect cacheableRepositoryAspect) {
+            return new RepositoryCachesEndpoint(cacheableRepositoryAspect);
+        }
+    }
+
+    /**
+     * Health indicator for cache warm-up, active when Spring Boot Actuator is on the classpath.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.health.HealthIndicator")
+    @ConditionalOnProperty(name = "spring-x.data.repository-caching.warm-up.enabled", havingValue = "true", matchIfMissing = true)
+    static class CacheWarmUpHealthConfiguration {
+
+        /**
+         * Creates the CacheWarmUpHealthIndicator bean.
+         *
+         * @param cacheWarmer the cache warmer
+         * @return the CacheWarmUpHealthIndicator bean
+         */
+        @Bean
+        @ConditionalOnMissingBean(name = "cacheWarmUpHealthIndicator")
+        public CacheWarmUpHealthIndicator cacheWarmUpHealthIndicator(CacheWarmer cacheWarmer) {
+            return new CacheWarmUpHealthIndicator(cacheWarmer);
+        }
     }
 }
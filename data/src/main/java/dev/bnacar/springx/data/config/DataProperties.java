@@ -1,7 +1,14 @@
 package dev.bnacar.springx.data.config;
 
+import dev.bnacar.springx.data.bulk.BulkDialect;
+import dev.bnacar.springx.data.routing.ReplicaSelection;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration properties for Spring X data features.
  */
@@ -10,6 +17,11 @@ public class DataProperties {
 
     private final RepositoryCachingProperties repositoryCaching = new RepositoryCachingProperties();
     private final QueryBuilderProperties queryBuilder = new QueryBuilderProperties();
+    private final BulkWriteProperties bulkWrite = new BulkWriteProperties();
+    private final ReplicaProperties replicas = new ReplicaProperties();
+    private final InstrumentationProperties instrumentation = new InstrumentationProperties();
+    private final ScanProperties scan = new ScanProperties();
+    private final IdGenerationProperties idGeneration = new IdGenerationProperties();
 
     /**
      * Gets the repository caching properties.
@@ -29,6 +41,51 @@ public class DataProperties {
         return queryBuilder;
     }
 
+    /**
+     * Gets the bulk write properties.
+     *
+     * @return the bulk write properties
+     */
+    public BulkWriteProperties getBulkWrite() {
+        return bulkWrite;
+    }
+
+    /**
+     * Gets the read replica properties.
+     *
+     * @return the read replica properties
+     */
+    public ReplicaProperties getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Gets the statement instrumentation properties.
+     *
+     * @return the statement instrumentation properties
+     */
+    public InstrumentationProperties getInstrumentation() {
+        return instrumentation;
+    }
+
+    /**
+     * Gets the partitioned table scan properties.
+     *
+     * @return the partitioned table scan properties
+     */
+    public ScanProperties getScan() {
+        return scan;
+    }
+
+    /**
+     * Gets the id generation properties.
+     *
+     * @return the id generation properties
+     */
+    public IdGenerationProperties getIdGeneration() {
+        return idGeneration;
+    }
+
     /**
      * Configuration properties for repository caching.
      */
@@ -38,6 +95,31 @@ public class DataProperties {
          */
         private boolean enabled = true;
 
+        /**
+         * Weight budget for caches that do not declare their own, 0 for unbounded.
+         */
+        private long defaultMaxWeight = 0;
+
+        /**
+         * Negative lookup properties.
+         */
+        private final NegativeLookupProperties negativeLookup = new NegativeLookupProperties();
+
+        /**
+         * Warm-up properties.
+         */
+        private final WarmUpProperties warmUp = new WarmUpProperties();
+
+        /**
+         * Snapshot properties.
+         */
+        private final SnapshotProperties snapshot = new SnapshotProperties();
+
+        /**
+         * Counted repository properties.
+         */
+        private final CountsProperties counts = new CountsProperties();
+
         /**
          * Gets whether repository caching is enabled.
          *
@@ -55,6 +137,357 @@ public class DataProperties {
         public void setEnabled(boolean enabled) {
             this.enabled = enabled;
         }
+
+        /**
+         * Gets the weight budget for caches that do not declare their own.
+         *
+         * @return the default maximum weight
+         */
+        public long getDefaultMaxWeight() {
+            return defaultMaxWeight;
+        }
+
+        /**
+         * Sets the weight budget for caches that do not declare their own.
+         *
+         * @param defaultMaxWeight the default maximum weight
+         */
+        public void setDefaultMaxWeight(long defaultMaxWeight) {
+            this.defaultMaxWeight = defaultMaxWeight;
+        }
+
+        /**
+         * Gets the negative lookup properties.
+         *
+         * @return the negative lookup properties
+         */
+        public NegativeLookupProperties getNegativeLookup() {
+            return negativeLookup;
+        }
+
+        /**
+         * Gets the warm-up properties.
+         *
+         * @return the warm-up properties
+         */
+        public WarmUpProperties getWarmUp() {
+            return warmUp;
+        }
+
+        /**
+         * Gets the snapshot properties.
+         *
+         * @return the snapshot properties
+         */
+        public SnapshotProperties getSnapshot() {
+            return snapshot;
+        }
+
+        /**
+         * Gets the counted repository properties.
+         *
+         * @return the counted repository properties
+         */
+        public CountsProperties getCounts() {
+            return counts;
+        }
+    }
+
+    /**
+     * Configuration properties for Bloom-filter backed negative lookups on {@code findById}.
+     */
+    public static class NegativeLookupProperties {
+        /**
+         * Whether negative lookups are enabled.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The number of ids each filter is sized for.
+         */
+        private long expectedInsertions = 1_000_000;
+
+        /**
+         * The desired false positive probability (0.0-1.0).
+         */
+        private double falsePositiveProbability = 0.01;
+
+        /**
+         * The JDBC fetch size used when scanning ids.
+         */
+        private int fetchSize = 10_000;
+
+        /**
+         * The interval between filter rebuilds in seconds, which bounds how long ids inserted
+         * outside caching repositories are reported absent. Must be positive.
+         */
+        private long rebuildIntervalSeconds = 300;
+
+        /**
+         * Gets whether negative lookups are enabled.
+         *
+         * @return whether negative lookups are enabled
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether negative lookups are enabled.
+         *
+         * @param enabled whether negative lookups are enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the number of ids each filter is sized for.
+         *
+         * @return the expected insertions
+         */
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        /**
+         * Sets the number of ids each filter is sized for.
+         *
+         * @param expectedInsertions the expected insertions
+         */
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        /**
+         * Gets the desired false positive probability.
+         *
+         * @return the false positive probability
+         */
+        public double getFalsePositiveProbability() {
+            return falsePositiveProbability;
+        }
+
+        /**
+         * Sets the desired false positive probability.
+         *
+         * @param falsePositiveProbability the false positive probability
+         */
+        public void setFalsePositiveProbability(double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+        }
+
+        /**
+         * Gets the JDBC fetch size used when scanning ids.
+         *
+         * @return the fetch size
+         */
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        /**
+         * Sets the JDBC fetch size used when scanning ids.
+         *
+         * @param fetchSize the fetch size
+         */
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        /**
+         * Gets the interval between filter rebuilds in seconds.
+         *
+         * @return the rebuild interval in seconds
+         */
+        public long getRebuildIntervalSeconds() {
+            return rebuildIntervalSeconds;
+        }
+
+        /**
+         * Sets the interval between filter rebuilds in seconds.
+         *
+         * @param rebuildIntervalSeconds the rebuild interval in seconds
+         */
+        public void setRebuildIntervalSeconds(long rebuildIntervalSeconds) {
+            this.rebuildIntervalSeconds = rebuildIntervalSeconds;
+        }
+    }
+
+    /**
+     * Configuration properties for repository cache warm-up at application startup.
+     */
+    public static class WarmUpProperties {
+        /**
+         * Whether cache warm-up is enabled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * The maximum number of warm-up tasks run concurrently.
+         */
+        private int parallelism = 4;
+
+        /**
+         * The time budget for the whole warm-up in seconds.
+         */
+        private long timeoutSeconds = 60;
+
+        /**
+         * Ids to load with {@code findById}, keyed by repository bean name.
+         */
+        private Map<String, List<String>> ids = new LinkedHashMap<>();
+
+        /**
+         * Gets whether cache warm-up is enabled.
+         *
+         * @return whether cache warm-up is enabled
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether cache warm-up is enabled.
+         *
+         * @param enabled whether cache warm-up is enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the maximum number of warm-up tasks run concurrently.
+         *
+         * @return the parallelism
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * Sets the maximum number of warm-up tasks run concurrently.
+         *
+         * @param parallelism the parallelism
+         */
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        /**
+         * Gets the time budget for the whole warm-up in seconds.
+         *
+         * @return the timeout in seconds
+         */
+        public long getTimeoutSeconds() {
+            return timeoutSeconds;
+        }
+
+        /**
+         * Sets the time budget for the whole warm-up in seconds.
+         *
+         * @param timeoutSeconds the timeout in seconds
+         */
+        public void setTimeoutSeconds(long timeoutSeconds) {
+            this.timeoutSeconds = timeoutSeconds;
+        }
+
+        /**
+         * Gets the ids to load with {@code findById}, keyed by repository bean name.
+         *
+         * @return the ids
+         */
+        public Map<String, List<String>> getIds() {
+            return ids;
+        }
+
+        /**
+         * Sets the ids to load with {@code findById}, keyed by repository bean name.
+         *
+         * @param ids the ids
+         */
+        public void setIds(Map<String, List<String>> ids) {
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * Configuration properties for persisting repository caches across restarts.
+     */
+    public static class SnapshotProperties {
+        /**
+         * Whether cache snapshots are enabled.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The snapshot file path.
+         */
+        private String path = "springx-repository-caches.snapshot";
+
+        /**
+         * Gets whether cache snapshots are enabled.
+         *
+         * @return whether cache snapshots are enabled
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether cache snapshots are enabled.
+         *
+         * @param enabled whether cache snapshots are enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the snapshot file path.
+         *
+         * @return the snapshot file path
+         */
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Sets the snapshot file path.
+         *
+         * @param path the snapshot file path
+         */
+        public void setPath(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Configuration properties for the in-memory counts of counted repositories.
+     */
+    public static class CountsProperties {
+        /**
+         * The interval between reconciliations with the database in seconds, or 0 to never reconcile.
+         */
+        private long reconcileIntervalSeconds = 300;
+
+        /**
+         * Gets the interval between reconciliations with the database in seconds.
+         *
+         * @return the reconcile interval in seconds
+         */
+        public long getReconcileIntervalSeconds() {
+            return reconcileIntervalSeconds;
+        }
+
+        /**
+         * Sets the interval between reconciliations with the database in seconds.
+         *
+         * @param reconcileIntervalSeconds the reconcile interval in seconds
+         */
+        public void setReconcileIntervalSeconds(long reconcileIntervalSeconds) {
+            this.reconcileIntervalSeconds = reconcileIntervalSeconds;
+        }
     }
 
     /**
@@ -66,6 +499,11 @@ public class DataProperties {
          */
         private boolean enabled = true;
 
+        /**
+         * Configuration for the query result cache.
+         */
+        private final ResultCacheProperties resultCache = new ResultCacheProperties();
+
         /**
          * Gets whether the query builder is enabled.
          *
@@ -83,5 +521,697 @@ public class DataProperties {
         public void setEnabled(boolean enabled) {
             this.enabled = enabled;
         }
+
+        /**
+         * Gets the query result cache properties.
+         *
+         * @return the query result cache properties
+         */
+        public ResultCacheProperties getResultCache() {
+            return resultCache;
+        }
+    }
+
+    /**
+     * Configuration properties for the query result cache.
+     */
+    public static class ResultCacheProperties {
+        /**
+         * Whether query results are cached.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The maximum number of cached results.
+         */
+        private int maxEntries = 1000;
+
+        /**
+         * The time to live of cached results in seconds.
+         */
+        private long ttlSeconds = 60;
+
+        /**
+         * Gets whether query results are cached.
+         *
+         * @return whether query results are cached
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether query results are cached.
+         *
+         * @param enabled whether query results are cached
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the maximum number of cached results.
+         *
+         * @return the maximum number of cached results
+         */
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        /**
+         * Sets the maximum number of cached results.
+         *
+         * @param maxEntries the maximum number of cached results
+         */
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        /**
+         * Gets the time to live of cached results in seconds.
+         *
+         * @return the time to live in seconds
+         */
+        public long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        /**
+         * Sets the time to live of cached results in seconds.
+         *
+         * @param ttlSeconds the time to live in seconds
+         */
+        public void setTtlSeconds(long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+    }
+
+    /**
+     * Configuration properties for JDBC bulk writes.
+     */
+    public static class BulkWriteProperties {
+        /**
+         * Whether the bulk writer is enabled. Requires a DataSource.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The number of statements sent per JDBC batch.
+         */
+        private int batchSize = 50;
+
+        /**
+         * The number of rows per multi-row statement.
+         */
+        private int rowsPerStatement = 100;
+
+        /**
+         * The number of rows committed per transaction.
+         */
+        private int chunkSize = 10_000;
+
+        /**
+         * The SQL dialect, detected from the database if not set.
+         */
+        private BulkDialect dialect;
+
+        /**
+         * Gets whether the bulk writer is enabled.
+         *
+         * @return whether the bulk writer is enabled
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether the bulk writer is enabled.
+         *
+         * @param enabled whether the bulk writer is enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the number of statements sent per JDBC batch.
+         *
+         * @return the batch size
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the number of statements sent per JDBC batch.
+         *
+         * @param batchSize the batch size
+         */
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Gets the number of rows per multi-row statement.
+         *
+         * @return the rows per statement
+         */
+        public int getRowsPerStatement() {
+            return rowsPerStatement;
+        }
+
+        /**
+         * Sets the number of rows per multi-row statement.
+         *
+         * @param rowsPerStatement the rows per statement
+         */
+        public void setRowsPerStatement(int rowsPerStatement) {
+            this.rowsPerStatement = rowsPerStatement;
+        }
+
+        /**
+         * Gets the number of rows committed per transaction.
+         *
+         * @return the chunk size
+         */
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        /**
+         * Sets the number of rows committed per transaction.
+         *
+         * @param chunkSize the chunk size
+         */
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        /**
+         * Gets the SQL dialect.
+         *
+         * @return the dialect, or null to detect it from the database
+         */
+        public BulkDialect getDialect() {
+            return dialect;
+        }
+
+        /**
+         * Sets the SQL dialect.
+         *
+         * @param dialect the dialect
+         */
+        public void setDialect(BulkDialect dialect) {
+            this.dialect = dialect;
+        }
+    }
+
+    /**
+     * Configuration properties for routing read-only work to read replicas.
+     */
+    public static class ReplicaProperties {
+        /**
+         * Whether read replica routing is enabled.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The strategy for choosing a replica.
+         */
+        private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+        /**
+         * Query returning the replication lag in seconds. Replicas are only checked for
+         * connectivity if not set.
+         */
+        private String lagQuery;
+
+        /**
+         * The lag in seconds above which a replica is skipped.
+         */
+        private long maxLagSeconds = 10;
+
+        /**
+         * The interval in seconds between replica checks.
+         */
+        private long checkIntervalSeconds = 5;
+
+        /**
+         * The replica data sources.
+         */
+        private List<ReplicaDataSourceProperties> dataSources = new ArrayList<>();
+
+        /**
+         * Gets whether read replica routing is enabled.
+         *
+         * @return whether read replica routing is enabled
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether read replica routing is enabled.
+         *
+         * @param enabled whether read replica routing is enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the strategy for choosing a replica.
+         *
+         * @return the replica selection strategy
+         */
+        public ReplicaSelection getSelection() {
+            return selection;
+        }
+
+        /**
+         * Sets the strategy for choosing a replica.
+         *
+         * @param selection the replica selection strategy
+         */
+        public void setSelection(ReplicaSelection selection) {
+            this.selection = selection;
+        }
+
+        /**
+         * Gets the query returning the replication lag in seconds.
+         *
+         * @return the lag query, or null to only check connectivity
+         */
+        public String getLagQuery() {
+            return lagQuery;
+        }
+
+        /**
+         * Sets the query returning the replication lag in seconds.
+         *
+         * @param lagQuery the lag query
+         */
+        public void setLagQuery(String lagQuery) {
+            this.lagQuery = lagQuery;
+        }
+
+        /**
+         * Gets the lag in seconds above which a replica is skipped.
+         *
+         * @return the maximum lag in seconds
+         */
+        public long getMaxLagSeconds() {
+            return maxLagSeconds;
+        }
+
+        /**
+         * Sets the lag in seconds above which a replica is skipped.
+         *
+         * @param maxLagSeconds the maximum lag in seconds
+         */
+        public void setMaxLagSeconds(long maxLagSeconds) {
+            this.maxLagSeconds = maxLagSeconds;
+        }
+
+        /**
+         * Gets the interval in seconds between replica checks.
+         *
+         * @return the check interval in seconds
+         */
+        public long getCheckIntervalSeconds() {
+            return checkIntervalSeconds;
+        }
+
+        /**
+         * Sets the interval in seconds between replica checks.
+         *
+         * @param checkIntervalSeconds the check interval in seconds
+         */
+        public void setCheckIntervalSeconds(long checkIntervalSeconds) {
+            this.checkIntervalSeconds = checkIntervalSeconds;
+        }
+
+        /**
+         * Gets the replica data sources.
+         *
+         * @return the replica data sources
+         */
+        public List<ReplicaDataSourceProperties> getDataSources() {
+            return dataSources;
+        }
+
+        /**
+         * Sets the replica data sources.
+         *
+         * @param dataSources the replica data sources
+         */
+        public void setDataSources(List<ReplicaDataSourceProperties> dataSources) {
+            this.dataSources = dataSources;
+        }
+    }
+
+    /**
+     * Connection properties of a read replica.
+     */
+    public static class ReplicaDataSourceProperties {
+        /**
+         * The JDBC URL of the replica.
+         */
+        private String url;
+
+        /**
+         * The login username of the replica.
+         */
+        private String username;
+
+        /**
+         * The login password of the replica.
+         */
+        private String password;
+
+        /**
+         * The JDBC driver class name, detected from the URL if not set.
+         */
+        private String driverClassName;
+
+        /**
+         * Gets the JDBC URL of the replica.
+         *
+         * @return the JDBC URL
+         */
+        public String getUrl() {
+            return url;
+        }
+
+        /**
+         * Sets the JDBC URL of the replica.
+         *
+         * @param url the JDBC URL
+         */
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        /**
+         * Gets the login username of the replica.
+         *
+         * @return the username
+         */
+        public String getUsername() {
+            return username;
+        }
+
+        /**
+         * Sets the login username of the replica.
+         *
+         * @param username the username
+         */
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        /**
+         * Gets the login password of the replica.
+         *
+         * @return the password
+         */
+        public String getPassword() {
+            return password;
+        }
+
+        /**
+         * Sets the login password of the replica.
+         *
+         * @param password the password
+         */
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        /**
+         * Gets the JDBC driver class name.
+         *
+         * @return the driver class name, or null to detect it from the URL
+         */
+        public String getDriverClassName() {
+            return driverClassName;
+        }
+
+        /**
+         * Sets the JDBC driver class name.
+         *
+         * @param driverClassName the driver class name
+         */
+        public void setDriverClassName(String driverClassName) {
+            this.driverClassName = driverClassName;
+        }
+    }
+
+    /**
+     * Configuration properties for statement instrumentation.
+     */
+    public static class InstrumentationProperties {
+        /**
+         * Whether statements are instrumented.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The execution time in milliseconds from which a statement counts as slow.
+         */
+        private long slowThresholdMillis = 500;
+
+        /**
+         * The number of executions of the same statement in one scope that counts as an N+1 burst.
+         */
+        private int nPlusOneThreshold = 10;
+
+        /**
+         * Gets whether statements are instrumented.
+         *
+         * @return whether statements are instrumented
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether statements are instrumented.
+         *
+         * @param enabled whether statements are instrumented
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the execution time from which a statement counts as slow.
+         *
+         * @return the slow threshold in milliseconds
+         */
+        public long getSlowThresholdMillis() {
+            return slowThresholdMillis;
+        }
+
+        /**
+         * Sets the execution time from which a statement counts as slow.
+         *
+         * @param slowThresholdMillis the slow threshold in milliseconds
+         */
+        public void setSlowThresholdMillis(long slowThresholdMillis) {
+            this.slowThresholdMillis = slowThresholdMillis;
+        }
+
+        /**
+         * Gets the number of executions of the same statement in one scope that counts as an N+1 burst.
+         *
+         * @return the N+1 threshold
+         */
+        public int getNPlusOneThreshold() {
+            return nPlusOneThreshold;
+        }
+
+        /**
+         * Sets the number of executions of the same statement in one scope that counts as an N+1 burst.
+         *
+         * @param nPlusOneThreshold the N+1 threshold
+         */
+        public void setNPlusOneThreshold(int nPlusOneThreshold) {
+            this.nPlusOneThreshold = nPlusOneThreshold;
+        }
+    }
+
+    /**
+     * Configuration properties for partitioned table scans.
+     */
+    public static class ScanProperties {
+        /**
+         * Whether the partitioned table scanner is enabled. Requires a DataSource.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The maximum number of partitions scanned at once. Each partition holds a connection, and
+         * checkpoints need one more, so the connection pool must be larger than this.
+         */
+        private int parallelism = 4;
+
+        /**
+         * The default number of rows per batch, also the fetch size.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * The table holding scan checkpoints, created if missing. Checkpoints are kept in memory if not set,
+         * so scans only resume after a restart when a table is configured.
+         */
+        private String checkpointTable;
+
+        /**
+         * Gets whether the partitioned table scanner is enabled.
+         *
+         * @return whether the partitioned table scanner is enabled
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether the partitioned table scanner is enabled.
+         *
+         * @param enabled whether the partitioned table scanner is enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the maximum number of partitions scanned at once.
+         *
+         * @return the parallelism
+         */
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        /**
+         * Sets the maximum number of partitions scanned at once.
+         *
+         * @param parallelism the parallelism
+         */
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        /**
+         * Gets the default number of rows per batch.
+         *
+         * @return the batch size
+         */
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /**
+         * Sets the default number of rows per batch.
+         *
+         * @param batchSize the batch size
+         */
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * Gets the table holding scan checkpoints.
+         *
+         * @return the checkpoint table, or null to keep checkpoints in memory
+         */
+        public String getCheckpointTable() {
+            return checkpointTable;
+        }
+
+        /**
+         * Sets the table holding scan checkpoints.
+         *
+         * @param checkpointTable the checkpoint table, or null to keep checkpoints in memory
+         */
+        public void setCheckpointTable(String checkpointTable) {
+            this.checkpointTable = checkpointTable;
+        }
+    }
+
+    /**
+     * Configuration properties for id generation.
+     */
+    public static class IdGenerationProperties {
+        /**
+         * Whether sequence id generators are enabled. Requires a DataSource.
+         */
+        private boolean enabled = false;
+
+        /**
+         * The number of ids per sequence value, equal to the increment of the sequences.
+         */
+        private int allocationSize = 50;
+
+        /**
+         * The worker id of this instance for snowflake ids, unique among running instances.
+         * The snowflake id generator is only created when set.
+         */
+        private Integer workerId;
+
+        /**
+         * Gets whether sequence id generators are enabled.
+         *
+         * @return whether sequence id generators are enabled
+         */
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        /**
+         * Sets whether sequence id generators are enabled.
+         *
+         * @param enabled whether sequence id generators are enabled
+         */
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        /**
+         * Gets the number of ids per sequence value.
+         *
+         * @return the allocation size
+         */
+        public int getAllocationSize() {
+            return allocationSize;
+        }
+
+        /**
+         * Sets the number of ids per sequence value.
+         *
+         * @param allocationSize the allocation size
+         */
+        public void setAllocationSize(int allocationSize) {
+            this.allocationSize = allocationSize;
+        }
+
+        /**
+         * Gets the worker id of this instance for snowflake ids.
+         *
+         * @return the worker id, or null if not set
+         */
+        public Integer getWorkerId() {
+            return workerId;
+        }
+
+        /**
+         * Sets the worker id of this instance for snowflake ids.
+         *
+         * @param workerId the worker id
+         */
+        public void setWorkerId(Integer workerId) {
+            this.workerId = workerId;
+        }
     }
 }
@@ -0,0 +1,377 @@
+package dev.bnacar.springx.data.converter;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Factory for {@link EntityDtoConverter}s that map properties by name, without hand-written functions.
+ * A property is copied when both types have it and the target type accepts the source value.
+ * Records are read through their accessors and created through their canonical constructor;
+ * other classes through getters, setters and their no-argument constructor.
+ * <p>
+ * The mapping code is generated once per pair of types. Where the generated class can access both
+ * types it is compiled to bytecode making the same calls as a hand-written mapping; otherwise each
+ * accessor is bound with {@link LambdaMetafactory}. Either way no reflective calls are made while
+ * converting. Converters are cached per pair of types.
+ */
+public final class AutoConverterFactory {
+
+    // Map of entity and DTO type pair to its converter
+    private static final Map<List<Class<?>>, EntityDtoConverter<?, ?>> CONVERTERS = new ConcurrentHashMap<>();
+
+    // Map of primitive type to its default value
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = new HashMap<>();
+
+    static {
+        PRIMITIVE_DEFAULTS.put(boolean.class, false);
+        PRIMITIVE_DEFAULTS.put(byte.class, (byte) 0);
+        PRIMITIVE_DEFAULTS.put(short.class, (short) 0);
+        PRIMITIVE_DEFAULTS.put(char.class, (char) 0);
+        PRIMITIVE_DEFAULTS.put(int.class, 0);
+        PRIMITIVE_DEFAULTS.put(long.class, 0L);
+        PRIMITIVE_DEFAULTS.put(float.class, 0f);
+        PRIMITIVE_DEFAULTS.put(double.class, 0d);
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private AutoConverterFactory() {
+    }
+
+    /**
+     * Gets the converter between an entity type and a DTO type, generating it on first use.
+     *
+     * @param entityType the entity type
+     * @param dtoType the DTO type
+     * @param <E> the entity type
+     * @param <D> the DTO type
+     * @return the converter
+     * @throws IllegalArgumentException if a type cannot be created or its accessors cannot be generated
+     */
+    @SuppressWarnings("unchecked")
+    public static <E, D> EntityDtoConverter<E, D> create(Class<E> entityType, Class<D> dtoType) {
+        return (EntityDtoConverter<E, D>) CONVERTERS.computeIfAbsent(List.of(entityType, dtoType),
+                key -> new EntityDtoConverter<>(mapper(entityType, dtoType), mapper(dtoType, entityType)));
+    }
+
+    /**
+     * Generates the function copying the matching properties of a source type into a new target object.
+     *
+     * @param sourceType the source type
+     * @param targetType the target type
+     * @param <S> the source type
+     * @param <T> the target type
+     * @return the mapping function
+     */
+    @SuppressWarnings("unchecked")
+    static <S, T> Function<S, T> mapper(Class<S> sourceType, Class<T> targetType) {
+        try {
+            Mapping mapping = mapping(sourceType, targetType);
+            Function<Object, Object> generated = MapperClassGenerator.generate(mapping);
+            if (generated != null) {
+                return (Function<S, T>) generated;
+            }
+            return (Function<S, T>) (mapping.writers == null ? recordMapper(mapping) : beanMapper(mapping));
+        } catch (Throwable ex) {
+            throw new IllegalArgumentException("Cannot generate a mapping from " + sourceType.getName()
+                    + " to " + targetType.getName(), ex);
+        }
+    }
+
+    /**
+     * Matches the properties of a source type to the properties of a target type.
+     *
+     * @param sourceType the source type
+     * @param targetType the target type
+     * @return the mapping
+     * @throws NoSuchMethodException if the target type has no usable constructor
+     */
+    static Mapping mapping(Class<?> sourceType, Class<?> targetType) throws NoSuchMethodException {
+        Map<String, Method> readers = readMethods(sourceType);
+
+        if (targetType.isRecord()) {
+            RecordComponent[] components = targetType.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            Method[] matched = new Method[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                Method reader = readers.get(components[i].getName());
+                if (reader != null && ClassUtils.isAssignable(types[i], reader.getReturnType())) {
+                    matched[i] = reader;
+                }
+            }
+            return new Mapping(sourceType, targetType, targetType.getDeclaredConstructor(types), matched, null);
+        }
+
+        List<Method> matchedReaders = new ArrayList<>();
+        List<Method> matchedWriters = new ArrayList<>();
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(targetType)) {
+            Method writer = descriptor.getWriteMethod();
+            Method reader = readers.get(descriptor.getName());
+            if (writer != null && reader != null
+                    && ClassUtils.isAssignable(writer.getParameterTypes()[0], reader.getReturnType())) {
+                matchedReaders.add(reader);
+                matchedWriters.add(writer);
+            }
+        }
+        return new Mapping(sourceType, targetType, targetType.getDeclaredConstructor(),
+                matchedReaders.toArray(new Method[0]), matchedWriters.toArray(new Method[0]));
+    }
+
+    /**
+     * Gets the default value of a type: zero or false for primitives, null otherwise.
+     *
+     * @param type the type
+     * @return the default value
+     */
+    private static Object defaultValue(Class<?> type) {
+        return PRIMITIVE_DEFAULTS.get(type);
+    }
+
+    /**
+     * Binds a mapping to a record target with lambdas, creating the record through its canonical constructor.
+     *
+     * @param mapping the mapping
+     * @return the mapping function
+     * @throws Throwable if the constructor or accessors cannot be bound
+     */
+    private static Function<Object, Object> recordMapper(Mapping mapping) throws Throwable {
+        MethodHandles.Lookup sourceLookup = MethodHandles.privateLookupIn(mapping.sourceType, MethodHandles.lookup());
+        MethodHandles.Lookup targetLookup = MethodHandles.privateLookupIn(mapping.targetType, MethodHandles.lookup());
+        Class<?>[] types = mapping.constructor.getParameterTypes();
+        Function<Object, Object>[] getters = newFunctionArray(types.length);
+        Object[] defaults = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            defaults[i] = defaultValue(types[i]);
+            if (mapping.readers[i] != null) {
+                getters[i] = getter(sourceLookup, mapping.readers[i]);
+            }
+        }
+
+        MethodHandle factory = targetLookup.unreflectConstructor(mapping.constructor)
+                .asSpreader(Object[].class, types.length)
+                .asType(MethodType.methodType(Object.class, Object[].class));
+
+        return source -> {
+            Object[] values = new Object[getters.length];
+            for (int i = 0; i < getters.length; i++) {
+                Object value = getters[i] != null ? getters[i].apply(source) : null;
+                values[i] = value != null ? value : defaults[i];
+            }
+            try {
+                return factory.invokeExact(values);
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException("Failed to create " + mapping.targetType.getName(), ex);
+            }
+        };
+    }
+
+    /**
+     * Binds a mapping to a bean target with lambdas, creating the bean through its no-argument constructor.
+     *
+     * @param mapping the mapping
+     * @return the mapping function
+     * @throws Throwable if the constructor or accessors cannot be bound
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> beanMapper(Mapping mapping) throws Throwable {
+        MethodHandles.Lookup sourceLookup = MethodHandles.privateLookupIn(mapping.sourceType, MethodHandles.lookup());
+        MethodHandles.Lookup targetLookup = MethodHandles.privateLookupIn(mapping.targetType, MethodHandles.lookup());
+        Function<Object, Object>[] getters = newFunctionArray(mapping.readers.length);
+        BiConsumer<Object, Object>[] setters = new BiConsumer[mapping.writers.length];
+        boolean[] primitive = new boolean[mapping.writers.length];
+        for (int i = 0; i < getters.length; i++) {
+            getters[i] = getter(sourceLookup, mapping.readers[i]);
+            setters[i] = setter(targetLookup, mapping.writers[i]);
+            primitive[i] = mapping.writers[i].getParameterTypes()[0].isPrimitive();
+        }
+
+        MethodHandle constructor = targetLookup.unreflectConstructor(mapping.constructor);
+        Supplier<Object> factory = (Supplier<Object>) LambdaMetafactory.metafactory(targetLookup, "get",
+                        MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                        constructor, constructor.type())
+                .getTarget().invokeExact();
+
+        return source -> {
+            Object target = factory.get();
+            for (int i = 0; i < getters.length; i++) {
+                Object value = getters[i].apply(source);
+                // Leave primitives at their default rather than unboxing null
+                if (value != null || !primitive[i]) {
+                    setters[i].accept(target, value);
+                }
+            }
+            return target;
+        };
+    }
+
+    /**
+     * Finds the read methods of a type: record accessors, or bean getters.
+     *
+     * @param type the type
+     * @return the read methods by property name
+     */
+    private static Map<String, Method> readMethods(Class<?> type) {
+        Map<String, Method> readers = new LinkedHashMap<>();
+        if (type.isRecord()) {
+            for (RecordComponent component : type.getRecordComponents()) {
+                readers.put(component.getName(), component.getAccessor());
+            }
+            return readers;
+        }
+
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+            if (descriptor.getReadMethod() != null && !"class".equals(descriptor.getName())) {
+                readers.put(descriptor.getName(), descriptor.getReadMethod());
+            }
+        }
+        return readers;
+    }
+
+    /**
+     * Generates a lambda calling a read method.
+     *
+     * @param lookup the lookup with access to the method's class
+     * @param reader the read method
+     * @return the getter function
+     * @throws Throwable if the lambda cannot be generated
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> getter(MethodHandles.Lookup lookup, Method reader) throws Throwable {
+        MethodHandle handle = lookup.unreflect(reader);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                handle, handle.type().wrap());
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    /**
+     * Generates a lambda calling a write method.
+     *
+     * @param lookup the lookup with access to the method's class
+     * @param writer the write method
+     * @return the setter function
+     * @throws Throwable if the lambda cannot be generated
+     */
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> setter(MethodHandles.Lookup lookup, Method writer) throws Throwable {
+        MethodHandle handle = lookup.unreflect(writer);
+        CallSite site = LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                handle, handle.type().wrap().changeReturnType(void.class));
+        return (BiConsumer<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    /**
+     * Creates a generic array of functions.
+     *
+     * @param length the array length
+     * @return the array
+     */
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object>[] newFunctionArray(int length) {
+        return (Function<Object, Object>[]) new Function[length];
+    }
+
+    /**
+     * The matched properties of a source and a target type.
+     * For a record target, the readers line up with the canonical constructor parameters and may
+     * contain nulls for unmatched components, and the writers are null. For a bean target, each
+     * reader is paired with the writer at the same index and the constructor takes no arguments.
+     */
+    static final class Mapping {
+
+        private final Class<?> sourceType;
+        private final Class<?> targetType;
+        private final Constructor<?> constructor;
+        private final Method[] readers;
+        private final Method[] writers;
+
+        /**
+         * Constructs a new Mapping.
+         *
+         * @param sourceType the source type
+         * @param targetType the target type
+         * @param constructor the target constructor
+         * @param readers the source read methods
+         * @param writers the target write methods, or null for a record target
+         */
+        Mapping(Class<?> sourceType, Class<?> targetType, Constructor<?> constructor,
+                Method[] readers, Method[] writers) {
+            this.sourceType = sourceType;
+            this.targetType = targetType;
+            this.constructor = constructor;
+            this.readers = readers;
+            this.writers = writers;
+        }
+
+        /**
+         * Gets the source type.
+         *
+         * @return the source type
+         */
+        Class<?> getSourceType() {
+            return sourceType;
+        }
+
+        /**
+         * Gets the target type.
+         *
+         * @return the target type
+         */
+        Class<?> getTargetType() {
+            return targetType;
+        }
+
+        /**
+         * Gets the target constructor.
+         *
+         * @return the constructor
+         */
+        Constructor<?> getConstructor() {
+            return constructor;
+        }
+
+        /**
+         * Gets the source read methods.
+         *
+         * @return the read methods
+         */
+        Method[] getReaders() {
+            return readers;
+        }
+
+        /**
+         * Gets the target write methods.
+         *
+         * @return the write methods, or null for a record target
+         */
+        Method[] getWriters() {
+            return writers;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package dev.bnacar.springx.data.converter;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tracks the objects converted by {@link EntityDtoConverter}s on the current thread.
+ * <p>
+ * Within a conversion call, each source object is converted at most once per conversion function:
+ * when converters call each other for shared references, such as many orders pointing to the same
+ * customer, later references get the same converted instance. A source object that is reached again
+ * while it is still being converted is reported as a cycle instead of overflowing the stack.
+ * <p>
+ * A context lasts for one top-level call, such as {@link EntityDtoConverter#convertToDtoList}.
+ * Use {@link #withContext} to share it across several calls.
+ */
+public final class ConversionContext {
+
+    private static final ThreadLocal<ConversionContext> CURRENT = ThreadLocal.withInitial(ConversionContext::new);
+
+    // Map of conversion function to its results by source object identity
+    private Map<Function<?, ?>, Map<Object, Object>> results;
+    private final List<Object> sourcesInProgress = new ArrayList<>();
+    private final List<Function<?, ?>> functionsInProgress = new ArrayList<>();
+    private int scopes;
+
+    /**
+     * Constructs a new ConversionContext.
+     */
+    private ConversionContext() {
+    }
+
+    /**
+     * Runs a task with one conversion context for all conversions it makes on the current thread.
+     *
+     * @param task the task
+     * @param <T> the result type
+     * @return the task result
+     */
+    public static <T> T withContext(Supplier<T> task) {
+        ConversionContext context = enter();
+        try {
+            return task.get();
+        } finally {
+            context.exit();
+        }
+    }
+
+    /**
+     * Opens a scope sharing the current thread's context until {@link #exit}.
+     *
+     * @return the context
+     */
+    static ConversionContext enter() {
+        ConversionContext context = CURRENT.get();
+        context.scopes++;
+        return context;
+    }
+
+    /**
+     * Closes a scope opened by {@link #enter}, discarding the converted objects when it was the outermost one.
+     */
+    void exit() {
+        scopes--;
+        releaseIfIdle();
+    }
+
+    /**
+     * Converts a source object within the current thread's context.
+     *
+     * @param function the conversion function
+     * @param source the source object
+     * @param <S> the source type
+     * @param <T> the target type
+     * @return the converted object, shared with earlier conversions of the same object in this context
+     * @throws IllegalStateException if the object is already being converted by the same function
+     */
+    static <S, T> T convert(Function<S, T> function, S source) {
+        return CURRENT.get().convertInContext(function, source);
+    }
+
+    /**
+     * Converts a source object, reusing the result of an earlier conversion when the context is open.
+     *
+     * @param function the conversion function
+     * @param source the source object
+     * @param <S> the source type
+     * @param <T> the target type
+     * @return the converted object
+     */
+    @SuppressWarnings("unchecked")
+    private <S, T> T convertInContext(Function<S, T> function, S source) {
+        // Plain single-object conversions have nothing to share, so they skip the memo
+        Map<Object, Object> memo = scopes > 0 || !sourcesInProgress.isEmpty() ? resultsOf(function) : null;
+        if (memo != null) {
+            Object result = memo.get(source);
+            if (result != null || memo.containsKey(source)) {
+                return (T) result;
+            }
+        }
+        checkNotInProgress(function, source);
+
+        sourcesInProgress.add(source);
+        functionsInProgress.add(function);
+        try {
+            T result = function.apply(source);
+            if (memo != null) {
+                memo.put(source, result);
+            }
+            return result;
+        } finally {
+            sourcesInProgress.remove(sourcesInProgress.size() - 1);
+            functionsInProgress.remove(functionsInProgress.size() - 1);
+            releaseIfIdle();
+        }
+    }
+
+    /**
+     * Gets the results of a conversion function, creating the map on first use.
+     *
+     * @param function the conversion function
+     * @return the results by source object identity
+     */
+    private Map<Object, Object> resultsOf(Function<?, ?> function) {
+        if (results == null) {
+            results = new IdentityHashMap<>();
+        }
+        return results.computeIfAbsent(function, key -> new IdentityHashMap<>());
+    }
+
+    /**
+     * Checks that a source object is not already being converted by a conversion function.
+     *
+     * @param function the conversion function
+     * @param source the source object
+     * @throws IllegalStateException if the object is being converted
+     */
+    private void checkNotInProgress(Function<?, ?> function, Object source) {
+        for (int i = sourcesInProgress.size() - 1; i >= 0; i--) {
+            if (sourcesInProgress.get(i) == source && functionsInProgress.get(i) == function) {
+                throw new IllegalStateException("Cyclic reference to " + source.getClass().getName()
+                        + " at depth " + (sourcesInProgress.size() - i)
+                        + "; break the cycle in the conversion function, for example by mapping the back-reference to an id");
+            }
+        }
+    }
+
+    /**
+     * Discards the converted objects once no scope or conversion is open, so that they can be garbage collected.
+     */
+    private void releaseIfIdle() {
+        if (scopes == 0 && sourcesInProgress.isEmpty()) {
+            results = null;
+        }
+    }
+}
@@ -1,20 +1,42 @@
 package dev.bnacar.springx.data.converter;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Utility class for converting between entity and DTO objects.
  * Provides methods for converting single objects and collections.
+ * <p>
+ * Conversions run in a {@link ConversionContext}, so converters calling each other convert a shared
+ * object once per call and report cyclic references instead of overflowing the stack.
  *
  * @param <E> the entity type
  * @param <D> the DTO type
  */
 public class EntityDtoConverter<E, D> {
 
+    /**
+     * The default list size from which {@link #convertToDtoListParallel} converts in parallel.
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 2_000;
+
+    // Smallest number of elements converted by one parallel task
+    private static final int MIN_TASK_SIZE = 256;
+
+    // Marker for memoized DTO view elements not yet converted, as null is a valid DTO
+    private static final Object NOT_CONVERTED = new Object();
+
     private final Function<E, D> toDto;
     private final Function<D, E> toEntity;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    private ForkJoinPool forkJoinPool;
 
     /**
      * Constructs a new EntityDtoConverter with the specified conversion functions.
@@ -37,7 +59,7 @@ public class EntityDtoConverter<E, D> {
         if (entity == null) {
             return null;
         }
-        return toDto.apply(entity);
+        return ConversionContext.convert(toDto, entity);
     }
 
     /**
@@ -50,7 +72,7 @@ public class EntityDtoConverter<E, D> {
         if (dto == null) {
             return null;
         }
-        return toEntity.apply(dto);
+        return ConversionContext.convert(toEntity, dto);
     }
 
     /**
@@ -65,12 +87,113 @@ public class EntityDtoConverter<E, D> {
         }
 
         List<D> dtos = new ArrayList<>(entities.size());
-        for (E entity : entities) {
-            dtos.add(convertToDto(entity));
+        ConversionContext context = ConversionContext.enter();
+        try {
+            for (E entity : entities) {
+                dtos.add(convertToDto(entity));
+            }
+        } finally {
+            context.exit();
         }
         return dtos;
     }
 
+    /**
+     * Converts a list of entities to a list of DTOs, in parallel when the list has at least
+     * {@link #setParallelThreshold parallel threshold} elements. The order is preserved.
+     * <p>
+     * The conversion function runs on pool threads, so it must be thread-safe and must not
+     * rely on thread-bound state, such as lazy loading through the current persistence context.
+     *
+     * @param entities the entities to convert
+     * @return the converted DTOs
+     */
+    public List<D> convertToDtoListParallel(List<E> entities) {
+        if (entities == null) {
+            return null;
+        }
+        if (entities.size() < parallelThreshold) {
+            return convertToDtoList(entities);
+        }
+
+        Object[] source = entities.toArray();
+        Object[] target = new Object[source.length];
+        ForkJoinPool pool = forkJoinPool != null ? forkJoinPool : ForkJoinPool.commonPool();
+        int taskSize = Math.max(MIN_TASK_SIZE, source.length / (pool.getParallelism() * 4));
+        pool.invoke(new ConversionTask(source, target, 0, source.length, taskSize));
+
+        @SuppressWarnings("unchecked")
+        List<D> dtos = (List<D>) Arrays.asList(target);
+        return new ArrayList<>(dtos);
+    }
+
+    /**
+     * Converts a stream of entities to a lazy stream of DTOs.
+     * Entities are converted as the stream is consumed, so memory use does not depend on the
+     * number of entities when the source stream is itself lazy.
+     *
+     * @param entities the entities to convert
+     * @return the converted DTOs
+     */
+    public Stream<D> convertToDtoStream(Stream<E> entities) {
+        if (entities == null) {
+            return null;
+        }
+        return entities.map(this::convertToDto);
+    }
+
+    /**
+     * Returns an unmodifiable view of a list of entities as DTOs, converting each entity when it is read.
+     * Paging, {@code subList} and short-circuiting streams over the view only convert the elements
+     * they touch. Every read converts again; use {@link #asDtoView(List, boolean)} to keep the results.
+     *
+     * @param entities the entities to convert
+     * @return the DTO view
+     */
+    public List<D> asDtoView(List<E> entities) {
+        return asDtoView(entities, false);
+    }
+
+    /**
+     * Returns an unmodifiable view of a list of entities as DTOs, converting each entity when it is read.
+     * Paging, {@code subList} and short-circuiting streams over the view only convert the elements
+     * they touch.
+     * <p>
+     * The view follows changes to the entity list, but memoized DTOs are not refreshed when the entity
+     * at their index is replaced. A memoizing view is not thread-safe.
+     *
+     * @param entities the entities to convert
+     * @param memoize whether to keep each DTO once converted, so that it is converted only once
+     * @return the DTO view
+     */
+    public List<D> asDtoView(List<E> entities, boolean memoize) {
+        if (entities == null) {
+            return null;
+        }
+        Object[] converted = memoize ? new Object[entities.size()] : null;
+        return entities instanceof RandomAccess
+                ? new RandomAccessDtoView(entities, converted)
+                : new DtoView(entities, converted);
+    }
+
+    /**
+     * Sets the list size from which {@link #convertToDtoListParallel} converts in parallel.
+     *
+     * @param parallelThreshold the parallel threshold
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Sets the pool used for parallel conversion.
+     *
+     * @param forkJoinPool the pool, or null to use the common pool
+     */
+    public void setForkJoinPool(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
     /**
      * Converts a list of DTOs to a list of entities.
      *
@@ -83,9 +206,123 @@ public class EntityDtoConverter<E, D> {
         }
 
         List<E> entities = new ArrayList<>(dtos.size());
-        for (D dto : dtos) {
-            entities.add(convertToEntity(dto));
+        ConversionContext context = ConversionContext.enter();
+        try {
+            for (D dto : dtos) {
+                entities.add(convertToEntity(dto));
+            }
+        } finally {
+            context.exit();
         }
         return entities;
     }
+
+    /**
+     * Unmodifiable list converting entities to DTOs on access.
+     */
+    private class DtoView extends AbstractList<D> {
+
+        private final List<E> entities;
+        private final Object[] converted;
+
+        /**
+         * Constructs a new DtoView.
+         *
+         * @param entities the entities to convert
+         * @param converted the array memoizing converted DTOs, or null to convert on every read
+         */
+        private DtoView(List<E> entities, Object[] converted) {
+            this.entities = entities;
+            this.converted = converted;
+            if (converted != null) {
+                Arrays.fill(converted, NOT_CONVERTED);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public D get(int index) {
+            // Read the entity first, so an index beyond a shrunken entity list fails instead of returning a memo
+            E entity = entities.get(index);
+            if (converted == null || index >= converted.length) {
+                return convertToDto(entity);
+            }
+            Object dto = converted[index];
+            if (dto == NOT_CONVERTED) {
+                dto = convertToDto(entity);
+                converted[index] = dto;
+            }
+            return (D) dto;
+        }
+
+        @Override
+        public int size() {
+            return entities.size();
+        }
+    }
+
+    /**
+     * DTO view over a random access entity list.
+     */
+    private final class RandomAccessDtoView extends DtoView implements RandomAccess {
+
+        /**
+         * Constructs a new RandomAccessDtoView.
+         *
+         * @param entities the entities to convert
+         * @param converted the array memoizing converted DTOs, or null to convert on every read
+         */
+        private RandomAccessDtoView(List<E> entities, Object[] converted) {
+            super(entities, converted);
+        }
+    }
+
+    /**
+     * Task converting a range of entities, splitting it in halves down to the task size.
+     */
+    private final class ConversionTask extends RecursiveAction {
+        private final Object[] source;
+        private final Object[] target;
+        private final int from;
+        private final int to;
+        private final int taskSize;
+
+        /**
+         * Constructs a new ConversionTask.
+         *
+         * @param source the entities
+         * @param target the array receiving the DTOs
+         * @param from the first index, inclusive
+         * @param to the last index, exclusive
+         * @param taskSize the number of elements below which the range is not split
+         */
+        private ConversionTask(Object[] source, Object[] target, int from, int to, int taskSize) {
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+            this.taskSize = taskSize;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void compute() {
+            if (to - from <= taskSize) {
+                // Contexts are per thread, so each task shares converted objects within its own range
+                ConversionContext context = ConversionContext.enter();
+                try {
+                    for (int i = from; i < to; i++) {
+                        target[i] = convertToDto((E) source[i]);
+                    }
+                } finally {
+                    context.exit();
+                }
+                return;
+            }
+
+            int middle = (from + to) >>> 1;
+            invokeAll(new ConversionTask(source, target, from, middle, taskSize),
+                    new ConversionTask(source, target, middle, to, taskSize));
+        }
+    }
 }
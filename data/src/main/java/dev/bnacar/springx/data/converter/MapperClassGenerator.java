@@ -0,0 +1,315 @@
+package dev.bnacar.springx.data.converter;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * Compiles an {@link AutoConverterFactory.Mapping} to a hidden class implementing {@link Function}.
+ * The generated {@code apply} method makes the same constructor, getter and setter calls as a
+ * hand-written mapping, so the JIT compiler can inline it like one.
+ * The class is defined in the target type's package; mappings that need access it cannot get
+ * there, such as a non-public source type in another package, are not generated.
+ */
+final class MapperClassGenerator {
+
+    /**
+     * Prevents instantiation.
+     */
+    private MapperClassGenerator() {
+    }
+
+    /**
+     * Generates the mapping function for a mapping.
+     *
+     * @param mapping the mapping
+     * @return the mapping function, or null if the mapping cannot be compiled
+     */
+    @SuppressWarnings("unchecked")
+    static Function<Object, Object> generate(AutoConverterFactory.Mapping mapping) {
+        if (!isAccessible(mapping)) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(mapping.getTargetType(), MethodHandles.lookup());
+            if (!lookup.hasFullPrivilegeAccess()) {
+                return null;
+            }
+            MethodHandles.Lookup mapperLookup = lookup.defineHiddenClass(classBytes(mapping), true,
+                    MethodHandles.Lookup.ClassOption.NESTMATE);
+            return (Function<Object, Object>) mapperLookup
+                    .findConstructor(mapperLookup.lookupClass(), MethodType.methodType(void.class))
+                    .invoke();
+        } catch (Throwable ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether a class in the target type's package can use all types and methods of a mapping.
+     *
+     * @param mapping the mapping
+     * @return true if the mapping can be compiled
+     */
+    private static boolean isAccessible(AutoConverterFactory.Mapping mapping) {
+        Class<?> targetType = mapping.getTargetType();
+        if (!isAccessible(mapping.getSourceType(), targetType)) {
+            return false;
+        }
+        for (Method reader : mapping.getReaders()) {
+            if (reader != null && (!isAccessible(reader, targetType)
+                    || !isAccessible(reader.getReturnType(), targetType))) {
+                return false;
+            }
+        }
+        if (mapping.getWriters() != null) {
+            for (Method writer : mapping.getWriters()) {
+                if (!isAccessible(writer, targetType)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a class in the target type's package can use a type.
+     *
+     * @param type the type
+     * @param targetType the target type
+     * @return true if the type is accessible
+     */
+    private static boolean isAccessible(Class<?> type, Class<?> targetType) {
+        if (type.isPrimitive()) {
+            return true;
+        }
+        return ClassUtils.isVisible(type, targetType.getClassLoader())
+                && (Modifier.isPublic(type.getModifiers()) || isSamePackage(type, targetType));
+    }
+
+    /**
+     * Checks whether a class in the target type's package can call a method.
+     *
+     * @param method the method
+     * @param targetType the target type
+     * @return true if the method is accessible
+     */
+    private static boolean isAccessible(Method method, Class<?> targetType) {
+        int modifiers = method.getModifiers();
+        return Modifier.isPublic(modifiers)
+                || (!Modifier.isPrivate(modifiers) && isSamePackage(method.getDeclaringClass(), targetType));
+    }
+
+    /**
+     * Checks whether two types are in the same runtime package.
+     *
+     * @param type the type
+     * @param targetType the target type
+     * @return true if both types share package and class loader
+     */
+    private static boolean isSamePackage(Class<?> type, Class<?> targetType) {
+        return type.getPackageName().equals(targetType.getPackageName())
+                && type.getClassLoader() == targetType.getClassLoader();
+    }
+
+    /**
+     * Writes the bytecode of the mapper class.
+     *
+     * @param mapping the mapping
+     * @return the class file bytes
+     */
+    private static byte[] classBytes(AutoConverterFactory.Mapping mapping) {
+        String targetName = Type.getInternalName(mapping.getTargetType());
+        String sourceName = Type.getInternalName(mapping.getSourceType());
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS | ClassWriter.COMPUTE_FRAMES) {
+            @Override
+            protected String getCommonSuperClass(String type1, String type2) {
+                // Branches only merge identical types, so no class needs to be loaded here
+                return "java/lang/Object";
+            }
+        };
+        writer.visit(Opcodes.V17, Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, targetName + "$$Mapper", null,
+                "java/lang/Object", new String[] {"java/util/function/Function"});
+
+        MethodVisitor init = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        init.visitCode();
+        init.visitVarInsn(Opcodes.ALOAD, 0);
+        init.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        init.visitInsn(Opcodes.RETURN);
+        init.visitMaxs(0, 0);
+        init.visitEnd();
+
+        MethodVisitor apply = writer.visitMethod(Opcodes.ACC_PUBLIC, "apply",
+                "(Ljava/lang/Object;)Ljava/lang/Object;", null, null);
+        apply.visitCode();
+        apply.visitVarInsn(Opcodes.ALOAD, 1);
+        apply.visitTypeInsn(Opcodes.CHECKCAST, sourceName);
+        apply.visitVarInsn(Opcodes.ASTORE, 2);
+        apply.visitTypeInsn(Opcodes.NEW, targetName);
+        apply.visitInsn(Opcodes.DUP);
+        if (mapping.getWriters() == null) {
+            writeRecordConstruction(apply, mapping, targetName);
+        } else {
+            writeBeanPopulation(apply, mapping, targetName);
+        }
+        apply.visitInsn(Opcodes.ARETURN);
+        apply.visitMaxs(0, 0);
+        apply.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Writes the call to a record's canonical constructor, with one argument per component.
+     *
+     * @param apply the apply method
+     * @param mapping the mapping
+     * @param targetName the internal name of the target type
+     */
+    private static void writeRecordConstruction(MethodVisitor apply, AutoConverterFactory.Mapping mapping,
+                                                String targetName) {
+        Class<?>[] types = mapping.getConstructor().getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            Method reader = mapping.getReaders()[i];
+            if (reader == null) {
+                pushDefault(apply, types[i]);
+                continue;
+            }
+            writeRead(apply, mapping, reader);
+            if (types[i].isPrimitive() && !reader.getReturnType().isPrimitive()) {
+                // Use the default value rather than unboxing null
+                Label present = new Label();
+                Label done = new Label();
+                apply.visitInsn(Opcodes.DUP);
+                apply.visitJumpInsn(Opcodes.IFNONNULL, present);
+                apply.visitInsn(Opcodes.POP);
+                pushDefault(apply, types[i]);
+                apply.visitJumpInsn(Opcodes.GOTO, done);
+                apply.visitLabel(present);
+                writeConversion(apply, reader.getReturnType(), types[i]);
+                apply.visitLabel(done);
+            } else {
+                writeConversion(apply, reader.getReturnType(), types[i]);
+            }
+        }
+        apply.visitMethodInsn(Opcodes.INVOKESPECIAL, targetName, "<init>",
+                Type.getConstructorDescriptor(mapping.getConstructor()), false);
+    }
+
+    /**
+     * Writes the creation of a bean and the setter calls copying each matched property.
+     * The new bean is kept in local variable 3.
+     *
+     * @param apply the apply method
+     * @param mapping the mapping
+     * @param targetName the internal name of the target type
+     */
+    private static void writeBeanPopulation(MethodVisitor apply, AutoConverterFactory.Mapping mapping,
+                                            String targetName) {
+        apply.visitMethodInsn(Opcodes.INVOKESPECIAL, targetName, "<init>", "()V", false);
+        apply.visitVarInsn(Opcodes.ASTORE, 3);
+        for (int i = 0; i < mapping.getWriters().length; i++) {
+            Method reader = mapping.getReaders()[i];
+            Method writer = mapping.getWriters()[i];
+            Class<?> parameterType = writer.getParameterTypes()[0];
+            Label skip = new Label();
+            if (parameterType.isPrimitive() && !reader.getReturnType().isPrimitive()) {
+                // Leave primitives at their default rather than unboxing null
+                writeRead(apply, mapping, reader);
+                apply.visitVarInsn(Opcodes.ASTORE, 4);
+                apply.visitVarInsn(Opcodes.ALOAD, 4);
+                apply.visitJumpInsn(Opcodes.IFNULL, skip);
+                apply.visitVarInsn(Opcodes.ALOAD, 3);
+                apply.visitVarInsn(Opcodes.ALOAD, 4);
+            } else {
+                apply.visitVarInsn(Opcodes.ALOAD, 3);
+                writeRead(apply, mapping, reader);
+            }
+            writeConversion(apply, reader.getReturnType(), parameterType);
+            writeInvoke(apply, mapping.getTargetType(), writer);
+            Class<?> returnType = writer.getReturnType();
+            if (returnType != void.class) {
+                apply.visitInsn(returnType == long.class || returnType == double.class ? Opcodes.POP2 : Opcodes.POP);
+            }
+            apply.visitLabel(skip);
+        }
+        apply.visitVarInsn(Opcodes.ALOAD, 3);
+    }
+
+    /**
+     * Writes a read method call on the source object held in local variable 2.
+     *
+     * @param apply the apply method
+     * @param mapping the mapping
+     * @param reader the read method
+     */
+    private static void writeRead(MethodVisitor apply, AutoConverterFactory.Mapping mapping, Method reader) {
+        apply.visitVarInsn(Opcodes.ALOAD, 2);
+        writeInvoke(apply, mapping.getSourceType(), reader);
+    }
+
+    /**
+     * Writes a virtual or interface call of a method through a given owner type.
+     *
+     * @param apply the apply method
+     * @param owner the type the method is called on
+     * @param method the method
+     */
+    private static void writeInvoke(MethodVisitor apply, Class<?> owner, Method method) {
+        apply.visitMethodInsn(owner.isInterface() ? Opcodes.INVOKEINTERFACE : Opcodes.INVOKEVIRTUAL,
+                Type.getInternalName(owner), method.getName(), Type.getMethodDescriptor(method), owner.isInterface());
+    }
+
+    /**
+     * Writes the boxing or unboxing needed to pass a value of one type as another.
+     * The types are assignable according to {@link ClassUtils#isAssignable}, so they are either
+     * both references, or a primitive and its wrapper or one of the wrapper's supertypes.
+     *
+     * @param apply the apply method
+     * @param from the type on the stack
+     * @param to the expected type
+     */
+    private static void writeConversion(MethodVisitor apply, Class<?> from, Class<?> to) {
+        if (from.isPrimitive() && !to.isPrimitive()) {
+            Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(from);
+            apply.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(wrapper), "valueOf",
+                    Type.getMethodDescriptor(Type.getType(wrapper), Type.getType(from)), false);
+        } else if (!from.isPrimitive() && to.isPrimitive()) {
+            Class<?> wrapper = ClassUtils.resolvePrimitiveIfNecessary(to);
+            apply.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(wrapper));
+            apply.visitMethodInsn(Opcodes.INVOKEVIRTUAL, Type.getInternalName(wrapper), to.getName() + "Value",
+                    Type.getMethodDescriptor(Type.getType(to)), false);
+        }
+    }
+
+    /**
+     * Writes the default value of a type: zero or false for primitives, null otherwise.
+     *
+     * @param apply the apply method
+     * @param type the type
+     */
+    private static void pushDefault(MethodVisitor apply, Class<?> type) {
+        if (type == long.class) {
+            apply.visitInsn(Opcodes.LCONST_0);
+        } else if (type == float.class) {
+            apply.visitInsn(Opcodes.FCONST_0);
+        } else if (type == double.class) {
+            apply.visitInsn(Opcodes.DCONST_0);
+        } else if (type.isPrimitive()) {
+            apply.visitInsn(Opcodes.ICONST_0);
+        } else {
+            apply.visitInsn(Opcodes.ACONST_NULL);
+        }
+    }
+}
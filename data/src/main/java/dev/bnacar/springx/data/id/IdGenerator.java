@@ -0,0 +1,17 @@
+package dev.bnacar.springx.data.id;
+
+/**
+ * Source of unique numeric ids assigned by the application before insert.
+ * Unlike database identity columns, ids are known without a round trip per row, so inserts can
+ * be batched, for example with {@link dev.bnacar.springx.data.bulk.BulkWriter}.
+ * Implementations are thread-safe.
+ */
+public interface IdGenerator {
+
+    /**
+     * Gets the next id.
+     *
+     * @return the id
+     */
+    long nextId();
+}
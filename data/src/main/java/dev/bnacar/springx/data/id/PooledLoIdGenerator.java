@@ -0,0 +1,96 @@
+package dev.bnacar.springx.data.id;
+
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Id generator handing out ids from blocks allocated with the pooled-lo strategy.
+ * Each database sequence value is the lowest id of a block of {@code allocationSize} ids, so the
+ * sequence must be incremented by the allocation size, for example
+ * {@code CREATE SEQUENCE order_seq INCREMENT BY 50}. This matches Hibernate's pooled-lo
+ * optimizer, so both can allocate from the same sequence.
+ * <p>
+ * Ids are handed out from the current block with a single atomic increment. Only the thread
+ * that finds the block exhausted fetches the next sequence value, while other threads wait for it.
+ */
+public class PooledLoIdGenerator implements IdGenerator {
+
+    private final DataFieldMaxValueIncrementer incrementer;
+    private final int allocationSize;
+    private final AtomicReference<Block> block = new AtomicReference<>(new Block(0, 0));
+    private final ReentrantLock allocationLock = new ReentrantLock();
+
+    /**
+     * Constructs a new PooledLoIdGenerator.
+     *
+     * @param incrementer the incrementer reading the sequence
+     * @param allocationSize the number of ids per sequence value, equal to the sequence increment
+     */
+    public PooledLoIdGenerator(DataFieldMaxValueIncrementer incrementer, int allocationSize) {
+        Assert.notNull(incrementer, "Incrementer must not be null");
+        Assert.isTrue(allocationSize > 0, "Allocation size must be positive");
+        this.incrementer = incrementer;
+        this.allocationSize = allocationSize;
+    }
+
+    @Override
+    public long nextId() {
+        while (true) {
+            Block current = block.get();
+            long id = current.next.getAndIncrement();
+            if (id < current.limit) {
+                return id;
+            }
+            allocate(current);
+        }
+    }
+
+    /**
+     * Gets the number of ids per sequence value.
+     *
+     * @return the allocation size
+     */
+    public int getAllocationSize() {
+        return allocationSize;
+    }
+
+    /**
+     * Replaces an exhausted block with a new one, unless another thread already did.
+     *
+     * @param exhausted the exhausted block
+     */
+    private void allocate(Block exhausted) {
+        allocationLock.lock();
+        try {
+            if (block.get() == exhausted) {
+                long low = incrementer.nextLongValue();
+                block.set(new Block(low, low + allocationSize));
+            }
+        } finally {
+            allocationLock.unlock();
+        }
+    }
+
+    /**
+     * A block of ids, from the next id to hand out up to its limit, exclusive.
+     */
+    private static final class Block {
+        private final AtomicLong next;
+        private final long limit;
+
+        /**
+         * Constructs a new Block.
+         *
+         * @param low the lowest id
+         * @param limit the highest id, exclusive
+         */
+        private Block(long low, long limit) {
+            this.next = new AtomicLong(low);
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.bnacar.springx.data.id;
+
+import dev.bnacar.springx.data.bulk.BulkDialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link PooledLoIdGenerator}s, one per database sequence.
+ * Sequences are read with the statement of the detected database; H2 and PostgreSQL are supported.
+ * For other databases, create a {@link PooledLoIdGenerator} with a suitable
+ * {@link DataFieldMaxValueIncrementer}.
+ */
+public class SequenceIdGenerators {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceIdGenerators.class);
+
+    private final DataSource dataSource;
+    private final int allocationSize;
+    private volatile BulkDialect dialect;
+
+    // Map of sequence name to its generator
+    private final Map<String, PooledLoIdGenerator> generators = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new SequenceIdGenerators.
+     *
+     * @param dataSource the data source holding the sequences
+     * @param dialect the dialect, or null to detect it from the database on first use
+     * @param allocationSize the number of ids per sequence value, equal to the sequence increment
+     */
+    public SequenceIdGenerators(DataSource dataSource, BulkDialect dialect, int allocationSize) {
+        this.dataSource = dataSource;
+        this.dialect = dialect;
+        this.allocationSize = allocationSize;
+    }
+
+    /**
+     * Gets the generator for a sequence, creating it on first use.
+     *
+     * @param sequenceName the sequence name
+     * @return the generator
+     * @throws IllegalStateException if sequences are not supported for the database
+     */
+    public IdGenerator forSequence(String sequenceName) {
+        return generators.computeIfAbsent(sequenceName,
+                name -> new PooledLoIdGenerator(createIncrementer(name), allocationSize));
+    }
+
+    /**
+     * Creates the incrementer reading a sequence.
+     *
+     * @param sequenceName the sequence name
+     * @return the incrementer
+     */
+    private DataFieldMaxValueIncrementer createIncrementer(String sequenceName) {
+        switch (getDialect()) {
+            case H2:
+                return new H2SequenceMaxValueIncrementer(dataSource, sequenceName);
+            case POSTGRESQL:
+                return new PostgresSequenceMaxValueIncrementer(dataSource, sequenceName);
+            default:
+                throw new IllegalStateException("Sequences are not supported for this database; create a "
+                        + "PooledLoIdGenerator with a DataFieldMaxValueIncrementer for " + sequenceName);
+        }
+    }
+
+    /**
+     * Gets the dialect, detecting it from the database on first use.
+     *
+     * @return the dialect
+     */
+    private BulkDialect getDialect() {
+        BulkDialect current = dialect;
+        if (current == null) {
+            try {
+                String productName = JdbcUtils.extractDatabaseMetaData(
+                        dataSource, DatabaseMetaData::getDatabaseProductName);
+                current = BulkDialect.fromDatabaseProductName(productName);
+            } catch (MetaDataAccessException e) {
+                logger.warn("Could not detect the database for sequence id generation", e);
+                current = BulkDialect.GENERIC;
+            }
+            dialect = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,98 @@
+package dev.bnacar.springx.data.id;
+
+import org.springframework.util.Assert;
+
+import java.time.Clock;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Id generator producing time-ordered 64-bit ids without any database access.
+ * An id holds, from the highest bits down, 41 bits of milliseconds since the epoch,
+ * 10 bits of worker id and a 12-bit sequence within the millisecond. Each running instance
+ * needs its own worker id.
+ * <p>
+ * Ids are generated with a compare-and-set loop. When more than 4096 ids are needed within
+ * a millisecond, or the clock moves backwards, ids continue from the last timestamp used, running
+ * ahead of the clock until it catches up, so they stay unique and increasing.
+ */
+public class SnowflakeIdGenerator implements IdGenerator {
+
+    /**
+     * The default epoch, 2020-01-01T00:00:00Z, in milliseconds.
+     */
+    public static final long DEFAULT_EPOCH_MILLIS = 1_577_836_800_000L;
+
+    /**
+     * The highest worker id.
+     */
+    public static final int MAX_WORKER_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 10;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerId;
+    private final long epochMillis;
+    private final Clock clock;
+
+    // The last timestamp, shifted left by the sequence bits, plus the last sequence number
+    private final AtomicLong state = new AtomicLong();
+
+    /**
+     * Constructs a new SnowflakeIdGenerator with the default epoch and the system clock.
+     *
+     * @param workerId the worker id, unique among running instances
+     */
+    public SnowflakeIdGenerator(int workerId) {
+        this(workerId, DEFAULT_EPOCH_MILLIS, Clock.systemUTC());
+    }
+
+    /**
+     * Constructs a new SnowflakeIdGenerator.
+     *
+     * @param workerId the worker id, unique among running instances
+     * @param epochMillis the epoch in milliseconds, not after the current time
+     * @param clock the clock
+     */
+    public SnowflakeIdGenerator(int workerId, long epochMillis, Clock clock) {
+        Assert.isTrue(workerId >= 0 && workerId <= MAX_WORKER_ID, "Worker id must be between 0 and " + MAX_WORKER_ID);
+        Assert.isTrue(epochMillis <= clock.millis(), "Epoch must not be in the future");
+        this.workerId = workerId;
+        this.epochMillis = epochMillis;
+        this.clock = clock;
+    }
+
+    @Override
+    public long nextId() {
+        long now = clock.millis() - epochMillis;
+        long previous;
+        long next;
+        do {
+            previous = state.get();
+            // An exhausted sequence carries over into the timestamp
+            next = (previous >>> SEQUENCE_BITS) < now ? now << SEQUENCE_BITS : previous + 1;
+        } while (!state.compareAndSet(previous, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * Gets the time at which an id was generated.
+     *
+     * @param id the id
+     * @return the time in epoch milliseconds
+     */
+    public long getTimestampMillis(long id) {
+        return (id >>> (WORKER_BITS + SEQUENCE_BITS)) + epochMillis;
+    }
+
+    /**
+     * Gets the worker id.
+     *
+     * @return the worker id
+     */
+    public int getWorkerId() {
+        return (int) workerId;
+    }
+}
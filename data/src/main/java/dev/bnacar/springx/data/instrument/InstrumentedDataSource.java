@@ -0,0 +1,263 @@
+package dev.bnacar.springx.data.instrument;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource proxy that reports every statement execution to a {@link QueryInstrumentation}.
+ * Connections, statements and result sets are wrapped in dynamic proxies that time each
+ * {@code execute} call and count the rows read from the result set. A query is reported when
+ * its result set or statement is closed, so the row count is complete.
+ * <p>
+ * Closing this DataSource closes the target DataSource, since the container only sees the proxy.
+ */
+public class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    private final QueryInstrumentation instrumentation;
+
+    /**
+     * Constructs a new InstrumentedDataSource.
+     *
+     * @param targetDataSource the DataSource to instrument
+     * @param instrumentation the instrumentation to report to
+     */
+    public InstrumentedDataSource(DataSource targetDataSource, QueryInstrumentation instrumentation) {
+        super(targetDataSource);
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrapConnection(obtainTargetDataSource().getConnection(username, password));
+    }
+
+    /**
+     * Closes the target DataSource if it is closeable.
+     *
+     * @throws Exception if the target DataSource fails to close
+     */
+    @Override
+    public void close() throws Exception {
+        if (obtainTargetDataSource() instanceof AutoCloseable) {
+            ((AutoCloseable) obtainTargetDataSource()).close();
+        }
+    }
+
+    /**
+     * Wraps a connection so that the statements it creates are instrumented.
+     *
+     * @param connection the connection
+     * @return the wrapped connection
+     */
+    private Connection wrapConnection(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (name.equals("equals")) {
+                        return proxy == args[0];
+                    }
+                    if (name.equals("hashCode")) {
+                        return System.identityHashCode(proxy);
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement && (name.startsWith("prepare") || name.equals("createStatement"))) {
+                        String sql = name.equals("createStatement") ? null : (String) args[0];
+                        return wrapStatement((Statement) result, sql);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Wraps a statement so that its executions are reported.
+     *
+     * @param statement the statement
+     * @param sql the SQL of a prepared statement, or null for a plain statement
+     * @return the wrapped statement
+     */
+    private Statement wrapStatement(Statement statement, String sql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[]{type}, new StatementHandler(statement, sql));
+    }
+
+    /**
+     * Invokes a method on a JDBC object, unwrapping reflection exceptions.
+     *
+     * @param target the JDBC object
+     * @param method the method
+     * @param args the arguments
+     * @return the result
+     * @throws Throwable if the method throws an exception
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    /**
+     * Invocation handler timing the executions of one statement.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement statement;
+        private final String preparedSql;
+
+        // The query whose result set is still open, reported when it or the statement closes
+        private PendingQuery pendingQuery;
+
+        /**
+         * Constructs a new StatementHandler.
+         *
+         * @param statement the statement
+         * @param preparedSql the SQL of a prepared statement, or null for a plain statement
+         */
+        private StatementHandler(Statement statement, String preparedSql) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("close")) {
+                reportPendingQuery();
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(statement, method, args);
+            }
+
+            reportPendingQuery();
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            if (sql == null) {
+                sql = "batch";
+            }
+            String label = QueryInstrumentation.currentLabel();
+            instrumentation.countExecution(label, sql);
+
+            long start = System.nanoTime();
+            Object result = InstrumentedDataSource.invoke(statement, method, args);
+            long elapsed = System.nanoTime() - start;
+
+            if (result instanceof ResultSet) {
+                pendingQuery = new PendingQuery(label, sql, elapsed);
+                return wrapResultSet((ResultSet) result, pendingQuery);
+            }
+            instrumentation.record(label, sql, elapsed, rowCount(result));
+            return result;
+        }
+
+        /**
+         * Reports the open query, if any.
+         */
+        private void reportPendingQuery() {
+            if (pendingQuery != null) {
+                pendingQuery.report();
+                pendingQuery = null;
+            }
+        }
+
+        /**
+         * Wraps a result set so that the rows read are counted.
+         *
+         * @param resultSet the result set
+         * @param query the query the result set belongs to
+         * @return the wrapped result set
+         */
+        private ResultSet wrapResultSet(ResultSet resultSet, PendingQuery query) {
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.equals("close")) {
+                            query.report();
+                        }
+                        Object result = InstrumentedDataSource.invoke(resultSet, method, args);
+                        if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                            query.rows++;
+                        }
+                        return result;
+                    });
+        }
+
+        /**
+         * Gets the number of rows affected from the result of an execute call.
+         *
+         * @param result the result
+         * @return the number of rows, or -1 if unknown
+         */
+        private long rowCount(Object result) {
+            if (result instanceof Number) {
+                return ((Number) result).longValue();
+            }
+            if (result instanceof int[]) {
+                long rows = 0;
+                for (int count : (int[]) result) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            if (result instanceof long[]) {
+                long rows = 0;
+                for (long count : (long[]) result) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * A query whose result set is still being read.
+     */
+    private final class PendingQuery {
+        private final String label;
+        private final String sql;
+        private final long elapsedNanos;
+        private long rows;
+        private boolean reported;
+
+        /**
+         * Constructs a new PendingQuery.
+         *
+         * @param label the label captured at execution
+         * @param sql the SQL string
+         * @param elapsedNanos the execution time in nanoseconds
+         */
+        private PendingQuery(String label, String sql, long elapsedNanos) {
+            this.label = label;
+            this.sql = sql;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Reports the query once.
+         */
+        private void report() {
+            if (!reported) {
+                reported = true;
+                instrumentation.record(label, sql, elapsedNanos, rows);
+            }
+        }
+    }
+}
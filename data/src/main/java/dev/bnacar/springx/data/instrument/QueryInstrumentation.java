@@ -0,0 +1,226 @@
+package dev.bnacar.springx.data.instrument;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records the statements executed through an {@link InstrumentedDataSource}.
+ * Each statement is attributed to the label of the code that issued it, such as a repository
+ * method or a labeled {@link dev.bnacar.springx.data.query.QueryBuilder} query, and passed to the
+ * registered {@link StatementListener}s. Statements slower than the slow threshold are logged.
+ * <p>
+ * Statements are also counted per scope. A scope is an explicit {@link #callInScope} block, such
+ * as the web request wrapped by a {@link QueryScopeFilter}, or otherwise the current transaction.
+ * When the same SQL is executed more often than the N+1 threshold within a scope, the burst is
+ * logged and reported once.
+ */
+public class QueryInstrumentation {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryInstrumentation.class);
+
+    /**
+     * The label of statements issued outside any labeled code.
+     */
+    public static final String UNLABELED = "unlabeled";
+
+    private static final ThreadLocal<String> LABEL = new ThreadLocal<>();
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final List<StatementListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new QueryInstrumentation.
+     *
+     * @param slowThresholdMillis the execution time from which a statement counts as slow
+     * @param nPlusOneThreshold the number of executions of the same SQL in one scope that counts as N+1
+     */
+    public QueryInstrumentation(long slowThresholdMillis, int nPlusOneThreshold) {
+        this.slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowThresholdMillis);
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    /**
+     * Registers a listener.
+     *
+     * @param listener the listener
+     */
+    public void addListener(StatementListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Wraps a DataSource so that its statements are recorded.
+     *
+     * @param dataSource the DataSource
+     * @return the instrumented DataSource
+     */
+    public DataSource instrument(DataSource dataSource) {
+        return new InstrumentedDataSource(dataSource, this);
+    }
+
+    /**
+     * Runs a task with a label for the statements it issues. An outer label takes precedence.
+     *
+     * @param label the label, or null to leave the statements unlabeled
+     * @param task the task
+     * @param <T> the result type
+     * @return the task result
+     */
+    public static <T> T withLabel(String label, Supplier<T> task) {
+        boolean labeled = enterLabel(label);
+        try {
+            return task.get();
+        } finally {
+            if (labeled) {
+                exitLabel();
+            }
+        }
+    }
+
+    /**
+     * Sets the label of the current thread unless a label is already set.
+     *
+     * @param label the label
+     * @return true if the label was set and must be cleared with {@link #exitLabel()}
+     */
+    static boolean enterLabel(String label) {
+        if (label == null || LABEL.get() != null) {
+            return false;
+        }
+        LABEL.set(label);
+        return true;
+    }
+
+    /**
+     * Clears the label set by {@link #enterLabel}.
+     */
+    static void exitLabel() {
+        LABEL.remove();
+    }
+
+    /**
+     * Gets the label of the current thread.
+     *
+     * @return the label, or {@link #UNLABELED}
+     */
+    public static String currentLabel() {
+        String label = LABEL.get();
+        return label != null ? label : UNLABELED;
+    }
+
+    /**
+     * Runs a task as one scope for statement counting and N+1 detection.
+     * Within an existing scope, the task joins it.
+     *
+     * @param task the task
+     * @param <T> the result type
+     * @return the task result
+     * @throws Exception if the task throws an exception
+     */
+    public <T> T callInScope(Callable<T> task) throws Exception {
+        if (SCOPE.get() != null) {
+            return task.call();
+        }
+
+        Scope scope = new Scope();
+        SCOPE.set(scope);
+        try {
+            return task.call();
+        } finally {
+            SCOPE.remove();
+            completeScope(scope);
+        }
+    }
+
+    /**
+     * Records a completed statement.
+     *
+     * @param label the label captured when the statement was executed
+     * @param sql the SQL string
+     * @param elapsedNanos the execution time in nanoseconds
+     * @param rows the number of rows, or -1 if unknown
+     */
+    void record(String label, String sql, long elapsedNanos, long rows) {
+        boolean slow = elapsedNanos >= slowThresholdNanos;
+        if (slow) {
+            logger.warn("Slow statement from {} took {} ms: {}", label,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), sql);
+        }
+
+        StatementExecution execution = new StatementExecution(label, sql, elapsedNanos, rows, slow);
+        for (StatementListener listener : listeners) {
+            listener.statementExecuted(execution);
+        }
+    }
+
+    /**
+     * Counts a statement execution in the current scope, starting a transaction scope if needed.
+     *
+     * @param label the label of the code that issued the statement
+     * @param sql the SQL string
+     */
+    void countExecution(String label, String sql) {
+        Scope scope = SCOPE.get();
+        if (scope == null) {
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return;
+            }
+
+            Scope transactionScope = new Scope();
+            SCOPE.set(transactionScope);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    SCOPE.remove();
+                    completeScope(transactionScope);
+                }
+            });
+            scope = transactionScope;
+        }
+
+        scope.statements++;
+        int executions = scope.executions.merge(sql, 1, Integer::sum);
+        if (executions == nPlusOneThreshold) {
+            logger.warn("Possible N+1 from {}: statement executed {} times in one scope: {}", label, executions, sql);
+            for (StatementListener listener : listeners) {
+                listener.nPlusOneDetected(label, sql, executions);
+            }
+        }
+    }
+
+    /**
+     * Reports a completed scope to the listeners.
+     *
+     * @param scope the scope
+     */
+    private void completeScope(Scope scope) {
+        if (scope.statements == 0) {
+            return;
+        }
+        for (StatementListener listener : listeners) {
+            listener.scopeCompleted(scope.statements);
+        }
+    }
+
+    /**
+     * Statement counts of one scope.
+     */
+    private static final class Scope {
+        // Map of SQL string to its number of executions
+        private final Map<String, Integer> executions = new HashMap<>();
+        private int statements;
+    }
+}
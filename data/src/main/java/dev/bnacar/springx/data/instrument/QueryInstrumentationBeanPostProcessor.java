@@ -0,0 +1,33 @@
+package dev.bnacar.springx.data.instrument;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+
+/**
+ * Bean post-processor that wraps a DataSource bean in an {@link InstrumentedDataSource}.
+ */
+public class QueryInstrumentationBeanPostProcessor implements BeanPostProcessor {
+
+    private final String dataSourceBeanName;
+    private final QueryInstrumentation instrumentation;
+
+    /**
+     * Constructs a new QueryInstrumentationBeanPostProcessor.
+     *
+     * @param dataSourceBeanName the name of the DataSource bean to instrument
+     * @param instrumentation the query instrumentation
+     */
+    public QueryInstrumentationBeanPostProcessor(String dataSourceBeanName, QueryInstrumentation instrumentation) {
+        this.dataSourceBeanName = dataSourceBeanName;
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (dataSourceBeanName.equals(beanName) && bean instanceof DataSource && !(bean instanceof InstrumentedDataSource)) {
+            return instrumentation.instrument((DataSource) bean);
+        }
+        return bean;
+    }
+}
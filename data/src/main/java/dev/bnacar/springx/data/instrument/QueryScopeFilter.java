@@ -0,0 +1,44 @@
+package dev.bnacar.springx.data.instrument;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filter that counts the statements of each HTTP request in one {@link QueryInstrumentation} scope.
+ * Without it, only statements issued within a transaction are counted, so N+1 queries from
+ * lazy loading outside a transaction, such as during view rendering with open-in-view, go unnoticed.
+ * Transactions within the request join its scope.
+ */
+public class QueryScopeFilter extends OncePerRequestFilter {
+
+    private final QueryInstrumentation instrumentation;
+
+    /**
+     * Constructs a new QueryScopeFilter.
+     *
+     * @param instrumentation the query instrumentation
+     */
+    public QueryScopeFilter(QueryInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try {
+            instrumentation.callInScope(() -> {
+                filterChain.doFilter(request, response);
+                return null;
+            });
+        } catch (ServletException | IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+    }
+}
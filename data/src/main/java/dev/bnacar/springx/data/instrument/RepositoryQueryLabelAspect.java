@@ -0,0 +1,49 @@
+package dev.bnacar.springx.data.instrument;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.repository.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Aspect that labels the statements issued by Spring Data repository methods with
+ * {@code RepositoryName.methodName}, for {@link QueryInstrumentation}.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RepositoryQueryLabelAspect {
+
+    // Map of repository class to its simple interface name
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    /**
+     * Labels the statements of a repository method call.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @param repository the repository
+     * @return the result of the method call
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("this(repository)")
+    public Object label(ProceedingJoinPoint joinPoint, Repository<?, ?> repository) throws Throwable {
+        String label = repositoryNames.computeIfAbsent(repository.getClass(), type -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(repository);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : type.getSimpleName();
+        }) + "." + joinPoint.getSignature().getName();
+
+        boolean labeled = QueryInstrumentation.enterLabel(label);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (labeled) {
+                QueryInstrumentation.exitLabel();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dev.bnacar.springx.data.instrument;
+
+/**
+ * A completed JDBC statement execution.
+ */
+public class StatementExecution {
+
+    private final String label;
+    private final String sql;
+    private final long elapsedNanos;
+    private final long rows;
+    private final boolean slow;
+
+    /**
+     * Constructs a new StatementExecution.
+     *
+     * @param label the label of the code that issued the statement
+     * @param sql the SQL string
+     * @param elapsedNanos the execution time in nanoseconds
+     * @param rows the number of rows returned or updated, or -1 if unknown
+     * @param slow whether the execution exceeded the slow statement threshold
+     */
+    public StatementExecution(String label, String sql, long elapsedNanos, long rows, boolean slow) {
+        this.label = label;
+        this.sql = sql;
+        this.elapsedNanos = elapsedNanos;
+        this.rows = rows;
+        this.slow = slow;
+    }
+
+    /**
+     * Gets the label of the code that issued the statement, such as a repository method.
+     *
+     * @return the label
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the SQL string.
+     *
+     * @return the SQL string
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Gets the execution time, excluding the time spent reading the result set.
+     *
+     * @return the execution time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the number of rows returned by a query or updated by an update.
+     *
+     * @return the number of rows, or -1 if unknown
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Checks whether the execution exceeded the slow statement threshold.
+     *
+     * @return true if the statement was slow
+     */
+    public boolean isSlow() {
+        return slow;
+    }
+}
@@ -0,0 +1,33 @@
+package dev.bnacar.springx.data.instrument;
+
+/**
+ * Listener notified by {@link QueryInstrumentation} about statement executions.
+ * Callbacks run synchronously on the thread that executed the statement.
+ */
+public interface StatementListener {
+
+    /**
+     * Called when a statement has completed. For queries, this is when the result set is closed.
+     *
+     * @param execution the statement execution
+     */
+    void statementExecuted(StatementExecution execution);
+
+    /**
+     * Called once per scope when the same SQL has been executed often enough to suggest an N+1 pattern.
+     *
+     * @param label the label of the code that issued the statement
+     * @param sql the repeated SQL string
+     * @param executions the number of executions so far
+     */
+    default void nPlusOneDetected(String label, String sql, int executions) {
+    }
+
+    /**
+     * Called when a scope, such as a transaction, has completed.
+     *
+     * @param statements the number of statements executed in the scope
+     */
+    default void scopeCompleted(int statements) {
+    }
+}
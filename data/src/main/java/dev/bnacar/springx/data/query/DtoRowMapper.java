@@ -0,0 +1,282 @@
+package dev.bnacar.springx.data.query;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Row mapper that projects result rows straight into DTOs, bypassing the entity layer.
+ * Records are created through their canonical constructor; other classes through their
+ * no-argument constructor and setters. Columns are matched to components or properties by
+ * name, ignoring case and underscores, so {@code first_name} fills {@code firstName}.
+ * <p>
+ * The constructor and setters are resolved once per DTO type into method handles, and the
+ * column positions once per distinct list of column labels, so mapping a row involves no
+ * reflective lookups. Instances are thread-safe; use {@link #of(Class)} to share them. A shared
+ * instance reads the column labels of every row to find their cached positions;
+ * {@link #forSingleQuery()} skips this for the rows of one query.
+ *
+ * @param <D> the DTO type
+ */
+public final class DtoRowMapper<D> implements RowMapper<D> {
+
+    // Map of DTO type to its row mapper
+    private static final Map<Class<?>, DtoRowMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    // Queries projecting into one DTO type rarely select more distinct column lists than this
+    private static final int MAX_COLUMN_MAPPINGS = 32;
+
+    // Map of primitive type to its default value
+    private static final Map<Class<?>, Object> PRIMITIVE_DEFAULTS = new HashMap<>();
+
+    static {
+        PRIMITIVE_DEFAULTS.put(boolean.class, false);
+        PRIMITIVE_DEFAULTS.put(byte.class, (byte) 0);
+        PRIMITIVE_DEFAULTS.put(short.class, (short) 0);
+        PRIMITIVE_DEFAULTS.put(char.class, (char) 0);
+        PRIMITIVE_DEFAULTS.put(int.class, 0);
+        PRIMITIVE_DEFAULTS.put(long.class, 0L);
+        PRIMITIVE_DEFAULTS.put(float.class, 0f);
+        PRIMITIVE_DEFAULTS.put(double.class, 0d);
+    }
+
+    private final Class<D> dtoType;
+    private final String[] propertyNames;
+    private final Class<?>[] propertyTypes;
+
+    // Canonical constructor taking an Object[], or null for setter injection
+    private final MethodHandle constructor;
+    private final MethodHandle noArgConstructor;
+    private final MethodHandle[] setters;
+
+    // Map of column labels to the column of each property, cleared when it grows too large
+    private final Map<List<String>, int[]> columnMappings = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new DtoRowMapper, resolving the constructor and setters of the DTO type.
+     *
+     * @param dtoType the DTO type
+     */
+    private DtoRowMapper(Class<D> dtoType) {
+        this.dtoType = dtoType;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            if (dtoType.isRecord()) {
+                RecordComponent[] components = dtoType.getRecordComponents();
+                propertyNames = new String[components.length];
+                propertyTypes = new Class<?>[components.length];
+                for (int i = 0; i < components.length; i++) {
+                    propertyNames[i] = normalize(components[i].getName());
+                    propertyTypes[i] = components[i].getType();
+                }
+                Constructor<D> canonical = dtoType.getDeclaredConstructor(propertyTypes);
+                canonical.setAccessible(true);
+                constructor = lookup.unreflectConstructor(canonical)
+                        .asSpreader(Object[].class, components.length)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                noArgConstructor = null;
+                setters = null;
+            } else {
+                List<String> names = new ArrayList<>();
+                List<Class<?>> types = new ArrayList<>();
+                List<MethodHandle> handles = new ArrayList<>();
+                for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(dtoType)) {
+                    Method writeMethod = descriptor.getWriteMethod();
+                    if (writeMethod != null) {
+                        writeMethod.setAccessible(true);
+                        names.add(normalize(descriptor.getName()));
+                        types.add(descriptor.getPropertyType());
+                        handles.add(lookup.unreflect(writeMethod)
+                                .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+                    }
+                }
+                propertyNames = names.toArray(new String[0]);
+                propertyTypes = types.toArray(new Class<?>[0]);
+                setters = handles.toArray(new MethodHandle[0]);
+                Constructor<D> defaultConstructor = dtoType.getDeclaredConstructor();
+                defaultConstructor.setAccessible(true);
+                noArgConstructor = lookup.unreflectConstructor(defaultConstructor)
+                        .asType(MethodType.methodType(Object.class));
+                constructor = null;
+            }
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            throw new IllegalArgumentException("Cannot project rows into " + dtoType.getName()
+                    + "; expected a record or a class with a no-argument constructor", ex);
+        }
+    }
+
+    /**
+     * Gets the row mapper for a DTO type, creating it on first use.
+     *
+     * @param dtoType the DTO type
+     * @param <D> the DTO type
+     * @return the row mapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <D> DtoRowMapper<D> of(Class<D> dtoType) {
+        return (DtoRowMapper<D>) MAPPERS.computeIfAbsent(dtoType, DtoRowMapper::new);
+    }
+
+    /**
+     * Creates a row mapper for the rows of a single query, which resolves the column positions
+     * on the first row and reuses them for all following rows. The returned mapper must not be
+     * shared between queries or threads.
+     *
+     * @return the row mapper
+     */
+    public RowMapper<D> forSingleQuery() {
+        return new RowMapper<D>() {
+            private int[] columns;
+
+            @Override
+            public D mapRow(ResultSet rs, int rowNum) throws SQLException {
+                if (columns == null) {
+                    columns = getColumns(rs.getMetaData());
+                }
+                return map(rs, columns);
+            }
+        };
+    }
+
+    /**
+     * Maps the current row to a DTO.
+     *
+     * @param rs the result set
+     * @param rowNum the number of the current row
+     * @return the DTO
+     * @throws SQLException if a column cannot be read
+     */
+    @Override
+    public D mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return map(rs, getColumns(rs.getMetaData()));
+    }
+
+    /**
+     * Maps the current row to a DTO using resolved column positions.
+     *
+     * @param rs the result set
+     * @param columns the column of each property
+     * @return the DTO
+     * @throws SQLException if a column cannot be read
+     */
+    private D map(ResultSet rs, int[] columns) throws SQLException {
+        try {
+            if (constructor != null) {
+                Object[] values = new Object[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    values[i] = readValue(rs, columns[i], propertyTypes[i]);
+                }
+                return dtoType.cast(constructor.invokeExact(values));
+            }
+
+            Object dto = noArgConstructor.invokeExact();
+            for (int i = 0; i < columns.length; i++) {
+                if (columns[i] > 0) {
+                    setters[i].invokeExact(dto, readValue(rs, columns[i], propertyTypes[i]));
+                }
+            }
+            return dtoType.cast(dto);
+        } catch (SQLException | RuntimeException ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new IllegalStateException("Failed to create " + dtoType.getName(), ex);
+        }
+    }
+
+    /**
+     * Gets the column of each DTO property for the columns of a result set, resolving them on first use.
+     *
+     * @param metaData the result set metadata
+     * @return the 1-based column index of each property, or 0 if no column matches
+     * @throws SQLException if the metadata cannot be read
+     */
+    private int[] getColumns(ResultSetMetaData metaData) throws SQLException {
+        String[] labels = new String[metaData.getColumnCount()];
+        for (int column = 1; column <= labels.length; column++) {
+            labels[column - 1] = JdbcUtils.lookupColumnName(metaData, column);
+        }
+
+        List<String> key = Arrays.asList(labels);
+        int[] columns = columnMappings.get(key);
+        if (columns == null) {
+            columns = resolveColumns(labels);
+            if (columnMappings.size() >= MAX_COLUMN_MAPPINGS) {
+                columnMappings.clear();
+            }
+            columnMappings.put(key, columns);
+        }
+        return columns;
+    }
+
+    /**
+     * Finds the column of each DTO property.
+     *
+     * @param labels the column labels
+     * @return the 1-based column index of each property, or 0 if no column matches
+     */
+    private int[] resolveColumns(String[] labels) {
+        // The first of several columns with the same normalized name wins
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int column = labels.length; column >= 1; column--) {
+            columnIndexes.put(normalize(labels[column - 1]), column);
+        }
+
+        int[] columns = new int[propertyNames.length];
+        for (int i = 0; i < propertyNames.length; i++) {
+            columns[i] = columnIndexes.getOrDefault(propertyNames[i], 0);
+        }
+        return columns;
+    }
+
+    /**
+     * Reads a column value as the given type.
+     *
+     * @param rs the result set
+     * @param column the 1-based column index, or 0 for no column
+     * @param type the property type
+     * @return the value, or the type's default value if the column is absent or null
+     * @throws SQLException if the column cannot be read
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readValue(ResultSet rs, int column, Class<?> type) throws SQLException {
+        Object value = null;
+        if (column > 0) {
+            if (type.isEnum()) {
+                String name = rs.getString(column);
+                value = name != null ? Enum.valueOf((Class<? extends Enum>) type, name) : null;
+            } else {
+                value = JdbcUtils.getResultSetValue(rs, column, type);
+            }
+        }
+
+        return value == null && type.isPrimitive() ? PRIMITIVE_DEFAULTS.get(type) : value;
+    }
+
+    /**
+     * Normalizes a column or property name for matching.
+     *
+     * @param name the name
+     * @return the name in lower case, without underscores
+     */
+    private static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+}
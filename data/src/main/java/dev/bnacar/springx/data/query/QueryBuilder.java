@@ -1,8 +1,21 @@
 package dev.bnacar.springx.data.query;
 
+import dev.bnacar.springx.data.instrument.QueryInstrumentation;
+import dev.bnacar.springx.data.repository.RepositoryEntityResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * A fluent query builder for constructing SQL queries.
@@ -10,9 +23,30 @@ import java.util.List;
  */
 public class QueryBuilder {
 
-    private final StringBuilder query = new StringBuilder();
-    private final List<Object> parameters = new ArrayList<>();
-    private boolean whereStarted = false;
+    /**
+     * The maximum number of values in a single IN list. Larger lists are split into several IN lists.
+     */
+    public static final int MAX_IN_LIST_SIZE = 512;
+
+    /**
+     * The default number of rows fetched per round trip when streaming.
+     */
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    private final StringBuilder select = new StringBuilder();
+    private final StringBuilder from = new StringBuilder();
+    private final List<Object> fromParameters = new ArrayList<>();
+    private final List<Join> joins = new ArrayList<>();
+    private final StringBuilder where = new StringBuilder();
+    private final List<Object> whereParameters = new ArrayList<>();
+    private final StringBuilder groupBy = new StringBuilder();
+    private final StringBuilder having = new StringBuilder();
+    private final List<Object> havingParameters = new ArrayList<>();
+    private final StringBuilder orderBy = new StringBuilder();
+    private final StringBuilder paging = new StringBuilder();
+    private final List<Object> pagingParameters = new ArrayList<>();
+    private final Set<String> tables = new LinkedHashSet<>();
+    private String label;
 
     /**
      * Creates a new QueryBuilder with a SELECT clause.
@@ -22,22 +56,34 @@ public class QueryBuilder {
      */
     public static QueryBuilder select(String... columns) {
         QueryBuilder builder = new QueryBuilder();
-        builder.query.append("SELECT ");
+        builder.select.append("SELECT ");
 
         if (columns.length == 0) {
-            builder.query.append("*");
+            builder.select.append("*");
         } else {
             for (int i = 0; i < columns.length; i++) {
                 if (i > 0) {
-                    builder.query.append(", ");
+                    builder.select.append(", ");
                 }
-                builder.query.append(columns[i]);
+                builder.select.append(columns[i]);
             }
         }
 
         return builder;
     }
 
+    /**
+     * Sets the label under which the statements executed by this builder are recorded,
+     * see {@link QueryInstrumentation}.
+     *
+     * @param label the label
+     * @return the QueryBuilder instance
+     */
+    public QueryBuilder label(String label) {
+        this.label = label;
+        return this;
+    }
+
     /**
      * Adds a FROM clause to the query.
      *
@@ -45,10 +91,52 @@ public class QueryBuilder {
      * @return the QueryBuilder instance
      */
     public QueryBuilder from(String table) {
-        query.append(" FROM ").append(table);
+        from.append(" FROM ").append(table);
+        // Joins written into the FROM clause are recorded as well
+        for (String item : table.split("(?i),|\\sjoin\\s")) {
+            addTable(item);
+        }
         return this;
     }
 
+    /**
+     * Adds an inner join to the query.
+     *
+     * @param table the table name, optionally followed by an alias
+     * @param condition the join condition
+     * @param params the parameters for the condition
+     * @return the QueryBuilder instance
+     */
+    public QueryBuilder join(String table, String condition, Object... params) {
+        return addJoin(" JOIN ", table, condition, params, false);
+    }
+
+    /**
+     * Adds a left outer join to the query.
+     *
+     * @param table the table name, optionally followed by an alias
+     * @param condition the join condition
+     * @param params the parameters for the condition
+     * @return the QueryBuilder instance
+     */
+    public QueryBuilder leftJoin(String table, String condition, Object... params) {
+        return addJoin(" LEFT JOIN ", table, condition, params, false);
+    }
+
+    /**
+     * Adds a left outer join that matches at most one row, such as a to-one association.
+     * Such a join never changes the number of result rows, so {@link #toCountQuery()} drops it
+     * unless its alias is used by the WHERE, GROUP BY or HAVING clauses or by another join.
+     *
+     * @param table the table name, optionally followed by an alias
+     * @param condition the join condition
+     * @param params the parameters for the condition
+     * @return the QueryBuilder instance
+     */
+    public QueryBuilder leftJoinToOne(String table, String condition, Object... params) {
+        return addJoin(" LEFT JOIN ", table, condition, params, true);
+    }
+
     /**
      * Adds a WHERE clause to the query.
      *
@@ -57,18 +145,132 @@ public class QueryBuilder {
      * @return the QueryBuilder instance
      */
     public QueryBuilder where(String condition, Object... params) {
-        if (whereStarted) {
-            query.append(" AND ").append(condition);
+        if (where.length() > 0) {
+            where.append(" AND ").append(condition);
         } else {
-            query.append(" WHERE ").append(condition);
-            whereStarted = true;
+            where.append(" WHERE ").append(condition);
         }
 
-        parameters.addAll(Arrays.asList(params));
+        whereParameters.addAll(Arrays.asList(params));
 
         return this;
     }
 
+    /**
+     * Adds an IN condition to the WHERE clause.
+     * To limit the number of distinct SQL strings, the list is padded to the next power of two
+     * by repeating its last value. Lists longer than {@link #MAX_IN_LIST_SIZE} are split into
+     * several IN lists joined with OR. An empty list renders a condition that matches no rows.
+     *
+     * @param column the column
+     * @param values the values
+     * @return the QueryBuilder instance
+     */
+    public QueryBuilder whereIn(String column, Collection<?> values) {
+        if (values.isEmpty()) {
+            return where("1 = 0");
+        }
+
+        int chunks = (values.size() + MAX_IN_LIST_SIZE - 1) / MAX_IN_LIST_SIZE;
+        StringBuilder condition = new StringBuilder();
+        List<Object> params = new ArrayList<>(chunks * MAX_IN_LIST_SIZE);
+        Iterator<?> iterator = values.iterator();
+        int remaining = values.size();
+
+        if (chunks > 1) {
+            condition.append('(');
+        }
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            if (chunk > 0) {
+                condition.append(" OR ");
+            }
+
+            int size = Math.min(remaining, MAX_IN_LIST_SIZE);
+            int paddedSize = size == 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+            Object value = null;
+            condition.append(column).append(" IN (");
+            for (int i = 0; i < paddedSize; i++) {
+                if (i > 0) {
+                    condition.append(", ");
+                }
+                condition.append('?');
+                if (i < size) {
+                    value = iterator.next();
+                }
+                params.add(value);
+            }
+            condition.append(')');
+            remaining -= size;
+        }
+        if (chunks > 1) {
+            condition.append(')');
+        }
+
+        return where(condition.toString(), params.toArray());
+    }
+
+    /**
+     * Adds a keyset pagination condition to the WHERE clause, selecting the rows that follow the
+     * last row of the previous page. Pass the same sort columns to {@link #orderBy}, and include a
+     * unique column last so the order is total.
+     * <p>
+     * Sort columns are given as in ORDER BY, e.g. {@code "created_at DESC"}. When all columns sort
+     * in the same direction, a row-value comparison such as {@code (a, b) > (?, ?)} is rendered;
+     * mixed directions are expanded into {@code (a > ? OR (a = ? AND b < ?))}.
+     *
+     * @param sortColumns the sort columns with optional ASC or DESC
+     * @param lastValues the sort column values of the last row of the previous page, or null for the first page
+     * @return the QueryBuilder instance
+     * @throws IllegalArgumentException if the number of values does not match the number of columns
+     */
+    public QueryBuilder seekAfter(String[] sortColumns, Object[] lastValues) {
+        if (lastValues == null) {
+            return this;
+        }
+        if (sortColumns.length == 0 || sortColumns.length != lastValues.length) {
+            throw new IllegalArgumentException("Expected " + sortColumns.length + " last values, got " + lastValues.length);
+        }
+
+        String[] columns = new String[sortColumns.length];
+        boolean[] descending = new boolean[sortColumns.length];
+        boolean uniform = true;
+        for (int i = 0; i < sortColumns.length; i++) {
+            String[] parts = sortColumns[i].trim().split("\\s+");
+            columns[i] = parts[0];
+            descending[i] = parts.length > 1 && "DESC".equalsIgnoreCase(parts[1]);
+            uniform &= descending[i] == descending[0];
+        }
+
+        if (uniform) {
+            String operator = descending[0] ? " < " : " > ";
+            if (columns.length == 1) {
+                return where(columns[0] + operator + "?", lastValues);
+            }
+            String placeholders = String.join(", ", Collections.nCopies(columns.length, "?"));
+            return where("(" + String.join(", ", columns) + ")" + operator + "(" + placeholders + ")", lastValues);
+        }
+
+        StringBuilder condition = new StringBuilder("(");
+        List<Object> params = new ArrayList<>();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                condition.append(" OR (");
+            }
+            for (int j = 0; j < i; j++) {
+                condition.append(columns[j]).append(" = ? AND ");
+                params.add(lastValues[j]);
+            }
+            condition.append(columns[i]).append(descending[i] ? " < ?" : " > ?");
+            params.add(lastValues[i]);
+            if (i > 0) {
+                condition.append(')');
+            }
+        }
+        condition.append(')');
+
+        return where(condition.toString(), params.toArray());
+    }
+
     /**
      * Adds an AND condition to the WHERE clause.
      *
@@ -77,13 +279,13 @@ public class QueryBuilder {
      * @return the QueryBuilder instance
      */
     public QueryBuilder and(String condition, Object... params) {
-        if (!whereStarted) {
+        if (where.length() == 0) {
             throw new IllegalStateException("Cannot add AND condition without a WHERE clause");
         }
 
-        query.append(" AND ").append(condition);
+        where.append(" AND ").append(condition);
 
-        parameters.addAll(Arrays.asList(params));
+        whereParameters.addAll(Arrays.asList(params));
 
         return this;
     }
@@ -96,33 +298,53 @@ public class QueryBuilder {
      * @return the QueryBuilder instance
      */
     public QueryBuilder or(String condition, Object... params) {
-        if (!whereStarted) {
+        if (where.length() == 0) {
             throw new IllegalStateException("Cannot add OR condition without a WHERE clause");
         }
 
-        query.append(" OR ").append(condition);
+        where.append(" OR ").append(condition);
 
-        parameters.addAll(Arrays.asList(params));
+        whereParameters.addAll(Arrays.asList(params));
 
         return this;
     }
 
     /**
-     * Adds an ORDER BY clause to the query.
+     * Adds a GROUP BY clause to the query.
      *
-     * @param columns the columns to order by
+     * @param columns the columns to group by
      * @return the QueryBuilder instance
      */
-    public QueryBuilder orderBy(String... columns) {
-        query.append(" ORDER BY ");
+    public QueryBuilder groupBy(String... columns) {
+        appendColumns(groupBy, " GROUP BY ", columns);
+        return this;
+    }
 
-        for (int i = 0; i < columns.length; i++) {
-            if (i > 0) {
-                query.append(", ");
-            }
-            query.append(columns[i]);
+    /**
+     * Adds a HAVING clause to the query. Further calls add AND conditions.
+     *
+     * @param condition the condition
+     * @param params the parameters for the condition
+     * @return the QueryBuilder instance
+     */
+    public QueryBuilder having(String condition, Object... params) {
+        if (groupBy.length() == 0) {
+            throw new IllegalStateException("Cannot add HAVING condition without a GROUP BY clause");
         }
 
+        having.append(having.length() > 0 ? " AND " : " HAVING ").append(condition);
+        havingParameters.addAll(Arrays.asList(params));
+        return this;
+    }
+
+    /**
+     * Adds an ORDER BY clause to the query.
+     *
+     * @param columns the columns to order by
+     * @return the QueryBuilder instance
+     */
+    public QueryBuilder orderBy(String... columns) {
+        appendColumns(orderBy, " ORDER BY ", columns);
         return this;
     }
 
@@ -133,8 +355,8 @@ public class QueryBuilder {
      * @return the QueryBuilder instance
      */
     public QueryBuilder limit(int limit) {
-        query.append(" LIMIT ?");
-        parameters.add(limit);
+        paging.append(" LIMIT ?");
+        pagingParameters.add(limit);
         return this;
     }
 
@@ -145,8 +367,8 @@ public class QueryBuilder {
      * @return the QueryBuilder instance
      */
     public QueryBuilder offset(int offset) {
-        query.append(" OFFSET ?");
-        parameters.add(offset);
+        paging.append(" OFFSET ?");
+        pagingParameters.add(offset);
         return this;
     }
 
@@ -156,7 +378,30 @@ public class QueryBuilder {
      * @return the SQL query string
      */
     public String getQuery() {
-        return query.toString();
+        StringBuilder query = new StringBuilder(select.length() + from.length() + where.length() + 64);
+        query.append(select).append(from);
+        for (Join join : joins) {
+            query.append(join.sql);
+        }
+        return query.append(where).append(groupBy).append(having).append(orderBy).append(paging).toString();
+    }
+
+    /**
+     * Gets the label under which the statements of this query are recorded.
+     *
+     * @return the label, or null if not set
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the tables the query reads from, normalized by {@link RepositoryEntityResolver#normalizeTableName}.
+     *
+     * @return the table names
+     */
+    public Set<String> getTables() {
+        return Collections.unmodifiableSet(tables);
     }
 
     /**
@@ -165,6 +410,209 @@ public class QueryBuilder {
      * @return the query parameters
      */
     public Object[] getParameters() {
+        List<Object> parameters = new ArrayList<>(fromParameters);
+        for (Join join : joins) {
+            parameters.addAll(Arrays.asList(join.parameters));
+        }
+        parameters.addAll(whereParameters);
+        parameters.addAll(havingParameters);
+        parameters.addAll(pagingParameters);
         return parameters.toArray();
     }
+
+    /**
+     * Derives a query counting the rows this query returns without LIMIT and OFFSET.
+     * ORDER BY, LIMIT and OFFSET are dropped, as are joins added with {@link #leftJoinToOne}
+     * that nothing else refers to. Grouped and DISTINCT queries are counted through a subquery.
+     *
+     * @return the count query
+     */
+    public QueryBuilder toCountQuery() {
+        QueryBuilder count = new QueryBuilder();
+        count.select.append("SELECT COUNT(*)");
+        count.tables.addAll(tables);
+
+        boolean distinct = select.length() > 16 && select.substring(7, 16).equalsIgnoreCase("DISTINCT ");
+        if (groupBy.length() > 0 || distinct) {
+            count.from.append(" FROM (").append(select).append(from);
+            count.fromParameters.addAll(fromParameters);
+            for (Join join : joins) {
+                count.from.append(join.sql);
+                count.fromParameters.addAll(Arrays.asList(join.parameters));
+            }
+            count.from.append(where).append(groupBy).append(having).append(") counted");
+            count.fromParameters.addAll(whereParameters);
+            count.fromParameters.addAll(havingParameters);
+            return count;
+        }
+
+        count.from.append(from);
+        count.fromParameters.addAll(fromParameters);
+        // Walk backwards, since a join can only be referenced by the clauses and joins after it
+        StringBuilder referencing = new StringBuilder(where);
+        for (int i = joins.size() - 1; i >= 0; i--) {
+            Join join = joins.get(i);
+            if (!join.toOne || join.isReferencedIn(referencing)) {
+                count.joins.add(0, join);
+                referencing.append(join.sql);
+            }
+        }
+        count.where.append(where);
+        count.whereParameters.addAll(whereParameters);
+        return count;
+    }
+
+    /**
+     * Compiles the query into a reusable template, keeping its label and tables. The current
+     * parameter values only determine the number of slots; new values are passed on execution.
+     *
+     * @return the QueryTemplate for this query
+     */
+    public QueryTemplate compile() {
+        return new QueryTemplate(getQuery(), getParameters().length, label, tables);
+    }
+
+    /**
+     * Executes the query and streams the mapped rows with the default fetch size.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param rowMapper the row mapper
+     * @param <T> the row type
+     * @return a stream of rows, which must be closed
+     * @see #stream(JdbcTemplate, RowMapper, int)
+     */
+    public <T> Stream<T> stream(JdbcTemplate jdbcTemplate, RowMapper<T> rowMapper) {
+        return stream(jdbcTemplate, rowMapper, DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Executes the query and streams the mapped rows.
+     * Rows are read through a forward-only, read-only cursor, fetching {@code fetchSize} rows
+     * per round trip, so memory use does not grow with the result size. The statement and
+     * connection stay open until the stream is closed; use it in a try-with-resources block.
+     * Some drivers, such as PostgreSQL's, only honor the fetch size within a transaction.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param rowMapper the row mapper
+     * @param fetchSize the number of rows fetched per round trip
+     * @param <T> the row type
+     * @return a stream of rows, which must be closed
+     */
+    public <T> Stream<T> stream(JdbcTemplate jdbcTemplate, RowMapper<T> rowMapper, int fetchSize) {
+        return compile().stream(jdbcTemplate, rowMapper, fetchSize, getParameters());
+    }
+
+    /**
+     * Executes the query and projects the rows straight into DTOs.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param dtoType the DTO type, a record or a class with a no-argument constructor and setters
+     * @param <D> the DTO type
+     * @return the DTOs
+     * @see DtoRowMapper
+     */
+    public <D> List<D> projectTo(JdbcTemplate jdbcTemplate, Class<D> dtoType) {
+        return compile().projectTo(jdbcTemplate, dtoType, getParameters());
+    }
+
+    /**
+     * Executes the query and passes the mapped rows to the consumer in batches.
+     * The rows are streamed as by {@link #stream(JdbcTemplate, RowMapper, int)}, using the batch
+     * size as fetch size, and all resources are closed before this method returns.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param rowMapper the row mapper
+     * @param batchSize the number of rows per batch
+     * @param consumer the consumer of each batch
+     * @param <T> the row type
+     * @return the number of rows read
+     */
+    public <T> long forEachBatch(JdbcTemplate jdbcTemplate, RowMapper<T> rowMapper, int batchSize,
+                                 Consumer<List<T>> consumer) {
+        return compile().forEachBatch(jdbcTemplate, rowMapper, batchSize, consumer, getParameters());
+    }
+
+    /**
+     * Records a table the query reads from.
+     *
+     * @param table the table reference, possibly followed by an alias
+     */
+    private void addTable(String table) {
+        String trimmed = table.trim();
+        if (!trimmed.isEmpty() && !trimmed.startsWith("(")) {
+            tables.add(RepositoryEntityResolver.normalizeTableName(trimmed.split("\\s+")[0]));
+        }
+    }
+
+    /**
+     * Adds a join and records its table.
+     *
+     * @param keyword the join keyword, surrounded by spaces
+     * @param table the table name, optionally followed by an alias
+     * @param condition the join condition
+     * @param params the parameters for the condition
+     * @param toOne whether the join matches at most one row
+     * @return the QueryBuilder instance
+     */
+    private QueryBuilder addJoin(String keyword, String table, String condition, Object[] params, boolean toOne) {
+        joins.add(new Join(keyword + table + " ON " + condition, params, table.trim(), toOne));
+        addTable(table);
+        return this;
+    }
+
+    /**
+     * Appends a comma-separated column list to a clause, starting the clause if needed.
+     *
+     * @param clause the clause
+     * @param keyword the clause keyword, surrounded by spaces
+     * @param columns the columns
+     */
+    private static void appendColumns(StringBuilder clause, String keyword, String... columns) {
+        clause.append(clause.length() == 0 ? keyword : ", ");
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                clause.append(", ");
+            }
+            clause.append(columns[i]);
+        }
+    }
+
+    /**
+     * A join clause with its parameters.
+     */
+    private static final class Join {
+        private final String sql;
+        private final Object[] parameters;
+        private final Pattern reference;
+        private final boolean toOne;
+
+        /**
+         * Constructs a new Join.
+         *
+         * @param sql the join clause
+         * @param parameters the parameters of the join condition
+         * @param table the joined table, optionally followed by an alias
+         * @param toOne whether the join matches at most one row
+         */
+        private Join(String sql, Object[] parameters, String table, boolean toOne) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.toOne = toOne;
+
+            String[] parts = table.split("\\s+");
+            String alias = parts[parts.length - 1];
+            alias = alias.substring(alias.lastIndexOf('.') + 1);
+            this.reference = Pattern.compile("\\b" + Pattern.quote(alias) + "\\.", Pattern.CASE_INSENSITIVE);
+        }
+
+        /**
+         * Checks whether SQL text refers to the columns of the joined table.
+         *
+         * @param text the SQL text
+         * @return true if the joined table is referenced
+         */
+        private boolean isReferencedIn(CharSequence text) {
+            return reference.matcher(text).find();
+        }
+    }
 }
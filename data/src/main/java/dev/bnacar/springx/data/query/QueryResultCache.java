@@ -0,0 +1,274 @@
+package dev.bnacar.springx.data.query;
+
+import dev.bnacar.springx.data.bulk.TableWriteEvent;
+import dev.bnacar.springx.data.repository.EntityChangeEvent;
+import dev.bnacar.springx.data.repository.RepositoryEntityResolver;
+import dev.bnacar.springx.data.repository.TransactionCallbacks;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of {@link QueryBuilder} and {@link QueryTemplate} query results.
+ * Results are keyed by SQL string, parameters and row mapper, and remember the tables
+ * the query reads from. Writes through the {@link dev.bnacar.springx.data.bulk.BulkWriter} and
+ * through caching repositories invalidate the results that read from the written table, once
+ * the writing transaction has completed. Results loaded within a read-write transaction are not
+ * cached, since they may include the transaction's uncommitted writes. Writes made in any other
+ * way are only picked up when entries expire.
+ * <p>
+ * Repository writes are mapped to tables by the entity's {@code @Table} name, or its entity
+ * name, converted to snake case as Spring Boot's default naming strategy does. Row mappers
+ * are distinguished by instance, so a result is only shared by callers passing the same mapper,
+ * such as a stateless mapper held in a field or a {@link DtoRowMapper#of shared DTO mapper}.
+ */
+public class QueryResultCache {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    // Map of query key to its cached result
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    // Incremented on every invalidation, so results loaded concurrently with a write are not cached
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructs a new QueryResultCache.
+     *
+     * @param maxEntries the maximum number of cached results
+     * @param ttlSeconds the time to live of cached results in seconds
+     */
+    public QueryResultCache(int maxEntries, long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Executes the query projecting its rows into DTOs, or returns its cached result.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param queryBuilder the query
+     * @param dtoType the record or bean class to project into
+     * @param <D> the DTO type
+     * @return the unmodifiable list of DTOs
+     * @see DtoRowMapper
+     */
+    public <D> List<D> query(JdbcTemplate jdbcTemplate, QueryBuilder queryBuilder, Class<D> dtoType) {
+        return query(jdbcTemplate, queryBuilder, DtoRowMapper.of(dtoType));
+    }
+
+    /**
+     * Executes the query, or returns its cached result.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param queryBuilder the query
+     * @param rowMapper the row mapper, compared by identity
+     * @param <T> the row type
+     * @return the unmodifiable query result
+     */
+    public <T> List<T> query(JdbcTemplate jdbcTemplate, QueryBuilder queryBuilder, RowMapper<T> rowMapper) {
+        return query(jdbcTemplate, queryBuilder.compile(), rowMapper, queryBuilder.getParameters());
+    }
+
+    /**
+     * Executes the compiled query with the given parameter values projecting its rows into DTOs,
+     * or returns its cached result.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param template the compiled query
+     * @param dtoType the record or bean class to project into
+     * @param params the parameter values, in slot order
+     * @param <D> the DTO type
+     * @return the unmodifiable list of DTOs
+     * @see DtoRowMapper
+     */
+    public <D> List<D> query(JdbcTemplate jdbcTemplate, QueryTemplate template, Class<D> dtoType, Object... params) {
+        return query(jdbcTemplate, template, DtoRowMapper.of(dtoType), params);
+    }
+
+    /**
+     * Executes the compiled query with the given parameter values, or returns its cached result.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param template the compiled query
+     * @param rowMapper the row mapper, compared by identity
+     * @param params the parameter values, in slot order
+     * @param <T> the row type
+     * @return the unmodifiable query result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> query(JdbcTemplate jdbcTemplate, QueryTemplate template, RowMapper<T> rowMapper,
+                             Object... params) {
+        Object[] parameters = template.bind(params);
+        Key key = new Key(template.getQuery(), parameters, rowMapper);
+
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expirationTime > now) {
+            return (List<T>) entry.result;
+        }
+
+        long invalidationsBefore = invalidations.get();
+        List<T> result = Collections.unmodifiableList(template.query(jdbcTemplate, rowMapper, parameters));
+        boolean writingTransaction = TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!writingTransaction && invalidations.get() == invalidationsBefore) {
+            if (entries.size() >= maxEntries) {
+                evict(now);
+            }
+            entries.put(key, new Entry(result, template.getTables(), now + ttlMillis));
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes the cached results of queries reading from a table.
+     *
+     * @param table the table name
+     */
+    public void invalidateTable(String table) {
+        String normalized = RepositoryEntityResolver.normalizeTableName(table);
+        invalidations.incrementAndGet();
+        entries.values().removeIf(entry -> entry.tables.contains(normalized));
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached results.
+     *
+     * @return the number of cached results
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Invalidates the table written by the bulk writer now and once the write has completed.
+     *
+     * @param event the table write event
+     */
+    @EventListener
+    public void onTableWrite(TableWriteEvent event) {
+        invalidateAfterCompletion(event.getTableName());
+    }
+
+    /**
+     * Invalidates the table of the changed entity type now and once the change has completed.
+     *
+     * @param event the entity change event
+     */
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        invalidateAfterCompletion(RepositoryEntityResolver.getTableName(event.getDomainType()));
+    }
+
+    /**
+     * Invalidates a table now, so the transaction's own reads are not served stale results,
+     * and again after the transaction completes, so that results concurrent readers cached from
+     * the state before a commit, or from a transaction that rolled back, are dropped.
+     *
+     * @param table the table name
+     */
+    private void invalidateAfterCompletion(String table) {
+        invalidateTable(table);
+        TransactionCallbacks.afterCompletion(() -> invalidateTable(table));
+    }
+
+    /**
+     * Makes room for a new entry by removing expired entries, or an arbitrary entry if none has expired.
+     *
+     * @param now the current time
+     */
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expirationTime <= now);
+        Iterator<Key> iterator = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * The cache key of a query execution.
+     */
+    private static final class Key {
+        private final String sql;
+        private final Object[] parameters;
+        private final RowMapper<?> rowMapper;
+        private final int hashCode;
+
+        /**
+         * Constructs a new Key.
+         *
+         * @param sql the SQL string
+         * @param parameters the query parameters
+         * @param rowMapper the row mapper
+         */
+        private Key(String sql, Object[] parameters, RowMapper<?> rowMapper) {
+            this.sql = sql;
+            this.parameters = parameters;
+            this.rowMapper = rowMapper;
+            this.hashCode = 31 * (31 * sql.hashCode() + Arrays.deepHashCode(parameters))
+                    + System.identityHashCode(rowMapper);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return sql.equals(other.sql) && rowMapper == other.rowMapper
+                    && Arrays.deepEquals(parameters, other.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A cached query result with the tables it was read from.
+     */
+    private static final class Entry {
+        private final List<?> result;
+        private final Set<String> tables;
+        private final long expirationTime;
+
+        /**
+         * Constructs a new Entry.
+         *
+         * @param result the query result
+         * @param tables the tables read by the query
+         * @param expirationTime the expiration time in milliseconds
+         */
+        private Entry(List<?> result, Set<String> tables, long expirationTime) {
+            this.result = result;
+            this.tables = tables;
+            this.expirationTime = expirationTime;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package dev.bnacar.springx.data.query;
+
+import dev.bnacar.springx.data.instrument.QueryInstrumentation;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.JdbcUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An immutable, compiled form of a {@link QueryBuilder} query.
+ * Holds the SQL string, the number of parameter slots, the label and the tables read by the
+ * query, and executes it with new parameter values without rebuilding the SQL. Execution records
+ * statements under the label as the builder does, and {@link QueryResultCache} invalidates cached
+ * results of a template by its tables.
+ * <p>
+ * Instances are thread-safe and are meant to be compiled once and kept in a constant.
+ */
+public final class QueryTemplate {
+
+    private final String query;
+    private final int parameterCount;
+    private final String label;
+    private final Set<String> tables;
+
+    /**
+     * Constructs a new QueryTemplate.
+     *
+     * @param query the SQL query string
+     * @param parameterCount the number of parameter slots
+     * @param label the label under which statements are recorded, or null
+     * @param tables the normalized names of the tables the query reads from
+     */
+    QueryTemplate(String query, int parameterCount, String label, Set<String> tables) {
+        this.query = query;
+        this.parameterCount = parameterCount;
+        this.label = label;
+        this.tables = Set.copyOf(tables);
+    }
+
+    /**
+     * Gets the SQL query string.
+     *
+     * @return the SQL query string
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Gets the number of parameter slots.
+     *
+     * @return the number of parameter slots
+     */
+    public int getParameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Gets the label under which the statements of this query are recorded.
+     *
+     * @return the label, or null if not set
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Gets the tables the query reads from.
+     *
+     * @return the table names
+     */
+    public Set<String> getTables() {
+        return tables;
+    }
+
+    /**
+     * Binds parameter values to the template. The values are used as given, in slot order,
+     * and are not copied.
+     *
+     * @param params the parameter values
+     * @return the query parameters
+     * @throws IllegalArgumentException if the number of values does not match the number of slots
+     */
+    public Object[] bind(Object... params) {
+        if (params.length != parameterCount) {
+            throw new IllegalArgumentException("Query '" + query + "' expects " + parameterCount
+                    + " parameters, but " + params.length + " were given");
+        }
+        return params;
+    }
+
+    /**
+     * Executes the query with the given parameter values.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param rowMapper the row mapper
+     * @param params the parameter values, in slot order
+     * @param <T> the row type
+     * @return the mapped rows
+     */
+    public <T> List<T> query(JdbcTemplate jdbcTemplate, RowMapper<T> rowMapper, Object... params) {
+        Object[] parameters = bind(params);
+        return QueryInstrumentation.withLabel(label, () -> jdbcTemplate.query(query, rowMapper, parameters));
+    }
+
+    /**
+     * Executes the query with the given parameter values and projects the rows straight into DTOs.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param dtoType the DTO type, a record or a class with a no-argument constructor and setters
+     * @param params the parameter values, in slot order
+     * @param <D> the DTO type
+     * @return the DTOs
+     * @see DtoRowMapper
+     */
+    public <D> List<D> projectTo(JdbcTemplate jdbcTemplate, Class<D> dtoType, Object... params) {
+        return query(jdbcTemplate, DtoRowMapper.of(dtoType).forSingleQuery(), params);
+    }
+
+    /**
+     * Executes the query with the given parameter values and streams the mapped rows.
+     * Rows are read through a forward-only, read-only cursor, fetching {@code fetchSize} rows
+     * per round trip, so memory use does not grow with the result size. The statement and
+     * connection stay open until the stream is closed; use it in a try-with-resources block.
+     * Some drivers, such as PostgreSQL's, only honor the fetch size within a transaction.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param rowMapper the row mapper
+     * @param fetchSize the number of rows fetched per round trip
+     * @param params the parameter values, in slot order
+     * @param <T> the row type
+     * @return a stream of rows, which must be closed
+     */
+    public <T> Stream<T> stream(JdbcTemplate jdbcTemplate, RowMapper<T> rowMapper, int fetchSize, Object... params) {
+        PreparedStatementCreator statementCreator = createStreamingStatement(fetchSize, bind(params));
+        return QueryInstrumentation.withLabel(label, () -> jdbcTemplate.queryForStream(statementCreator, rowMapper));
+    }
+
+    /**
+     * Executes the query with the given parameter values and passes the mapped rows to the consumer
+     * in batches. The rows are streamed as by {@link #stream}, using the batch size as fetch size,
+     * and all resources are closed before this method returns.
+     *
+     * @param jdbcTemplate the JdbcTemplate to execute the query with
+     * @param rowMapper the row mapper
+     * @param batchSize the number of rows per batch
+     * @param consumer the consumer of each batch
+     * @param params the parameter values, in slot order
+     * @param <T> the row type
+     * @return the number of rows read
+     */
+    public <T> long forEachBatch(JdbcTemplate jdbcTemplate, RowMapper<T> rowMapper, int batchSize,
+                                 Consumer<List<T>> consumer, Object... params) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+
+        long count = 0;
+        List<T> batch = new ArrayList<>(batchSize);
+        try (Stream<T> rows = stream(jdbcTemplate, rowMapper, batchSize, params)) {
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                count++;
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            consumer.accept(batch);
+        }
+
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return query;
+    }
+
+    /**
+     * Creates a statement creator for a forward-only, read-only cursor over this query.
+     *
+     * @param fetchSize the number of rows fetched per round trip
+     * @param parameters the bound parameter values
+     * @return the statement creator
+     */
+    private PreparedStatementCreator createStreamingStatement(int fetchSize, Object[] parameters) {
+        ArgumentPreparedStatementSetter setter = new ArgumentPreparedStatementSetter(parameters);
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                statement.setFetchSize(fetchSize);
+                setter.setValues(statement);
+            } catch (SQLException ex) {
+                JdbcUtils.closeStatement(statement);
+                throw ex;
+            }
+            return statement;
+        };
+    }
+}
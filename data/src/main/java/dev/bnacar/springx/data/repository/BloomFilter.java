@@ -0,0 +1,164 @@
+package dev.bnacar.springx.data.repository;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter.
+ * Bits are packed sixty-four to a {@code long} and set with compare-and-set, so elements can be
+ * added concurrently with lookups. Elements cannot be removed; a filter is rebuilt instead.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * Constructs a new BloomFilter sized for the specified number of elements.
+     *
+     * @param expectedInsertions the number of elements the filter is expected to hold
+     * @param falsePositiveProbability the desired false positive probability (between 0 and 1, exclusive)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+        }
+
+        long bits = optimalBitCount(expectedInsertions, falsePositiveProbability);
+        this.words = new AtomicLongArray(Math.toIntExact((bits + Long.SIZE - 1) / Long.SIZE));
+        this.bitCount = (long) words.length() * Long.SIZE;
+        this.hashFunctions = optimalHashFunctions(expectedInsertions, bitCount);
+    }
+
+    /**
+     * Adds an element to the filter.
+     *
+     * @param element the element to add
+     */
+    public void add(Object element) {
+        long hash1 = mix(hash(element));
+        long hash2 = mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            set(Math.floorMod(hash1 + i * hash2, bitCount));
+        }
+    }
+
+    /**
+     * Checks whether the filter might contain an element.
+     *
+     * @param element the element to check
+     * @return false if the element is definitely absent, true if it might be present
+     */
+    public boolean mightContain(Object element) {
+        long hash1 = mix(hash(element));
+        long hash2 = mix(hash1 ^ 0x9e3779b97f4a7c15L) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            if (!isSet(Math.floorMod(hash1 + i * hash2, bitCount))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of bits in the filter.
+     *
+     * @return the number of bits
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Gets the number of hash functions applied per element.
+     *
+     * @return the number of hash functions
+     */
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    /**
+     * Reads the bit at the specified index.
+     *
+     * @param index the bit index
+     * @return whether the bit is set
+     */
+    private boolean isSet(long index) {
+        return (words.get((int) (index / Long.SIZE)) & (1L << (index % Long.SIZE))) != 0;
+    }
+
+    /**
+     * Sets the bit at the specified index.
+     *
+     * @param index the bit index
+     */
+    private void set(long index) {
+        int word = (int) (index / Long.SIZE);
+        long mask = 1L << (index % Long.SIZE);
+        while (true) {
+            long current = words.get(word);
+            if ((current & mask) != 0 || words.compareAndSet(word, current, current | mask)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Computes a 64-bit hash for an element.
+     * Integral numbers hash by value so that ids of different boxed types compare equal.
+     *
+     * @param element the element
+     * @return the hash
+     */
+    private static long hash(Object element) {
+        if (element instanceof Long || element instanceof Integer
+                || element instanceof Short || element instanceof Byte) {
+            return ((Number) element).longValue();
+        }
+        if (element instanceof UUID) {
+            UUID uuid = (UUID) element;
+            return uuid.getMostSignificantBits() * 31 + uuid.getLeastSignificantBits();
+        }
+        return element.hashCode();
+    }
+
+    /**
+     * Applies the MurmurHash3 64-bit finalizer to spread the bits of a hash.
+     *
+     * @param value the value to mix
+     * @return the mixed value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 33)) * 0xff51afd7ed558ccdL;
+        value = (value ^ (value >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+
+    /**
+     * Computes the optimal number of bits for the expected insertions and false positive probability.
+     *
+     * @param expectedInsertions the expected insertions
+     * @param falsePositiveProbability the false positive probability
+     * @return the number of bits
+     */
+    private static long optimalBitCount(long expectedInsertions, double falsePositiveProbability) {
+        return Math.max(Long.SIZE,
+                (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))));
+    }
+
+    /**
+     * Computes the optimal number of hash functions for the expected insertions and bit count.
+     *
+     * @param expectedInsertions the expected insertions
+     * @param bitCount the number of bits
+     * @return the number of hash functions
+     */
+    private static int optimalHashFunctions(long expectedInsertions, long bitCount) {
+        return Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+}
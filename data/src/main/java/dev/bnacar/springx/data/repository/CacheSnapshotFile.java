@@ -0,0 +1,315 @@
+package dev.bnacar.springx.data.repository;
+
+import org.springframework.core.ConfigurableObjectInputStream;
+import org.springframework.util.ClassUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Binary file format for repository cache snapshots.
+ * <p>
+ * A snapshot starts with a magic number and a format version, followed by each cache as its
+ * name and entry count, and each entry as its key, absolute expiration time in epoch
+ * milliseconds and value. Values are stored as a kind byte (null, empty {@link Optional},
+ * present {@link Optional} or plain value) followed by the length-prefixed Java serialized form.
+ * Files are written through a {@link FileChannel} to a temporary file that replaces the
+ * snapshot atomically, and read back into a heap buffer in one call.
+ * <p>
+ * Snapshots are deserialized with Java serialization and must only be read from a
+ * location the application itself controls.
+ */
+final class CacheSnapshotFile {
+
+    private static final int MAGIC = 0x53584353;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte KIND_NULL = 0;
+    private static final byte KIND_EMPTY_OPTIONAL = 1;
+    private static final byte KIND_OPTIONAL = 2;
+    private static final byte KIND_VALUE = 3;
+
+    /**
+     * Prevents instantiation.
+     */
+    private CacheSnapshotFile() {
+    }
+
+    /**
+     * Writes a snapshot, replacing any existing snapshot file.
+     *
+     * @param file the snapshot file
+     * @param caches the entries to write, keyed by cache name
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path file, Map<String, List<Entry>> caches) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(caches.size());
+            for (Map.Entry<String, List<Entry>> cache : caches.entrySet()) {
+                writeBytes(channel, buffer, cache.getKey().getBytes(StandardCharsets.UTF_8));
+                ensureCapacity(channel, buffer, Integer.BYTES);
+                buffer.putInt(cache.getValue().size());
+                for (Entry entry : cache.getValue()) {
+                    writeBytes(channel, buffer, entry.key.getBytes(StandardCharsets.UTF_8));
+                    ensureCapacity(channel, buffer, Long.BYTES + 1);
+                    buffer.putLong(entry.expirationTime).put(entry.kind);
+                    writeBytes(channel, buffer, entry.serializedValue);
+                }
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a snapshot.
+     *
+     * @param file the snapshot file
+     * @return the entries keyed by cache name, with values still in serialized form
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    static Map<String, List<Entry>> read(Path file) throws IOException {
+        // Read into the heap rather than mapping the file, as a mapping stays open until the buffer
+        // is garbage collected and keeps the file from being replaced by the next write on Windows
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a cache snapshot: " + file);
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cache snapshot version " + version + ": " + file);
+            }
+
+            int cacheCount = buffer.getInt();
+            Map<String, List<Entry>> caches = new LinkedHashMap<>();
+            for (int i = 0; i < cacheCount; i++) {
+                String cacheName = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                int entryCount = buffer.getInt();
+                List<Entry> entries = new ArrayList<>(Math.min(entryCount, BUFFER_SIZE));
+                for (int j = 0; j < entryCount; j++) {
+                    String key = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                    long expirationTime = buffer.getLong();
+                    byte kind = buffer.get();
+                    entries.add(new Entry(key, expirationTime, kind, readBytes(buffer)));
+                }
+                caches.put(cacheName, entries);
+            }
+            return caches;
+        } catch (RuntimeException e) {
+            throw new IOException("Corrupt cache snapshot: " + file, e);
+        }
+    }
+
+    /**
+     * Writes a length-prefixed byte array.
+     *
+     * @param channel the channel
+     * @param buffer the write buffer
+     * @param bytes the bytes
+     * @throws IOException if writing fails
+     */
+    private static void writeBytes(FileChannel channel, ByteBuffer buffer, byte[] bytes) throws IOException {
+        ensureCapacity(channel, buffer, Integer.BYTES);
+        buffer.putInt(bytes.length);
+        if (bytes.length > buffer.capacity()) {
+            // Large values bypass the buffer
+            flush(channel, buffer);
+            ByteBuffer value = ByteBuffer.wrap(bytes);
+            while (value.hasRemaining()) {
+                channel.write(value);
+            }
+            return;
+        }
+        ensureCapacity(channel, buffer, bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Flushes the buffer if it cannot hold the requested number of bytes.
+     *
+     * @param channel the channel
+     * @param buffer the write buffer
+     * @param bytes the number of bytes about to be written
+     * @throws IOException if writing fails
+     */
+    private static void ensureCapacity(FileChannel channel, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(channel, buffer);
+        }
+    }
+
+    /**
+     * Writes the buffered bytes to the channel.
+     *
+     * @param channel the channel
+     * @param buffer the write buffer
+     * @throws IOException if writing fails
+     */
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Reads a length-prefixed byte array.
+     *
+     * @param buffer the read buffer
+     * @return the bytes
+     * @throws IllegalStateException if the length prefix is negative or exceeds the remaining bytes
+     */
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Length " + length + " exceeds the remaining " + buffer.remaining() + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * A cache entry in a snapshot, holding its value in serialized form.
+     */
+    static final class Entry {
+        private final String key;
+        private final long expirationTime;
+        private final byte kind;
+        private final byte[] serializedValue;
+
+        /**
+         * Constructs a new Entry.
+         *
+         * @param key the cache key
+         * @param expirationTime the expiration time in epoch milliseconds
+         * @param kind the value kind
+         * @param serializedValue the serialized value
+         */
+        private Entry(String key, long expirationTime, byte kind, byte[] serializedValue) {
+            this.key = key;
+            this.expirationTime = expirationTime;
+            this.kind = kind;
+            this.serializedValue = serializedValue;
+        }
+
+        /**
+         * Creates an entry by serializing a cached value.
+         *
+         * @param key the cache key
+         * @param expirationTime the expiration time in epoch milliseconds
+         * @param value the cached value
+         * @return the entry
+         * @throws IOException if the value cannot be serialized
+         */
+        static Entry of(String key, long expirationTime, Object value) throws IOException {
+            if (value == null) {
+                return new Entry(key, expirationTime, KIND_NULL, new byte[0]);
+            }
+            if (value instanceof Optional) {
+                Optional<?> optional = (Optional<?>) value;
+                return optional.isPresent()
+                        ? new Entry(key, expirationTime, KIND_OPTIONAL, serialize(optional.get()))
+                        : new Entry(key, expirationTime, KIND_EMPTY_OPTIONAL, new byte[0]);
+            }
+            return new Entry(key, expirationTime, KIND_VALUE, serialize(value));
+        }
+
+        /**
+         * Gets the cache key.
+         *
+         * @return the cache key
+         */
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * Gets the expiration time.
+         *
+         * @return the expiration time in epoch milliseconds
+         */
+        long getExpirationTime() {
+            return expirationTime;
+        }
+
+        /**
+         * Deserializes the cached value.
+         *
+         * @return the cached value
+         * @throws IOException if the value cannot be deserialized
+         * @throws ClassNotFoundException if the value's class is no longer available
+         */
+        Object getValue() throws IOException, ClassNotFoundException {
+            switch (kind) {
+                case KIND_NULL:
+                    return null;
+                case KIND_EMPTY_OPTIONAL:
+                    return Optional.empty();
+                case KIND_OPTIONAL:
+                    return Optional.of(deserialize(serializedValue));
+                case KIND_VALUE:
+                    return deserialize(serializedValue);
+                default:
+                    throw new IOException("Unknown value kind " + kind);
+            }
+        }
+
+        /**
+         * Serializes a value with Java serialization.
+         *
+         * @param value the value
+         * @return the serialized value
+         * @throws IOException if the value cannot be serialized
+         */
+        private static byte[] serialize(Object value) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+                output.writeObject(value);
+            }
+            return bytes.toByteArray();
+        }
+
+        /**
+         * Deserializes a value with Java serialization using the application class loader.
+         *
+         * @param bytes the serialized value
+         * @return the value
+         * @throws IOException if the value cannot be deserialized
+         * @throws ClassNotFoundException if the value's class is no longer available
+         */
+        private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+            try (ObjectInputStream input = new ConfigurableObjectInputStream(
+                    new ByteArrayInputStream(bytes), ClassUtils.getDefaultClassLoader())) {
+                return input.readObject();
+            }
+        }
+    }
+}
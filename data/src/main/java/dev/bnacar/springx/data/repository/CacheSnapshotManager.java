@@ -0,0 +1,64 @@
+package dev.bnacar.springx.data.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Restores repository caches from a snapshot file at startup and writes them back on shutdown.
+ * Restoring happens when the bean is initialized, before any repository is used, so that
+ * cached reference data is served right away instead of being reloaded from the database.
+ * A missing or unreadable snapshot is logged and ignored.
+ */
+public class CacheSnapshotManager implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotManager.class);
+
+    private final CacheableRepositoryAspect cacheAspect;
+    private final Path file;
+
+    /**
+     * Constructs a new CacheSnapshotManager.
+     *
+     * @param cacheAspect the repository cache aspect
+     * @param file the snapshot file
+     */
+    public CacheSnapshotManager(CacheableRepositoryAspect cacheAspect, Path file) {
+        this.cacheAspect = cacheAspect;
+        this.file = file;
+    }
+
+    /**
+     * Restores the caches from the snapshot file, if it exists.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (!Files.exists(file)) {
+            logger.debug("No cache snapshot found at {}", file);
+            return;
+        }
+
+        try {
+            cacheAspect.readSnapshot(file);
+        } catch (IOException e) {
+            logger.warn("Failed to read cache snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Writes the caches to the snapshot file.
+     */
+    @Override
+    public void destroy() {
+        try {
+            cacheAspect.writeSnapshot(file);
+        } catch (IOException e) {
+            logger.warn("Failed to write cache snapshot {}", file, e);
+        }
+    }
+}
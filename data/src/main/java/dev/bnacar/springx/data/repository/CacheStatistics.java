@@ -0,0 +1,160 @@
+package dev.bnacar.springx.data.repository;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics recorder for a single repository cache.
+ * All counters are striped {@link LongAdder}s, so recording is cheap under contention
+ * and reads are point-in-time sums.
+ */
+public class CacheStatistics {
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+    private final LongAdder[] evictions = new LongAdder[EvictionCause.values().length];
+
+    /**
+     * Constructs a new CacheStatistics with all counters at zero.
+     */
+    public CacheStatistics() {
+        for (int i = 0; i < evictions.length; i++) {
+            evictions[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records a cache hit.
+     */
+    public void recordHit() {
+        hits.increment();
+    }
+
+    /**
+     * Records a cache miss.
+     */
+    public void recordMiss() {
+        misses.increment();
+    }
+
+    /**
+     * Records a successful load.
+     *
+     * @param loadTimeNanos the time spent loading in nanoseconds
+     */
+    public void recordLoadSuccess(long loadTimeNanos) {
+        loads.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    /**
+     * Records a failed load.
+     *
+     * @param loadTimeNanos the time spent loading in nanoseconds
+     */
+    public void recordLoadFailure(long loadTimeNanos) {
+        loadFailures.increment();
+        totalLoadTimeNanos.add(loadTimeNanos);
+    }
+
+    /**
+     * Records evicted entries.
+     *
+     * @param cause the eviction cause
+     * @param count the number of evicted entries
+     */
+    public void recordEvictions(EvictionCause cause, long count) {
+        evictions[cause.ordinal()].add(count);
+    }
+
+    /**
+     * Gets the number of cache hits.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of cache misses.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the ratio of hits to requests, or 1.0 if there were no requests.
+     *
+     * @return the hit ratio
+     */
+    public double getHitRatio() {
+        long hitCount = getHitCount();
+        long requestCount = hitCount + getMissCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Gets the number of successful loads.
+     *
+     * @return the load count
+     */
+    public long getLoadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * Gets the number of failed loads.
+     *
+     * @return the load failure count
+     */
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    /**
+     * Gets the total time spent loading, successful or not, in nanoseconds.
+     *
+     * @return the total load time in nanoseconds
+     */
+    public long getTotalLoadTimeNanos() {
+        return totalLoadTimeNanos.sum();
+    }
+
+    /**
+     * Gets the average time spent per load in nanoseconds.
+     *
+     * @return the average load time in nanoseconds
+     */
+    public double getAverageLoadPenaltyNanos() {
+        long loadCount = getLoadCount() + getLoadFailureCount();
+        return loadCount == 0 ? 0.0 : (double) getTotalLoadTimeNanos() / loadCount;
+    }
+
+    /**
+     * Gets the number of evictions for a cause.
+     *
+     * @param cause the eviction cause
+     * @return the eviction count
+     */
+    public long getEvictionCount(EvictionCause cause) {
+        return evictions[cause.ordinal()].sum();
+    }
+
+    /**
+     * Gets the number of evictions for all causes.
+     *
+     * @return the eviction count
+     */
+    public long getEvictionCount() {
+        long total = 0;
+        for (LongAdder eviction : evictions) {
+            total += eviction.sum();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,290 @@
+package dev.bnacar.springx.data.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads repository caches in parallel when the application is ready.
+ * Warm-up tasks come from {@link WarmUp}-annotated repository methods and from a
+ * declarative list of ids per repository bean, loaded with {@code findById}.
+ * Tasks run on a bounded executor within a time budget; tasks still running when the
+ * budget is spent are cancelled. Warm-up runs on the thread that publishes the
+ * {@link ApplicationReadyEvent}, so Spring Boot only reports the application as
+ * accepting traffic once it has finished.
+ */
+public class CacheWarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmer.class);
+
+    /**
+     * Warm-up states.
+     */
+    public enum State {
+        /**
+         * Warm-up has not started yet.
+         */
+        PENDING,
+
+        /**
+         * Warm-up is running.
+         */
+        WARMING,
+
+        /**
+         * All warm-up tasks finished.
+         */
+        COMPLETED,
+
+        /**
+         * The time budget was spent before all warm-up tasks finished.
+         */
+        TIMED_OUT
+    }
+
+    private final RepositoryEntityResolver entityResolver;
+    private final Map<String, List<String>> ids;
+    private final int parallelism;
+    private final long timeoutSeconds;
+
+    private final AtomicInteger completedTasks = new AtomicInteger();
+    private final AtomicInteger failedTasks = new AtomicInteger();
+    private volatile int totalTasks;
+    private volatile State state = State.PENDING;
+
+    /**
+     * Constructs a new CacheWarmer.
+     *
+     * @param entityResolver the repository entity resolver
+     * @param ids the ids to load, keyed by repository bean name
+     * @param parallelism the maximum number of concurrent warm-up tasks
+     * @param timeoutSeconds the time budget for the whole warm-up in seconds
+     */
+    public CacheWarmer(RepositoryEntityResolver entityResolver, Map<String, List<String>> ids,
+                       int parallelism, long timeoutSeconds) {
+        Assert.isTrue(parallelism > 0, "Parallelism must be positive");
+        this.entityResolver = entityResolver;
+        this.ids = ids;
+        this.parallelism = parallelism;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Warms up the repository caches once the application is ready.
+     *
+     * @param event the application ready event
+     * @throws InterruptedException if interrupted while waiting for the warm-up tasks
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) throws InterruptedException {
+        warmUp(event.getApplicationContext());
+    }
+
+    /**
+     * Runs all warm-up tasks found in an application context and waits for them within the time budget.
+     *
+     * @param applicationContext the application context
+     * @throws InterruptedException if interrupted while waiting for the warm-up tasks
+     */
+    public void warmUp(ApplicationContext applicationContext) throws InterruptedException {
+        List<Callable<Void>> tasks = createTasks(applicationContext);
+        totalTasks = tasks.size();
+        if (tasks.isEmpty()) {
+            state = State.COMPLETED;
+            return;
+        }
+
+        state = State.WARMING;
+        logger.info("Warming up repository caches with {} tasks", tasks.size());
+        long start = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()), new WarmUpThreadFactory());
+        List<Future<Void>> futures;
+        try {
+            futures = executor.invokeAll(tasks, timeoutSeconds, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Tasks still running when the budget was spent are cancelled by invokeAll
+        state = futures.stream().anyMatch(Future::isCancelled) ? State.TIMED_OUT : State.COMPLETED;
+        logger.info("Repository cache warm-up {} in {} ms: {} of {} tasks completed, {} failed",
+                state == State.COMPLETED ? "completed" : "timed out", System.currentTimeMillis() - start,
+                completedTasks.get(), tasks.size(), failedTasks.get());
+    }
+
+    /**
+     * Gets the warm-up state.
+     *
+     * @return the state
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the total number of warm-up tasks.
+     *
+     * @return the total number of tasks
+     */
+    public int getTotalTasks() {
+        return totalTasks;
+    }
+
+    /**
+     * Gets the number of warm-up tasks that completed successfully.
+     *
+     * @return the number of completed tasks
+     */
+    public int getCompletedTasks() {
+        return completedTasks.get();
+    }
+
+    /**
+     * Gets the number of warm-up tasks that failed.
+     *
+     * @return the number of failed tasks
+     */
+    public int getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    /**
+     * Creates the warm-up tasks for all repositories in an application context.
+     *
+     * @param applicationContext the application context
+     * @return the tasks
+     */
+    private List<Callable<Void>> createTasks(ApplicationContext applicationContext) {
+        Map<String, Object> repositories = new LinkedHashMap<>(applicationContext.getBeansOfType(CachingRepository.class));
+        repositories.putAll(applicationContext.getBeansWithAnnotation(Repository.class));
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Map.Entry<String, Object> repository : repositories.entrySet()) {
+            Object bean = repository.getValue();
+            for (Method method : findWarmUpMethods(bean)) {
+                String description = repository.getKey() + "#" + method.getName();
+                tasks.add(task(description, () -> ReflectionUtils.invokeMethod(method, bean)));
+            }
+        }
+
+        ConversionService conversionService = DefaultConversionService.getSharedInstance();
+        for (Map.Entry<String, List<String>> entry : ids.entrySet()) {
+            Object bean = repositories.get(entry.getKey());
+            if (!(bean instanceof CrudRepository)) {
+                logger.warn("Skipping warm-up ids for {}: not a repository bean", entry.getKey());
+                continue;
+            }
+
+            @SuppressWarnings("unchecked")
+            CrudRepository<Object, Object> repository = (CrudRepository<Object, Object>) bean;
+            Class<?> idType = resolveIdType(bean);
+            for (String id : entry.getValue()) {
+                String description = entry.getKey() + "#findById(" + id + ")";
+                tasks.add(task(description, () -> repository.findById(
+                        idType != null ? conversionService.convert(id, idType) : id)));
+            }
+        }
+        return tasks;
+    }
+
+    /**
+     * Finds the no-argument methods annotated with {@link WarmUp} on a repository bean.
+     * Annotations are looked up on the proxy interfaces and the target class, and each method
+     * is resolved to the method invocable on the bean itself. A method declared on both an
+     * interface and the target class is returned once.
+     *
+     * @param bean the repository bean, usually a proxy
+     * @return the warm-up methods, invocable on the bean
+     */
+    private List<Method> findWarmUpMethods(Object bean) {
+        List<Class<?>> types = new ArrayList<>(ClassUtils.getAllInterfacesForClassAsSet(bean.getClass()));
+        types.add(AopUtils.getTargetClass(bean));
+
+        // Map of method name to invocable method; warm-up methods take no arguments
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Class<?> type : types) {
+            for (Method method : type.getMethods()) {
+                if (!method.isAnnotationPresent(WarmUp.class) || method.getParameterCount() != 0
+                        || methods.containsKey(method.getName())) {
+                    continue;
+                }
+                try {
+                    methods.put(method.getName(), AopUtils.selectInvocableMethod(method, bean.getClass()));
+                } catch (IllegalStateException e) {
+                    logger.warn("Skipping warm-up method {}: not invocable on the repository proxy", method);
+                }
+            }
+        }
+        return new ArrayList<>(methods.values());
+    }
+
+    /**
+     * Resolves the id type of a caching repository.
+     *
+     * @param repository the repository
+     * @return the id type, or null if it cannot be resolved
+     */
+    private Class<?> resolveIdType(Object repository) {
+        Class<?> domainType = entityResolver.getDomainType(repository);
+        return domainType != null ? entityResolver.getEntityInformation(domainType).getIdType() : null;
+    }
+
+    /**
+     * Wraps a warm-up action in a task that records its outcome.
+     *
+     * @param description the task description for logging
+     * @param action the action
+     * @return the task
+     */
+    private Callable<Void> task(String description, Runnable action) {
+        return () -> {
+            try {
+                action.run();
+                completedTasks.incrementAndGet();
+                logger.debug("Warmed up {}", description);
+            } catch (RuntimeException e) {
+                failedTasks.incrementAndGet();
+                logger.warn("Failed to warm up {}", description, e);
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Thread factory for named daemon warm-up threads.
+     */
+    private static class WarmUpThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "springx-warm-up-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
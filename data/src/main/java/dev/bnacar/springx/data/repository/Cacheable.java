@@ -32,4 +32,19 @@ public @interface Cacheable {
      * @return true if null results should be cached
      */
     boolean cacheNull() default true;
+
+    /**
+     * Maximum total weight of the cache, as computed by the {@link #weigher()}.
+     * When a new entry pushes the cache over budget, the oldest entries are evicted.
+     * A value of 0 falls back to the configured default, which is unbounded unless set.
+     * @return the maximum total weight
+     */
+    long maxWeight() default 0;
+
+    /**
+     * Weigher used to compute entry weights when the cache has a weight budget.
+     * The default estimates the retained heap size of each entry in bytes.
+     * @return the weigher class
+     */
+    Class<? extends Weigher> weigher() default EstimatingWeigher.class;
 }
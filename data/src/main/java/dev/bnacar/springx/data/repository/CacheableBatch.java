@@ -0,0 +1,30 @@
+package dev.bnacar.springx.data.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a multi-id lookup method for caching through the cache of its single-id counterpart.
+ * The annotated method must take a single {@link Iterable} of ids. Ids found in the cache of the
+ * {@link #singleMethod()} are served from it, the remaining ids are loaded by invoking the annotated
+ * method with chunks of at most {@link #chunkSize()} ids, and every loaded entity is cached under its id.
+ * Ids that were not found are cached as absent, exactly as the single-id method would cache them.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheableBatch {
+
+    /**
+     * Name of the {@link Cacheable} single-id method on the same repository whose cache is shared.
+     * @return the single-id method name
+     */
+    String singleMethod() default "findById";
+
+    /**
+     * Maximum number of ids loaded per query.
+     * @return the chunk size
+     */
+    int chunkSize() default 1000;
+}
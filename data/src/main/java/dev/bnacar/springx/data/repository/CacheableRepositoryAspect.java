@@ -6,20 +6,48 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.time.temporal.TemporalAccessor;
+import java.util.AbstractMap;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Aspect that handles the {@link Cacheable} annotation.
- * Caches results of repository methods annotated with {@link Cacheable}.
+ * Caches results of repository methods annotated with {@link Cacheable}
+ * and records {@link CacheStatistics} for every cache. Caches with a weight budget
+ * evict their oldest entries to stay within it. Multi-id lookups annotated with
+ * {@link CacheableBatch} share the cache of their single-id counterpart. Cache contents
+ * can be written to a snapshot file and restored on the next start.
  */
 @Aspect
 @Component
@@ -34,6 +62,24 @@ public class CacheableRepositoryAspect {
     // Executor service for cache eviction
     private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
+    // Callbacks notified with the name of every newly created cache
+    private final List<Consumer<String>> cacheCreationListeners = new CopyOnWriteArrayList<>();
+
+    // Map of weigher class to shared weigher instance
+    private final Map<Class<? extends Weigher>, Weigher> weighers = new ConcurrentHashMap<>();
+
+    // Weight budget for caches that do not declare their own, 0 for unbounded
+    private volatile long defaultMaxWeight = 0;
+
+    // Map of cache name to snapshot entries waiting for the cache to be created
+    private final Map<String, List<CacheSnapshotFile.Entry>> restoredEntries = new ConcurrentHashMap<>();
+
+    // Map of batch method to the single-id method whose cache it shares
+    private final Map<Method, Optional<Method>> singleMethods = new ConcurrentHashMap<>();
+
+    // Resolver for entity ids of batch results, may be null
+    private volatile RepositoryEntityResolver entityResolver;
+
     /**
      * Intercepts method calls annotated with {@link Cacheable} and applies caching.
      *
@@ -47,60 +93,385 @@ public class CacheableRepositoryAspect {
         Method method = methodSignature.getMethod();
         Cacheable annotation = method.getAnnotation(Cacheable.class);
 
-        String cacheName = getCacheName(annotation, method);
-        Cache cache = getOrCreateCache(cacheName, annotation.ttlSeconds());
+        String cacheName = getCacheName(annotation, method, resolveTargetType(joinPoint.getThis(), method));
+        Cache cache = getOrCreateCache(cacheName, annotation);
 
         // Generate cache key based on method parameters
         String cacheKey = generateCacheKey(method, joinPoint.getArgs());
 
         // Check if result is in cache
-        if (cache.containsKey(cacheKey)) {
-            CacheEntry entry = cache.get(cacheKey);
+        CacheEntry entry = cache.get(cacheKey);
+        if (entry != null) {
+            cache.statistics.recordHit();
             logger.debug("Cache hit for {}#{} with key {}",
                     method.getDeclaringClass().getSimpleName(), method.getName(), cacheKey);
             return entry.getValue();
         }
+        cache.statistics.recordMiss();
 
         // Execute method and cache result
-        Object result = joinPoint.proceed();
+        long loadStart = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            cache.statistics.recordLoadFailure(System.nanoTime() - loadStart);
+            throw e;
+        }
+        cache.statistics.recordLoadSuccess(System.nanoTime() - loadStart);
 
         // Only cache if result is not null or cacheNull is true
         if (result != null || annotation.cacheNull()) {
             logger.debug("Caching result for {}#{} with key {}",
                     method.getDeclaringClass().getSimpleName(), method.getName(), cacheKey);
-            cache.put(cacheKey, new CacheEntry(result));
+            cache.put(cacheKey, result, hasStableHashCode(joinPoint.getArgs()));
+        }
+
+        return result;
+    }
+
+    /**
+     * Intercepts multi-id lookups annotated with {@link CacheableBatch}, serving cached ids from the
+     * cache of the single-id method and loading only the missing ids in chunks.
+     * Falls back to the plain method call when the repository's entity type or the single-id
+     * method cannot be resolved.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @return the entities found, cached ones first
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("@annotation(dev.bnacar.springx.data.repository.CacheableBatch)")
+    public Object cacheableBatch(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Object[] args = joinPoint.getArgs();
+        RepositoryEntityResolver resolver = this.entityResolver;
+        Class<?> domainType = resolver != null && joinPoint.getThis() != null
+                ? resolver.getDomainType(joinPoint.getThis()) : null;
+        Method singleMethod = resolveSingleMethod(method);
+        if (domainType == null || singleMethod == null || args.length != 1 || !(args[0] instanceof Iterable)) {
+            return joinPoint.proceed();
+        }
+
+        Cacheable singleAnnotation = singleMethod.getAnnotation(Cacheable.class);
+        String cacheName = getCacheName(singleAnnotation, singleMethod, resolveTargetType(joinPoint.getThis(), singleMethod));
+        Cache cache = getOrCreateCache(cacheName, singleAnnotation);
+        boolean optionalResult = Optional.class.isAssignableFrom(singleMethod.getReturnType());
+
+        // Serve hits from the cache and collect the distinct missing ids
+        List<Object> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        Map<String, Object> missing = new LinkedHashMap<>();
+        for (Object id : (Iterable<?>) args[0]) {
+            String cacheKey = generateCacheKey(singleMethod, new Object[]{id});
+            if (!seen.add(cacheKey)) {
+                continue;
+            }
+
+            CacheEntry entry = cache.get(cacheKey);
+            if (entry == null) {
+                cache.statistics.recordMiss();
+                missing.put(cacheKey, id);
+                continue;
+            }
+            cache.statistics.recordHit();
+            Object value = entry.getValue();
+            if (value instanceof Optional) {
+                ((Optional<?>) value).ifPresent(result::add);
+            } else if (value != null) {
+                result.add(value);
+            }
+        }
+        logger.debug("Batch lookup on {} with {} hits and {} misses", cacheName, seen.size() - missing.size(), missing.size());
+
+        // Load the missing ids in chunks and cache every entity under its id
+        List<Map.Entry<String, Object>> pending = new ArrayList<>(missing.entrySet());
+        int chunkSize = Math.max(1, method.getAnnotation(CacheableBatch.class).chunkSize());
+        for (int from = 0; from < pending.size(); from += chunkSize) {
+            List<Map.Entry<String, Object>> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+            List<Object> ids = new ArrayList<>(chunk.size());
+            for (Map.Entry<String, Object> id : chunk) {
+                ids.add(id.getValue());
+            }
+
+            long loadStart = System.nanoTime();
+            Object loaded;
+            try {
+                loaded = joinPoint.proceed(new Object[]{ids});
+            } catch (Throwable e) {
+                cache.statistics.recordLoadFailure(System.nanoTime() - loadStart);
+                throw e;
+            }
+            cache.statistics.recordLoadSuccess(System.nanoTime() - loadStart);
+
+            Set<String> found = new HashSet<>();
+            if (loaded != null) {
+                for (Object entity : (Iterable<?>) loaded) {
+                    Object id = resolver.getId(domainType, entity);
+                    String cacheKey = generateCacheKey(singleMethod, new Object[]{id});
+                    cache.put(cacheKey, optionalResult ? Optional.of(entity) : entity, hasStableHashCode(new Object[]{id}));
+                    found.add(cacheKey);
+                    result.add(entity);
+                }
+            }
+
+            // Cache absent ids the way the single-id method would
+            for (Map.Entry<String, Object> id : chunk) {
+                if (found.contains(id.getKey())) {
+                    continue;
+                }
+                if (optionalResult) {
+                    cache.put(id.getKey(), Optional.empty(), hasStableHashCode(new Object[]{id.getValue()}));
+                } else if (singleAnnotation.cacheNull()) {
+                    cache.put(id.getKey(), null, hasStableHashCode(new Object[]{id.getValue()}));
+                }
+            }
         }
 
         return result;
     }
 
+    /**
+     * Gets the names of all caches created so far.
+     *
+     * @return the cache names
+     */
+    public Set<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * Gets the statistics of a cache.
+     *
+     * @param cacheName the cache name
+     * @return the cache statistics, or null if no such cache exists
+     */
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        Cache cache = caches.get(cacheName);
+        return cache != null ? cache.statistics : null;
+    }
+
+    /**
+     * Gets the number of entries in a cache, including expired entries not yet evicted.
+     *
+     * @param cacheName the cache name
+     * @return the number of entries, or 0 if no such cache exists
+     */
+    public int getCacheSize(String cacheName) {
+        Cache cache = caches.get(cacheName);
+        return cache != null ? cache.entries.size() : 0;
+    }
+
+    /**
+     * Gets the total weight of the entries in a cache.
+     * Entries are only weighed in caches with a weight budget; other caches report 0.
+     *
+     * @param cacheName the cache name
+     * @return the total weight, or 0 if no such cache exists
+     */
+    public long getCacheWeight(String cacheName) {
+        Cache cache = caches.get(cacheName);
+        return cache != null ? cache.totalWeight.get() : 0;
+    }
+
+    /**
+     * Sets the weight budget applied to caches whose {@link Cacheable} annotation does not declare one.
+     * Only affects caches created after the call.
+     *
+     * @param defaultMaxWeight the default maximum weight, 0 for unbounded
+     */
+    public void setDefaultMaxWeight(long defaultMaxWeight) {
+        this.defaultMaxWeight = defaultMaxWeight;
+    }
+
+    /**
+     * Sets the resolver used to read the ids of entities loaded by {@link CacheableBatch} methods.
+     * Without a resolver, batch methods are not cached.
+     *
+     * @param entityResolver the repository entity resolver
+     */
+    public void setEntityResolver(RepositoryEntityResolver entityResolver) {
+        this.entityResolver = entityResolver;
+    }
+
+    /**
+     * Removes all entries from a cache.
+     *
+     * @param cacheName the cache name
+     * @return true if the cache exists
+     */
+    public boolean clearCache(String cacheName) {
+        Cache cache = caches.get(cacheName);
+        if (cache == null) {
+            return false;
+        }
+
+        cache.clear();
+        return true;
+    }
+
+    /**
+     * Writes the live entries of all caches to a snapshot file.
+     * Only entries whose values are serializable and whose keys are derived from arguments with
+     * value-based hash codes (strings, numbers, UUIDs, dates, and arrays or collections of those)
+     * are written, since other keys are not stable across restarts.
+     *
+     * @param file the snapshot file
+     * @return the number of entries written
+     * @throws IOException if the snapshot cannot be written
+     */
+    public int writeSnapshot(Path file) throws IOException {
+        Map<String, List<CacheSnapshotFile.Entry>> snapshot = new LinkedHashMap<>();
+        int written = 0;
+        for (Map.Entry<String, Cache> cache : caches.entrySet()) {
+            List<CacheSnapshotFile.Entry> entries = new ArrayList<>();
+            for (Map.Entry<String, CacheEntry> entry : cache.getValue().entries.entrySet()) {
+                CacheEntry cacheEntry = entry.getValue();
+                if (!cacheEntry.persistent || cacheEntry.isExpired()) {
+                    continue;
+                }
+                try {
+                    entries.add(CacheSnapshotFile.Entry.of(entry.getKey(), cacheEntry.expirationTime, cacheEntry.value));
+                } catch (IOException e) {
+                    logger.debug("Not writing key {} of cache {} to snapshot: {}", entry.getKey(), cache.getKey(), e.toString());
+                }
+            }
+            if (!entries.isEmpty()) {
+                snapshot.put(cache.getKey(), entries);
+                written += entries.size();
+            }
+        }
+
+        CacheSnapshotFile.write(file, snapshot);
+        logger.info("Wrote {} cache entries to snapshot {}", written, file);
+        return written;
+    }
+
+    /**
+     * Restores cache entries from a snapshot file.
+     * Entries keep their original expiration time and are dropped once expired. Entries of caches
+     * that do not exist yet are applied when the cache is created.
+     *
+     * @param file the snapshot file
+     * @return the number of entries read
+     * @throws IOException if the snapshot cannot be read
+     */
+    public int readSnapshot(Path file) throws IOException {
+        int read = 0;
+        for (Map.Entry<String, List<CacheSnapshotFile.Entry>> snapshot : CacheSnapshotFile.read(file).entrySet()) {
+            Cache cache = caches.get(snapshot.getKey());
+            if (cache != null) {
+                cache.restore(snapshot.getValue());
+            } else {
+                restoredEntries.put(snapshot.getKey(), snapshot.getValue());
+            }
+            read += snapshot.getValue().size();
+        }
+
+        logger.info("Read {} cache entries from snapshot {}", read, file);
+        return read;
+    }
+
+    /**
+     * Registers a callback that is notified with the name of every cache created after registration.
+     *
+     * @param listener the callback
+     */
+    public void addCacheCreationListener(Consumer<String> listener) {
+        cacheCreationListeners.add(listener);
+    }
+
     /**
      * Gets the cache name from the annotation or generates a default one.
      *
      * @param annotation the Cacheable annotation
      * @param method     the method being cached
+     * @param targetType the type the method was invoked on
      * @return the cache name
      */
-    private String getCacheName(Cacheable annotation, Method method) {
+    private String getCacheName(Cacheable annotation, Method method, Class<?> targetType) {
         if (annotation.cacheName() != null && !annotation.cacheName().isEmpty()) {
             return annotation.cacheName();
         }
 
-        return method.getDeclaringClass().getSimpleName() + "#" + method.getName();
+        return targetType.getSimpleName() + "#" + method.getName();
     }
 
     /**
-     * Gets or creates a cache with the specified name and TTL.
+     * Resolves the type a cached method was invoked on.
+     * Methods inherited from a shared repository interface such as {@link CachingRepository}
+     * resolve to the concrete repository interface, so each repository gets its own cache.
+     *
+     * @param proxy  the proxy the method was invoked on, may be null
+     * @param method the method being cached
+     * @return the target type
+     */
+    private Class<?> resolveTargetType(Object proxy, Method method) {
+        Class<?> declaringClass = method.getDeclaringClass();
+        if (proxy == null || !declaringClass.isInterface()) {
+            return declaringClass;
+        }
+
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(proxy.getClass())) {
+            if (candidate != declaringClass && declaringClass.isAssignableFrom(candidate)) {
+                return candidate;
+            }
+        }
+        return declaringClass;
+    }
+
+    /**
+     * Resolves the {@link Cacheable} single-id method whose cache a batch method shares.
+     *
+     * @param batchMethod the method annotated with {@link CacheableBatch}
+     * @return the single-id method, or null if the declaring type has none
+     */
+    private Method resolveSingleMethod(Method batchMethod) {
+        return singleMethods.computeIfAbsent(batchMethod, key -> {
+            String name = key.getAnnotation(CacheableBatch.class).singleMethod();
+            for (Method candidate : key.getDeclaringClass().getMethods()) {
+                if (candidate.getName().equals(name) && candidate.getParameterCount() == 1
+                        && candidate.isAnnotationPresent(Cacheable.class)) {
+                    return Optional.of(candidate);
+                }
+            }
+            logger.warn("No @Cacheable method {} found for batch method {}", name, key);
+            return Optional.empty();
+        }).orElse(null);
+    }
+
+    /**
+     * Gets or creates a cache with the specified name, configured from the annotation.
      *
      * @param cacheName  the cache name
-     * @param ttlSeconds the TTL in seconds
+     * @param annotation the Cacheable annotation
      * @return the cache
      */
-    private Cache getOrCreateCache(String cacheName, long ttlSeconds) {
-        return caches.computeIfAbsent(cacheName, name -> {
-            logger.debug("Creating cache: {}", name);
-            return new Cache(ttlSeconds);
-        });
+    private Cache getOrCreateCache(String cacheName, Cacheable annotation) {
+        Cache cache = caches.get(cacheName);
+        if (cache != null) {
+            return cache;
+        }
+
+        long maxWeight = annotation.maxWeight() > 0 ? annotation.maxWeight() : defaultMaxWeight;
+        Weigher weigher = maxWeight > 0
+                ? weighers.computeIfAbsent(annotation.weigher(), type -> BeanUtils.instantiateClass(type))
+                : null;
+        Cache created = new Cache(annotation.ttlSeconds(), maxWeight, weigher);
+        cache = caches.putIfAbsent(cacheName, created);
+        if (cache != null) {
+            created.cancelEviction();
+            return cache;
+        }
+
+        logger.debug("Creating cache: {}", cacheName);
+        List<CacheSnapshotFile.Entry> restored = restoredEntries.remove(cacheName);
+        if (restored != null) {
+            created.restore(restored);
+        }
+        for (Consumer<String> listener : cacheCreationListeners) {
+            listener.accept(cacheName);
+        }
+        return created;
     }
 
     /**
@@ -115,89 +486,256 @@ public class CacheableRepositoryAspect {
     }
 
     /**
-     * Simple cache implementation.
+     * Checks whether cache keys generated from the arguments are the same in every JVM.
+     * Types with identity-based hash codes, such as enums and most entities, produce keys that
+     * cannot be restored from a snapshot.
+     *
+     * @param args the method arguments
+     * @return true if the key is stable across restarts
+     */
+    private static boolean hasStableHashCode(Object[] args) {
+        if (args == null) {
+            return true;
+        }
+        for (Object arg : args) {
+            if (!hasStableHashCode(arg)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an argument has a value-based hash code.
+     *
+     * @param arg the argument
+     * @return true if the hash code is the same in every JVM
+     */
+    private static boolean hasStableHashCode(Object arg) {
+        if (arg == null || arg instanceof String || arg instanceof Boolean || arg instanceof Character
+                || arg instanceof Long || arg instanceof Integer || arg instanceof Short || arg instanceof Byte
+                || arg instanceof Double || arg instanceof Float || arg instanceof BigInteger || arg instanceof BigDecimal
+                || arg instanceof UUID || (arg instanceof TemporalAccessor && arg.getClass().getName().startsWith("java.time."))) {
+            return true;
+        }
+        if (arg instanceof Object[]) {
+            return hasStableHashCode((Object[]) arg);
+        }
+        if (arg.getClass().isArray()) {
+            return arg.getClass().getComponentType().isPrimitive();
+        }
+        if (arg instanceof List || arg instanceof Set) {
+            for (Object element : (Collection<?>) arg) {
+                if (!hasStableHashCode(element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Simple cache implementation with an optional weight budget.
+     * When the total weight exceeds the budget, entries are evicted in insertion order.
      */
     private class Cache {
         private final Map<String, CacheEntry> entries = new ConcurrentHashMap<>();
+        private final CacheStatistics statistics = new CacheStatistics();
+        private final AtomicLong totalWeight = new AtomicLong();
         private final long ttlMillis;
+        private final long maxWeight;
+        private final Weigher weigher;
+        private final ScheduledFuture<?> evictionTask;
+
+        // Entries in insertion order, only maintained for caches with a weight budget
+        private final Queue<Map.Entry<String, CacheEntry>> insertionOrder = new ConcurrentLinkedQueue<>();
 
         /**
-         * Constructs a new Cache with the specified TTL.
+         * Constructs a new Cache with the specified TTL and weight budget.
          *
          * @param ttlSeconds the TTL in seconds
+         * @param maxWeight  the maximum total weight, 0 for unbounded
+         * @param weigher    the weigher, may be null if the cache is unbounded
          */
-        public Cache(long ttlSeconds) {
+        public Cache(long ttlSeconds, long maxWeight, Weigher weigher) {
             this.ttlMillis = ttlSeconds * 1000;
+            this.maxWeight = maxWeight;
+            this.weigher = weigher;
 
             // Schedule eviction of expired entries
-            scheduler.scheduleAtFixedRate(this::evictExpiredEntries,
+            this.evictionTask = scheduler.scheduleAtFixedRate(this::evictExpiredEntries,
                     ttlSeconds, ttlSeconds, TimeUnit.SECONDS);
         }
 
         /**
-         * Checks if the cache contains the specified key.
+         * Gets the live cache entry for the specified key, evicting it if it has expired.
          *
          * @param key the key
-         * @return true if the cache contains the key
+         * @return the cache entry, or null if there is no live entry
          */
-        public boolean containsKey(String key) {
+        public CacheEntry get(String key) {
             CacheEntry entry = entries.get(key);
             if (entry == null) {
-                return false;
+                return null;
             }
 
             if (entry.isExpired()) {
-                entries.remove(key);
-                return false;
+                remove(key, entry, EvictionCause.EXPIRED);
+                return null;
             }
 
-            return true;
+            return entry;
         }
 
         /**
-         * Gets the cache entry for the specified key.
+         * Puts a value for the specified key, evicting the oldest entries if the cache goes over budget.
+         * Values that alone exceed the budget are not cached.
          *
-         * @param key the key
-         * @return the cache entry
+         * @param key        the key
+         * @param value      the value
+         * @param persistent whether the entry may be written to a snapshot
          */
-        public CacheEntry get(String key) {
-            return entries.get(key);
+        public void put(String key, Object value, boolean persistent) {
+            put(key, value, System.currentTimeMillis() + ttlMillis, persistent);
         }
 
         /**
-         * Puts a cache entry for the specified key.
+         * Restores snapshot entries that have not expired yet.
+         * Expiration times are capped at the cache TTL in case it was shortened since the snapshot.
+         *
+         * @param snapshotEntries the snapshot entries
+         */
+        public void restore(List<CacheSnapshotFile.Entry> snapshotEntries) {
+            long now = System.currentTimeMillis();
+            for (CacheSnapshotFile.Entry snapshotEntry : snapshotEntries) {
+                if (snapshotEntry.getExpirationTime() <= now) {
+                    continue;
+                }
+                try {
+                    put(snapshotEntry.getKey(), snapshotEntry.getValue(),
+                            Math.min(snapshotEntry.getExpirationTime(), now + ttlMillis), true);
+                } catch (IOException | ClassNotFoundException e) {
+                    logger.debug("Not restoring key {} from snapshot: {}", snapshotEntry.getKey(), e.toString());
+                }
+            }
+        }
+
+        /**
+         * Puts a value with an explicit expiration time.
+         *
+         * @param key            the key
+         * @param value          the value
+         * @param expirationTime the expiration time in epoch milliseconds
+         * @param persistent     whether the entry may be written to a snapshot
+         */
+        private void put(String key, Object value, long expirationTime, boolean persistent) {
+            long weight = maxWeight > 0 ? weigher.weigh(key, value) : 0;
+            if (weight > maxWeight && maxWeight > 0) {
+                logger.debug("Not caching key {} with weight {} exceeding the cache budget of {}", key, weight, maxWeight);
+                return;
+            }
+
+            CacheEntry entry = new CacheEntry(value, expirationTime, weight, persistent);
+            CacheEntry previous = entries.put(key, entry);
+            totalWeight.addAndGet(previous != null ? weight - previous.weight : weight);
+
+            if (maxWeight > 0) {
+                insertionOrder.add(new AbstractMap.SimpleImmutableEntry<>(key, entry));
+                evictToBudget();
+            }
+        }
+
+        /**
+         * Removes all entries from the cache.
+         */
+        public void clear() {
+            long evicted = 0;
+            for (String key : entries.keySet()) {
+                CacheEntry entry = entries.remove(key);
+                if (entry != null) {
+                    totalWeight.addAndGet(-entry.weight);
+                    evicted++;
+                }
+            }
+            statistics.recordEvictions(EvictionCause.EXPLICIT, evicted);
+        }
+
+        /**
+         * Removes an entry if it is still mapped to the key.
          *
          * @param key   the key
-         * @param entry the cache entry
+         * @param entry the expected entry
+         * @param cause the eviction cause
+         * @return true if the entry was removed
+         */
+        private boolean remove(String key, CacheEntry entry, EvictionCause cause) {
+            if (!entries.remove(key, entry)) {
+                return false;
+            }
+
+            totalWeight.addAndGet(-entry.weight);
+            statistics.recordEvictions(cause, 1);
+            return true;
+        }
+
+        /**
+         * Evicts the oldest entries until the cache is within its weight budget.
          */
-        public void put(String key, CacheEntry entry) {
-            entries.put(key, entry);
+        private void evictToBudget() {
+            while (totalWeight.get() > maxWeight) {
+                Map.Entry<String, CacheEntry> oldest = insertionOrder.poll();
+                if (oldest == null) {
+                    return;
+                }
+                remove(oldest.getKey(), oldest.getValue(), EvictionCause.SIZE);
+            }
+        }
+
+        /**
+         * Cancels the scheduled eviction of expired entries.
+         */
+        private void cancelEviction() {
+            evictionTask.cancel(false);
         }
 
         /**
          * Evicts expired entries from the cache.
          */
         private void evictExpiredEntries() {
-            entries.entrySet().removeIf(entry -> entry.getValue().isExpired());
+            for (Map.Entry<String, CacheEntry> entry : entries.entrySet()) {
+                if (entry.getValue().isExpired()) {
+                    remove(entry.getKey(), entry.getValue(), EvictionCause.EXPIRED);
+                }
+            }
+
+            // Drop insertion order records of entries that were replaced or removed
+            insertionOrder.removeIf(node -> entries.get(node.getKey()) != node.getValue());
         }
     }
 
     /**
      * Cache entry with expiration.
      */
-    private class CacheEntry {
+    private static class CacheEntry {
         private final Object value;
         private final long expirationTime;
+        private final long weight;
+        private final boolean persistent;
 
         /**
          * Constructs a new CacheEntry with the specified value.
          *
-         * @param value the value
+         * @param value          the value
+         * @param expirationTime the expiration time in epoch milliseconds
+         * @param weight         the weight of the entry
+         * @param persistent     whether the entry may be written to a snapshot
          */
-        public CacheEntry(Object value) {
+        public CacheEntry(Object value, long expirationTime, long weight, boolean persistent) {
             this.value = value;
-            this.expirationTime = System.currentTimeMillis() +
-                    caches.values().iterator().next().ttlMillis;
+            this.expirationTime = expirationTime;
+            this.weight = weight;
+            this.persistent = persistent;
         }
 
         /**
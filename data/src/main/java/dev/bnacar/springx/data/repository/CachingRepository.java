@@ -19,6 +19,8 @@ public interface CachingRepository<T, ID extends Serializable> extends JpaReposi
 
     /**
      * Retrieves an entity by its id, with caching.
+     * When negative lookups are enabled, ids that definitely do not exist are answered
+     * without querying the database.
      *
      * @param id must not be {@literal null}.
      * @return the entity with the given id or {@literal Optional#empty()} if none found.
@@ -28,8 +30,21 @@ public interface CachingRepository<T, ID extends Serializable> extends JpaReposi
     @Cacheable(ttlSeconds = 600)
     Optional<T> findById(ID id);
 
+    /**
+     * Returns all instances of the type with the given ids, with caching.
+     * Ids are served from the {@link #findById} cache and only the missing ids are queried,
+     * after which every loaded entity is cached under its id.
+     *
+     * @param ids must not be {@literal null} nor contain any {@literal null} values.
+     * @return the entities found, in no particular order
+     */
+    @Override
+    @CacheableBatch
+    List<T> findAllById(Iterable<ID> ids);
+
     /**
      * Returns all instances of the type, with caching.
+     * The whole table is held in memory; use {@link StreamingRepository} to process large tables.
      *
      * @return all entities
      */
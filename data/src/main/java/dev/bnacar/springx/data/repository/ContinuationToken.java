@@ -0,0 +1,116 @@
+package dev.bnacar.springx.data.repository;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Position of a keyset page, encoded as an opaque URL-safe string.
+ * The token holds the ordering it was issued for and the sort keys and id of the last entity
+ * as strings, which are converted back to the attribute types when decoded. Tokens contain
+ * no serialized objects, so decoding a token received from a client is safe.
+ */
+final class ContinuationToken {
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '\u0000';
+    private static final ConversionService CONVERSION_SERVICE = DefaultConversionService.getSharedInstance();
+
+    private final String ordering;
+    private final String[] values;
+
+    /**
+     * Constructs a new ContinuationToken.
+     *
+     * @param ordering the ordering the token was issued for
+     * @param values the sort keys of the last entity, in sort order, ending with its id
+     */
+    ContinuationToken(String ordering, String... values) {
+        this.ordering = ordering;
+        this.values = values;
+    }
+
+    /**
+     * Encodes the token.
+     *
+     * @return the opaque token
+     */
+    String encode() {
+        StringBuilder raw = new StringBuilder(VERSION).append(SEPARATOR).append(ordering);
+        for (String value : values) {
+            raw.append(SEPARATOR).append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token and checks that it was issued for the given ordering.
+     *
+     * @param token the opaque token
+     * @param ordering the expected ordering
+     * @return the token
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different ordering
+     */
+    static ContinuationToken decode(String token, String ordering) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed continuation token", e);
+        }
+
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length < 3 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Malformed continuation token");
+        }
+        if (!parts[1].equals(ordering)) {
+            throw new IllegalArgumentException("Continuation token was issued for a different ordering");
+        }
+        return new ContinuationToken(parts[1], Arrays.copyOfRange(parts, 2, parts.length));
+    }
+
+    /**
+     * Gets the number of values in the token.
+     *
+     * @return the number of sort keys, including the id
+     */
+    int getValueCount() {
+        return values.length;
+    }
+
+    /**
+     * Gets a sort key of the last entity, converted to the attribute type.
+     *
+     * @param index the position of the sort key, the id being the last one
+     * @param type the attribute type
+     * @return the sort key
+     */
+    Object getValue(int index, Class<?> type) {
+        return convert(values[index], type);
+    }
+
+    /**
+     * Converts a token value to an attribute type.
+     * {@code java.time} types are parsed from their ISO representation.
+     *
+     * @param value the token value
+     * @param type the attribute type
+     * @return the converted value
+     * @throws IllegalArgumentException if the value cannot be converted
+     */
+    private static Object convert(String value, Class<?> type) {
+        try {
+            if (type.getName().startsWith("java.time.")) {
+                Method parse = type.getMethod("parse", CharSequence.class);
+                return parse.invoke(null, value);
+            }
+            return CONVERSION_SERVICE.convert(value, type);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Malformed continuation token", e);
+        }
+    }
+}
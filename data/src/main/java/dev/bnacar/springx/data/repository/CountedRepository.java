@@ -0,0 +1,21 @@
+package dev.bnacar.springx.data.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.io.Serializable;
+
+/**
+ * Caching repository whose {@link #count()} is answered from an in-memory counter.
+ * The counter is seeded with a {@code COUNT} query on first use, adjusted when entities are
+ * created or deleted through the repository, and periodically reconciled with the database.
+ * Deletes, and saves of entities with assigned ids, first look up by id which of their rows
+ * exist, so that the counter is adjusted by the rows actually removed or inserted.
+ * Counts therefore reflect committed changes made through repositories right away;
+ * rows written by other means are picked up at the next reconciliation.
+ *
+ * @param <T> the domain type the repository manages
+ * @param <ID> the type of the id of the entity the repository manages
+ */
+@NoRepositoryBean
+public interface CountedRepository<T, ID extends Serializable> extends CachingRepository<T, ID> {
+}
@@ -0,0 +1,49 @@
+package dev.bnacar.springx.data.repository;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Aspect that answers {@link CountedRepository#count()} from the {@link EntityCountRegistry}.
+ * Runs before the {@link CacheableRepositoryAspect}, so counted repositories never serve a
+ * cached, possibly stale count.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CountedRepositoryAspect {
+
+    private final EntityCountRegistry countRegistry;
+    private final RepositoryEntityResolver entityResolver;
+
+    /**
+     * Constructs a new CountedRepositoryAspect.
+     *
+     * @param countRegistry the entity count registry
+     * @param entityResolver the repository entity resolver
+     */
+    public CountedRepositoryAspect(EntityCountRegistry countRegistry, RepositoryEntityResolver entityResolver) {
+        this.countRegistry = countRegistry;
+        this.entityResolver = entityResolver;
+    }
+
+    /**
+     * Returns the in-memory count of the repository's entity type.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @param repository the repository
+     * @return the number of entities
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("execution(long count()) && this(repository)")
+    public Object count(ProceedingJoinPoint joinPoint, CountedRepository<?, ?> repository) throws Throwable {
+        Class<?> domainType = entityResolver.getDomainType(repository);
+        if (domainType == null) {
+            return joinPoint.proceed();
+        }
+
+        return countRegistry.count(domainType);
+    }
+}
@@ -0,0 +1,112 @@
+package dev.bnacar.springx.data.repository;
+
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Event published when entities are written through a {@link CachingRepository}.
+ * The event is published synchronously on the calling thread, directly after the
+ * repository call returns, so listeners can still register transaction callbacks.
+ */
+public class EntityChangeEvent extends ApplicationEvent {
+
+    /**
+     * Types of entity changes.
+     */
+    public enum ChangeType {
+        /**
+         * New entities were persisted.
+         */
+        CREATED,
+
+        /**
+         * Existing entities were updated.
+         */
+        UPDATED,
+
+        /**
+         * Entities with the given ids were deleted.
+         */
+        DELETED,
+
+        /**
+         * All entities of the domain type were deleted.
+         */
+        DELETED_ALL
+    }
+
+    private final Class<?> domainType;
+    private final ChangeType changeType;
+    private final List<Object> ids;
+    private final long affectedRows;
+
+    /**
+     * Constructs a new EntityChangeEvent whose number of affected rows is unknown.
+     *
+     * @param source the repository that performed the change
+     * @param domainType the domain type of the changed entities
+     * @param changeType the type of change
+     * @param ids the ids of the changed entities
+     */
+    public EntityChangeEvent(Object source, Class<?> domainType, ChangeType changeType, Collection<?> ids) {
+        this(source, domainType, changeType, ids, -1);
+    }
+
+    /**
+     * Constructs a new EntityChangeEvent.
+     *
+     * @param source the repository that performed the change
+     * @param domainType the domain type of the changed entities
+     * @param changeType the type of change
+     * @param ids the ids of the changed entities
+     * @param affectedRows the number of rows the change removes, or -1 if unknown
+     */
+    public EntityChangeEvent(Object source, Class<?> domainType, ChangeType changeType, Collection<?> ids,
+                             long affectedRows) {
+        super(source);
+        this.domainType = domainType;
+        this.changeType = changeType;
+        this.ids = List.copyOf(ids);
+        this.affectedRows = affectedRows;
+    }
+
+    /**
+     * Gets the domain type of the changed entities.
+     *
+     * @return the domain type
+     */
+    public Class<?> getDomainType() {
+        return domainType;
+    }
+
+    /**
+     * Gets the type of change.
+     *
+     * @return the change type
+     */
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * Gets the ids of the changed entities.
+     * Empty for {@link ChangeType#DELETED_ALL}.
+     *
+     * @return the ids
+     */
+    public List<Object> getIds() {
+        return ids;
+    }
+
+    /**
+     * Gets the number of rows removed by a {@link ChangeType#DELETED} change. Deletes may name ids
+     * that have no row, so this can be less than the number of ids.
+     *
+     * @return the number of removed rows, or -1 if unknown
+     */
+    public long getAffectedRows() {
+        return affectedRows;
+    }
+}
@@ -0,0 +1,223 @@
+package dev.bnacar.springx.data.repository;
+
+import dev.bnacar.springx.data.bulk.TableWriteEvent;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of in-memory entity counts for {@link CountedRepository} repositories.
+ * Each entity type has a counter made of a base value, taken from a {@code COUNT} query,
+ * and a {@link LongAdder} of the changes committed since.
+ * <p>
+ * Changes are applied after their transaction commits. Creations add to the counter, and deletes
+ * subtract the number of rows they removed, which {@link RepositoryEventAspect} determines for
+ * counted repositories; it also reports saves of entities with assigned ids that insert a row as
+ * creations. Only when a change's effect is unknown, such as a delete through another repository
+ * of the same entity type, is the counter marked stale, so that the next read recounts.
+ * <p>
+ * A delete-all sets the counter to zero and, like a write through the
+ * {@link dev.bnacar.springx.data.bulk.BulkWriter}, triggers a reconciliation in the background.
+ * All counters are reconciled periodically to pick up rows written in any other way.
+ */
+public class EntityCountRegistry implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCountRegistry.class);
+
+    private final RepositoryEntityResolver entityResolver;
+
+    // Map of domain type to counter
+    private final Map<Class<?>, Counter> counters = new ConcurrentHashMap<>();
+
+    // Executor service for periodic and write-triggered reconciliation
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "springx-entity-count");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs a new EntityCountRegistry.
+     *
+     * @param entityResolver the repository entity resolver
+     * @param reconcileIntervalSeconds the interval between reconciliations in seconds, or 0 to never reconcile
+     */
+    public EntityCountRegistry(RepositoryEntityResolver entityResolver, long reconcileIntervalSeconds) {
+        this.entityResolver = entityResolver;
+        if (reconcileIntervalSeconds > 0) {
+            scheduler.scheduleWithFixedDelay(this::reconcileAll,
+                    reconcileIntervalSeconds, reconcileIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Gets the number of entities of a type, seeding the counter from the database on first use.
+     *
+     * @param domainType the domain type
+     * @return the number of entities
+     */
+    public long count(Class<?> domainType) {
+        Counter counter = counters.computeIfAbsent(domainType, type -> new Counter());
+        if (!counter.seeded || counter.stale) {
+            synchronized (counter) {
+                if (!counter.seeded || counter.stale) {
+                    // Cleared first so that changes committed during the recount mark it stale again
+                    counter.stale = false;
+                    try {
+                        reconcile(domainType, counter);
+                    } catch (RuntimeException e) {
+                        counter.stale = true;
+                        throw e;
+                    }
+                    counter.seeded = true;
+                }
+            }
+        }
+        return counter.get();
+    }
+
+    /**
+     * Recounts all seeded entity types from the database.
+     */
+    public void reconcileAll() {
+        for (Map.Entry<Class<?>, Counter> entry : counters.entrySet()) {
+            if (entry.getValue().seeded) {
+                try {
+                    reconcile(entry.getKey(), entry.getValue());
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to reconcile the count of {}", entry.getKey().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adjusts the counter of an entity type after repository changes commit.
+     * The counter is created if needed, since a seeding query that runs before the change
+     * commits does not see it.
+     *
+     * @param event the entity change event
+     */
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        Counter counter = counters.computeIfAbsent(event.getDomainType(), type -> new Counter());
+
+        switch (event.getChangeType()) {
+            case CREATED:
+                TransactionCallbacks.afterCommit(() -> counter.changes.add(event.getIds().size()));
+                break;
+            case UPDATED:
+                // Counted repositories report inserting saves as creations; other repositories do not
+                if (!(event.getSource() instanceof CountedRepository) && RepositoryEntityResolver.hasAssignedIds(
+                        entityResolver.getEntityInformation(event.getDomainType()))) {
+                    TransactionCallbacks.afterCommit(() -> counter.stale = true);
+                }
+                break;
+            case DELETED:
+                long affectedRows = event.getAffectedRows();
+                if (affectedRows >= 0) {
+                    TransactionCallbacks.afterCommit(() -> counter.changes.add(-affectedRows));
+                } else {
+                    TransactionCallbacks.afterCommit(() -> counter.stale = true);
+                }
+                break;
+            case DELETED_ALL:
+                TransactionCallbacks.afterCommit(() -> {
+                    counter.base = -counter.changes.sum();
+                    if (counter.seeded) {
+                        reconcileLater(event.getDomainType(), counter);
+                    }
+                });
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Reconciles the counters of the table written by the bulk writer once the write has committed.
+     *
+     * @param event the table write event
+     */
+    @EventListener
+    public void onTableWrite(TableWriteEvent event) {
+        String table = RepositoryEntityResolver.normalizeTableName(event.getTableName());
+        counters.forEach((domainType, counter) -> {
+            if (counter.seeded && RepositoryEntityResolver.getTableName(domainType).equals(table)) {
+                TransactionCallbacks.afterCommit(() -> reconcileLater(domainType, counter));
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Reconciles a counter on the scheduler, so that the committing thread does not wait for the count.
+     *
+     * @param domainType the domain type
+     * @param counter the counter
+     */
+    private void reconcileLater(Class<?> domainType, Counter counter) {
+        scheduler.execute(() -> {
+            try {
+                reconcile(domainType, counter);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to reconcile the count of {}", domainType.getSimpleName(), e);
+            }
+        });
+    }
+
+    /**
+     * Resets a counter to the number of rows in the database.
+     * Changes committed while the query runs are kept on top of the new base, so they may
+     * be counted twice until the next reconciliation, but are never lost.
+     *
+     * @param domainType the domain type
+     * @param counter the counter
+     */
+    private void reconcile(Class<?> domainType, Counter counter) {
+        String query = "select count(e) from " + entityResolver.getEntityInformation(domainType).getEntityName() + " e";
+        long changesBefore = counter.changes.sum();
+        long count;
+        EntityManager entityManager = entityResolver.getEntityManagerFactory().createEntityManager();
+        try {
+            count = entityManager.createQuery(query, Long.class).getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+
+        counter.base = count - changesBefore;
+        logger.debug("Reconciled the count of {} to {}", domainType.getSimpleName(), count);
+    }
+
+    /**
+     * Count of one entity type.
+     */
+    private static class Counter {
+        private final LongAdder changes = new LongAdder();
+        private volatile long base;
+        private volatile boolean seeded;
+        private volatile boolean stale;
+
+        /**
+         * Gets the current count.
+         *
+         * @return the count, never negative
+         */
+        long get() {
+            return Math.max(0, base + changes.sum());
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package dev.bnacar.springx.data.repository;
+
+import jakarta.persistence.Persistence;
+import jakarta.persistence.PersistenceUtil;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Default {@link Weigher} that estimates the retained heap size of a cached value in bytes.
+ * Object sizes are derived from their field layout (assuming compressed references),
+ * computed once per class. Collections, maps and arrays are estimated by sampling a
+ * bounded number of elements and extrapolating, so weighing a 100k-row result stays cheap.
+ * Object graphs are followed only a few levels deep and unloaded JPA associations are
+ * never initialized.
+ */
+public class EstimatingWeigher implements Weigher {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int ALIGNMENT = 8;
+    private static final int SAMPLE_SIZE = 16;
+    private static final int MAX_DEPTH = 2;
+    private static final PersistenceUtil PERSISTENCE_UTIL = Persistence.getPersistenceUtil();
+
+    // Map of class to its field layout
+    private final Map<Class<?>, Layout> layouts = new ConcurrentHashMap<>();
+
+    @Override
+    public long weigh(String key, Object value) {
+        return OBJECT_HEADER + stringSize(key) + estimate(value, 0);
+    }
+
+    /**
+     * Estimates the retained size of a value.
+     *
+     * @param value the value
+     * @param depth the current nesting depth
+     * @return the estimated size in bytes
+     */
+    private long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return stringSize((String) value);
+        }
+        if (depth > MAX_DEPTH || !PERSISTENCE_UTIL.isLoaded(value)) {
+            // Never follow deep graphs or trigger lazy loading of JPA proxies and collections
+            return layout(value.getClass()).shallowSize;
+        }
+        if (value instanceof Optional) {
+            return OBJECT_HEADER + REFERENCE + estimate(((Optional<?>) value).orElse(null), depth);
+        }
+        if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            return ARRAY_HEADER + align((long) REFERENCE * collection.size())
+                    + sampleSize(collection, depth) * collection.size();
+        }
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            // Each entry is a node object holding hash, key, value and next references
+            return ARRAY_HEADER + align((long) REFERENCE * map.size())
+                    + (align(OBJECT_HEADER + 4 + 3 * REFERENCE)
+                    + sampleSize(map.keySet(), depth) + sampleSize(map.values(), depth)) * map.size();
+        }
+        if (value.getClass().isArray()) {
+            return arraySize(value, depth);
+        }
+        if (depth == MAX_DEPTH) {
+            return layout(value.getClass()).shallowSize;
+        }
+
+        Layout layout = layout(value.getClass());
+        long size = layout.shallowSize;
+        for (Field field : layout.referenceFields) {
+            try {
+                size += estimate(field.get(value), depth + 1);
+            } catch (IllegalAccessException e) {
+                // Count the reference only
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Estimates the average size of the elements of a collection from a bounded sample.
+     *
+     * @param collection the collection
+     * @param depth the current nesting depth
+     * @return the average element size in bytes
+     */
+    private long sampleSize(Collection<?> collection, int depth) {
+        int size = collection.size();
+        if (size == 0) {
+            return 0;
+        }
+
+        int samples = Math.min(size, SAMPLE_SIZE);
+        long total = 0;
+        if (collection instanceof List && collection instanceof RandomAccess) {
+            List<?> list = (List<?>) collection;
+            for (int i = 0; i < samples; i++) {
+                total += estimate(list.get((int) ((long) i * size / samples)), depth + 1);
+            }
+        } else {
+            Iterator<?> iterator = collection.iterator();
+            for (int i = 0; i < samples && iterator.hasNext(); i++) {
+                total += estimate(iterator.next(), depth + 1);
+            }
+        }
+        return total / samples;
+    }
+
+    /**
+     * Estimates the size of an array.
+     *
+     * @param array the array
+     * @param depth the current nesting depth
+     * @return the estimated size in bytes
+     */
+    private long arraySize(Object array, int depth) {
+        int length = Array.getLength(array);
+        Class<?> componentType = array.getClass().getComponentType();
+        if (componentType.isPrimitive()) {
+            return align(ARRAY_HEADER + (long) primitiveSize(componentType) * length);
+        }
+
+        int samples = Math.min(length, SAMPLE_SIZE);
+        long total = 0;
+        for (int i = 0; i < samples; i++) {
+            total += estimate(Array.get(array, (int) ((long) i * length / samples)), depth + 1);
+        }
+        return align(ARRAY_HEADER + (long) REFERENCE * length) + (samples == 0 ? 0 : total / samples * length);
+    }
+
+    /**
+     * Gets the field layout of a class, computing it on first use.
+     *
+     * @param type the class
+     * @return the layout
+     */
+    private Layout layout(Class<?> type) {
+        return layouts.computeIfAbsent(type, Layout::new);
+    }
+
+    /**
+     * Estimates the size of a string with compact (Latin-1) storage.
+     *
+     * @param value the string
+     * @return the estimated size in bytes
+     */
+    private static long stringSize(String value) {
+        return value == null ? 0 : align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + value.length());
+    }
+
+    /**
+     * Gets the size of a primitive type.
+     *
+     * @param type the primitive type
+     * @return the size in bytes
+     */
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * Rounds a size up to the object alignment.
+     *
+     * @param size the size
+     * @return the aligned size
+     */
+    private static long align(long size) {
+        return (size + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    /**
+     * Field layout of a class: its shallow size and the reference fields to follow.
+     */
+    private static class Layout {
+        private final long shallowSize;
+        private final List<Field> referenceFields = new ArrayList<>();
+
+        /**
+         * Computes the layout of a class from its instance fields, including inherited ones.
+         *
+         * @param type the class
+         */
+        Layout(Class<?> type) {
+            long size = OBJECT_HEADER;
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                        continue;
+                    }
+                    size += REFERENCE;
+                    if (!type.getName().startsWith("java.") && field.trySetAccessible()) {
+                        referenceFields.add(field);
+                    }
+                }
+            }
+            this.shallowSize = align(size);
+        }
+    }
+}
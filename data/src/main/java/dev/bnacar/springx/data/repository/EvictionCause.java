@@ -0,0 +1,22 @@
+package dev.bnacar.springx.data.repository;
+
+/**
+ * Reasons for removing an entry from a repository cache.
+ */
+public enum EvictionCause {
+
+    /**
+     * The entry's time-to-live elapsed.
+     */
+    EXPIRED,
+
+    /**
+     * The entry was removed to keep the cache within its size budget.
+     */
+    SIZE,
+
+    /**
+     * The entry was removed by an explicit clear or invalidation.
+     */
+    EXPLICIT
+}
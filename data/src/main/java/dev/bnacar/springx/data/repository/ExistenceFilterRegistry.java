@@ -0,0 +1,258 @@
+package dev.bnacar.springx.data.repository;
+
+import dev.bnacar.springx.data.bulk.TableWriteEvent;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.util.Assert;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Registry of per-entity {@link BloomFilter}s holding the ids that exist in the database.
+ * Filters are populated at startup with a streamed id scan, rebuilt periodically, and kept up to
+ * date from {@link EntityChangeEvent}s in between. Ids saved through caching repositories of this
+ * application instance are added as soon as they are saved, so the filter never reports them as
+ * absent. Deleted ids are kept until the next rebuild, which only costs a query for each of them.
+ * <p>
+ * Rows inserted in any other way, such as by cascading persists, {@code EntityManager.persist},
+ * JDBC inserts, other repositories or other processes, are reported absent until the next rebuild.
+ * The rebuild interval therefore bounds how long an existing row may be missed, and must be
+ * positive; enable negative lookups only for entities mostly written through caching repositories.
+ * <p>
+ * Rows written by the {@link dev.bnacar.springx.data.bulk.BulkWriter} carry no ids: the filter
+ * of the written table is switched off when the {@link TableWriteEvent} arrives and rebuilt once
+ * the write's transaction completes. Rows of chunks committed while a bulk write is still running
+ * may be reported absent until the event arrives.
+ */
+public class ExistenceFilterRegistry implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExistenceFilterRegistry.class);
+
+    private final RepositoryEntityResolver entityResolver;
+    private final long expectedInsertions;
+    private final double falsePositiveProbability;
+    private final int fetchSize;
+    private final long rebuildIntervalSeconds;
+
+    // Map of domain type to filter
+    private final Map<Class<?>, FilterHolder> filters = new ConcurrentHashMap<>();
+
+    // Executor service for populating and rebuilding filters
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    /**
+     * Constructs a new ExistenceFilterRegistry.
+     *
+     * @param entityResolver the repository entity resolver
+     * @param expectedInsertions the number of ids each filter is sized for
+     * @param falsePositiveProbability the desired false positive probability
+     * @param fetchSize the JDBC fetch size used for id scans
+     * @param rebuildIntervalSeconds the interval between filter rebuilds in seconds
+     */
+    public ExistenceFilterRegistry(RepositoryEntityResolver entityResolver, long expectedInsertions,
+                                   double falsePositiveProbability, int fetchSize, long rebuildIntervalSeconds) {
+        Assert.isTrue(rebuildIntervalSeconds > 0, "Rebuild interval must be positive, so that ids"
+                + " inserted outside caching repositories are eventually found");
+        this.entityResolver = entityResolver;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.fetchSize = fetchSize;
+        this.rebuildIntervalSeconds = rebuildIntervalSeconds;
+    }
+
+    /**
+     * Checks whether an id definitely does not exist for the domain type of a repository.
+     * Returns false while the filter for the domain type is still being populated.
+     *
+     * @param repository the repository
+     * @param id the id
+     * @return true if the id definitely does not exist
+     */
+    public boolean isDefinitelyAbsent(Object repository, Object id) {
+        Class<?> domainType = entityResolver.getDomainType(repository);
+        if (domainType == null || id == null) {
+            return false;
+        }
+
+        FilterHolder holder = filters.get(domainType);
+        return holder != null && holder.active != null && !holder.active.mightContain(id);
+    }
+
+    /**
+     * Populates the filters of all caching repositories once the application is ready.
+     *
+     * @param event the application ready event
+     */
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        for (CachingRepository<?, ?> repository : event.getApplicationContext().getBeansOfType(CachingRepository.class).values()) {
+            Class<?> domainType = entityResolver.getDomainType(repository);
+            if (domainType == null || entityResolver.getEntityInformation(domainType).hasCompositeId()) {
+                logger.debug("Skipping negative lookup for repository {}", repository);
+                continue;
+            }
+            filters.computeIfAbsent(domainType, type -> new FilterHolder());
+        }
+
+        for (Class<?> domainType : filters.keySet()) {
+            scheduler.execute(() -> rebuild(domainType));
+            scheduler.scheduleWithFixedDelay(() -> rebuild(domainType),
+                    rebuildIntervalSeconds, rebuildIntervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Applies an entity change to the filter of its domain type.
+     *
+     * @param event the entity change event
+     */
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        FilterHolder holder = filters.get(event.getDomainType());
+        if (holder == null) {
+            return;
+        }
+
+        switch (event.getChangeType()) {
+            case CREATED:
+            case UPDATED:
+                for (Object id : event.getIds()) {
+                    holder.add(id);
+                }
+                holder.pending.addAll(event.getIds());
+                TransactionCallbacks.afterCompletion(() -> event.getIds().forEach(holder.pending::remove));
+                break;
+            default:
+                // Keep deleted ids until the next rebuild: a false positive only costs a query
+                break;
+        }
+    }
+
+    /**
+     * Switches off the filter of the table written by the bulk writer and rebuilds it once the
+     * write has completed.
+     *
+     * @param event the table write event
+     */
+    @EventListener
+    public void onTableWrite(TableWriteEvent event) {
+        String table = RepositoryEntityResolver.normalizeTableName(event.getTableName());
+        filters.forEach((domainType, holder) -> {
+            if (!RepositoryEntityResolver.getTableName(domainType).equals(table)) {
+                return;
+            }
+            synchronized (holder) {
+                holder.openTableWrites++;
+                holder.tableWrites++;
+                holder.active = null;
+            }
+            TransactionCallbacks.afterCompletion(() -> {
+                synchronized (holder) {
+                    holder.openTableWrites--;
+                }
+                scheduler.execute(() -> rebuild(domainType));
+            });
+        });
+    }
+
+    /**
+     * Shuts down the scheduler.
+     */
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Builds a new filter for a domain type from a streamed id scan and swaps it in.
+     *
+     * @param domainType the domain type
+     */
+    private void rebuild(Class<?> domainType) {
+        FilterHolder holder = filters.get(domainType);
+        BloomFilter filter = new BloomFilter(expectedInsertions, falsePositiveProbability);
+        long tableWritesBefore;
+        synchronized (holder) {
+            tableWritesBefore = holder.tableWrites;
+        }
+        holder.building = filter;
+
+        JpaEntityInformation<?, ?> information = entityResolver.getEntityInformation(domainType);
+        String query = "select e." + information.getRequiredIdAttribute().getName()
+                + " from " + information.getEntityName() + " e";
+
+        long start = System.currentTimeMillis();
+        long count = 0;
+        EntityManager entityManager = entityResolver.getEntityManagerFactory().createEntityManager();
+        try (Stream<?> ids = entityManager.createQuery(query)
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()) {
+            Iterator<?> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                filter.add(iterator.next());
+                count++;
+            }
+            // Ids saved by transactions that were still open when the scan started
+            holder.pending.forEach(filter::add);
+            synchronized (holder) {
+                // A table write that is still open, or started during the scan, may not be visible to it
+                if (holder.openTableWrites > 0 || holder.tableWrites != tableWritesBefore) {
+                    logger.debug("Discarding existence filter for {} built during a table write", domainType.getSimpleName());
+                    return;
+                }
+                holder.active = filter;
+            }
+            logger.debug("Populated existence filter for {} with {} ids in {} ms",
+                    domainType.getSimpleName(), count, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to populate existence filter for {}", domainType.getSimpleName(), e);
+        } finally {
+            holder.building = null;
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Holds the active filter and, while a rebuild is running, the filter being built.
+     * Additions are applied to both so that no id saved during a rebuild is lost, and ids
+     * saved in still-open transactions are tracked so a rebuild can include them even though
+     * its scan cannot see them yet. Table writes are counted under the holder's lock so that a
+     * rebuild never activates a filter that may miss rows written by the bulk writer.
+     */
+    private static class FilterHolder {
+        private final Set<Object> pending = ConcurrentHashMap.newKeySet();
+        private int openTableWrites;
+        private long tableWrites;
+        private volatile BloomFilter active;
+        private volatile BloomFilter building;
+
+        /**
+         * Adds an id to the active filter and the filter being built.
+         *
+         * @param id the id
+         */
+        void add(Object id) {
+            BloomFilter current = active;
+            if (current != null) {
+                current.add(id);
+            }
+            BloomFilter next = building;
+            if (next != null) {
+                next.add(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.bnacar.springx.data.repository;
+
+import java.util.List;
+
+/**
+ * A page of entities returned by {@link KeysetRepository}.
+ *
+ * @param <T> the type of the entities
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final int size;
+    private final String nextToken;
+
+    /**
+     * Constructs a new KeysetPage.
+     *
+     * @param content the entities in the page
+     * @param size the requested page size
+     * @param nextToken the continuation token of the next page, or null if this is the last page
+     */
+    public KeysetPage(List<T> content, int size, String nextToken) {
+        this.content = List.copyOf(content);
+        this.size = size;
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Gets the entities in the page.
+     *
+     * @return the content
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the requested page size.
+     *
+     * @return the page size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the continuation token of the next page.
+     *
+     * @return the next token, or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Gets whether there is a next page.
+     *
+     * @return true if there is a next page
+     */
+    public boolean hasNext() {
+        return nextToken != null;
+    }
+}
@@ -0,0 +1,58 @@
+package dev.bnacar.springx.data.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.NoRepositoryBean;
+
+/**
+ * Repository interface for keyset (seek) pagination.
+ * Instead of skipping {@code OFFSET} rows, each page continues after the sort key and id of
+ * the last entity of the previous page, so that with an index on the sort column and id deep
+ * pages cost the same as the first one. The position is carried between requests as an opaque
+ * continuation token.
+ * <p>
+ * Requires {@link SpringXJpaRepository} as the repository base class:
+ * {@code @EnableJpaRepositories(repositoryBaseClass = SpringXJpaRepository.class)}.
+ * Entities with composite ids are not supported. The sort properties must not be nullable and
+ * their values must convert back from their string form, as numbers, strings, UUIDs, enums and
+ * {@code java.time} values do.
+ *
+ * @param <T> the domain type the repository manages
+ */
+@NoRepositoryBean
+public interface KeysetRepository<T> {
+
+    /**
+     * Gets a page of entities ordered by id.
+     *
+     * @param size the maximum number of entities in the page, must be positive
+     * @param continuationToken the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different ordering
+     */
+    KeysetPage<T> findPage(int size, String continuationToken);
+
+    /**
+     * Gets a page of entities ordered by a property, with the id as tie-breaker.
+     *
+     * @param order the sort property and direction
+     * @param size the maximum number of entities in the page, must be positive
+     * @param continuationToken the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different ordering
+     */
+    KeysetPage<T> findPage(Sort.Order order, int size, String continuationToken);
+
+    /**
+     * Gets a page of entities ordered by one or more properties, each in its own direction.
+     * Unless the sort contains the id, the id is the last tie-breaker, in the direction of the
+     * last order. An index on the sort columns and id must match these directions, or their
+     * exact reverse, to serve the query.
+     *
+     * @param sort the sort properties and directions; unsorted orders by id
+     * @param size the maximum number of entities in the page, must be positive
+     * @param continuationToken the token of the previous page, or null for the first page
+     * @return the page
+     * @throws IllegalArgumentException if the token is malformed or was issued for a different sort
+     */
+    KeysetPage<T> findPage(Sort sort, int size, String continuationToken);
+}
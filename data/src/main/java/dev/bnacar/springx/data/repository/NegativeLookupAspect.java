@@ -0,0 +1,53 @@
+package dev.bnacar.springx.data.repository;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.Optional;
+
+/**
+ * Aspect that answers {@link CachingRepository#findById} for ids that definitely do not exist
+ * without querying the database or the repository cache.
+ * Runs before the {@link CacheableRepositoryAspect} so that misses never reach the cache.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class NegativeLookupAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(NegativeLookupAspect.class);
+
+    private final ExistenceFilterRegistry filterRegistry;
+
+    /**
+     * Constructs a new NegativeLookupAspect.
+     *
+     * @param filterRegistry the existence filter registry
+     */
+    public NegativeLookupAspect(ExistenceFilterRegistry filterRegistry) {
+        this.filterRegistry = filterRegistry;
+    }
+
+    /**
+     * Returns an empty result for ids that the existence filter reports as absent.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @param repository the repository
+     * @return an empty optional or the result of the method call
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("execution(java.util.Optional findById(..)) && this(repository)")
+    public Object findById(ProceedingJoinPoint joinPoint, CachingRepository<?, ?> repository) throws Throwable {
+        Object[] args = joinPoint.getArgs();
+        if (args.length == 1 && filterRegistry.isDefinitelyAbsent(repository, args[0])) {
+            logger.debug("Negative lookup hit for {} with id {}", repository, args[0]);
+            return Optional.empty();
+        }
+
+        return joinPoint.proceed();
+    }
+}
@@ -0,0 +1,178 @@
+package dev.bnacar.springx.data.repository;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Table;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Member;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves the domain type and JPA entity metadata behind {@link CachingRepository} instances.
+ * Results are cached per repository class and per domain type.
+ */
+public class RepositoryEntityResolver {
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactoryProvider;
+
+    // Map of repository class to domain type
+    private final Map<Class<?>, Class<?>> domainTypes = new ConcurrentHashMap<>();
+
+    // Map of domain type to entity information
+    private final Map<Class<?>, JpaEntityInformation<?, ?>> entityInformation = new ConcurrentHashMap<>();
+
+    private volatile EntityManager entityManager;
+
+    /**
+     * Constructs a new RepositoryEntityResolver.
+     *
+     * @param entityManagerFactoryProvider provider of the entity manager factory
+     */
+    public RepositoryEntityResolver(ObjectProvider<EntityManagerFactory> entityManagerFactoryProvider) {
+        this.entityManagerFactoryProvider = entityManagerFactoryProvider;
+    }
+
+    /**
+     * Gets the domain type managed by a repository.
+     *
+     * @param repository the repository, usually a proxy
+     * @return the domain type, or null if it cannot be resolved
+     */
+    public Class<?> getDomainType(Object repository) {
+        return domainTypes.computeIfAbsent(repository.getClass(), this::resolveDomainType);
+    }
+
+    /**
+     * Gets the JPA entity information for a domain type.
+     *
+     * @param domainType the domain type
+     * @return the entity information
+     */
+    public JpaEntityInformation<?, ?> getEntityInformation(Class<?> domainType) {
+        return entityInformation.computeIfAbsent(domainType,
+                type -> JpaEntityInformationSupport.getEntityInformation(type, getEntityManager()));
+    }
+
+    /**
+     * Gets the id of an entity.
+     *
+     * @param domainType the domain type
+     * @param entity the entity
+     * @return the id, or null if the entity has none yet
+     */
+    @SuppressWarnings("unchecked")
+    public Object getId(Class<?> domainType, Object entity) {
+        return ((JpaEntityInformation<Object, ?>) getEntityInformation(domainType)).getId(entity);
+    }
+
+    /**
+     * Checks whether an entity is new, i.e. has not been persisted yet.
+     *
+     * @param domainType the domain type
+     * @param entity the entity
+     * @return true if the entity is new
+     */
+    @SuppressWarnings("unchecked")
+    public boolean isNew(Class<?> domainType, Object entity) {
+        return ((JpaEntityInformation<Object, ?>) getEntityInformation(domainType)).isNew(entity);
+    }
+
+    /**
+     * Checks whether the ids of an entity type are assigned by the application rather than generated
+     * by the persistence provider, so that a save of an entity that is not new may insert a row.
+     *
+     * @param entityInformation the entity information
+     * @return true if the ids are assigned
+     */
+    public static boolean hasAssignedIds(JpaEntityInformation<?, ?> entityInformation) {
+        if (entityInformation.hasCompositeId()) {
+            return true;
+        }
+        Member member = entityInformation.getRequiredIdAttribute().getJavaMember();
+        return !(member instanceof AnnotatedElement && ((AnnotatedElement) member).isAnnotationPresent(GeneratedValue.class));
+    }
+
+    /**
+     * Gets the entity manager factory.
+     *
+     * @return the entity manager factory
+     */
+    public EntityManagerFactory getEntityManagerFactory() {
+        return entityManagerFactoryProvider.getObject();
+    }
+
+    /**
+     * Gets the table name of an entity type, normalized by {@link #normalizeTableName}.
+     * The name is the entity's {@code @Table} name, or its entity name, converted to snake case
+     * as Spring Boot's default naming strategy does.
+     *
+     * @param domainType the entity type
+     * @return the table name
+     */
+    public static String getTableName(Class<?> domainType) {
+        String name = domainType.getSimpleName();
+        Table table = domainType.getAnnotation(Table.class);
+        Entity entity = domainType.getAnnotation(Entity.class);
+        if (table != null && !table.name().isEmpty()) {
+            name = table.name();
+        } else if (entity != null && !entity.name().isEmpty()) {
+            name = entity.name();
+        }
+
+        return normalizeTableName(name.replaceAll("([a-z0-9])([A-Z])", "$1_$2"));
+    }
+
+    /**
+     * Normalizes a table name for comparison: drops quotes and the schema, and converts to lower case.
+     *
+     * @param table the table name
+     * @return the normalized table name
+     */
+    public static String normalizeTableName(String table) {
+        String name = table.replace("\"", "").replace("`", "");
+        return name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Gets a shared, transaction-aware entity manager.
+     *
+     * @return the shared entity manager
+     */
+    private EntityManager getEntityManager() {
+        EntityManager result = entityManager;
+        if (result == null) {
+            result = SharedEntityManagerCreator.createSharedEntityManager(getEntityManagerFactory());
+            entityManager = result;
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the domain type from the generic signature of the repository interface.
+     *
+     * @param repositoryClass the repository class
+     * @return the domain type, or null if it cannot be resolved
+     */
+    private Class<?> resolveDomainType(Class<?> repositoryClass) {
+        for (Class<?> candidate : ClassUtils.getAllInterfacesForClassAsSet(repositoryClass)) {
+            if (candidate != CachingRepository.class && CachingRepository.class.isAssignableFrom(candidate)) {
+                Class<?> domainType = ResolvableType.forClass(candidate).as(CachingRepository.class).resolveGeneric(0);
+                if (domainType != null) {
+                    return domainType;
+                }
+            }
+        }
+        return null;
+    }
+}
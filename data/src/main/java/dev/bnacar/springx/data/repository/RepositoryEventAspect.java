@@ -0,0 +1,264 @@
+package dev.bnacar.springx.data.repository;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.repository.CrudRepository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Aspect that publishes an {@link EntityChangeEvent} for every write made through a {@link CachingRepository}.
+ * Whether a saved entity is new is determined before the save is executed, using the
+ * same rules as Spring Data JPA.
+ * <p>
+ * For {@link CountedRepository} repositories, the aspect also checks by id which rows exist before
+ * deletes and before saves of entities with assigned ids, so that deletes report the number of rows
+ * they remove and saves that insert are reported as creations. This costs one primary key lookup
+ * per entity, which saves the entity count a full recount.
+ */
+@Aspect
+public class RepositoryEventAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryEventAspect.class);
+
+    private final RepositoryEntityResolver entityResolver;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs a new RepositoryEventAspect.
+     *
+     * @param entityResolver the repository entity resolver
+     * @param eventPublisher the application event publisher
+     */
+    public RepositoryEventAspect(RepositoryEntityResolver entityResolver, ApplicationEventPublisher eventPublisher) {
+        this.entityResolver = entityResolver;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Publishes change events for single-entity saves.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @param repository the repository
+     * @return the saved entity
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("(execution(* save(..)) || execution(* saveAndFlush(..))) && this(repository)")
+    public Object saveOne(ProceedingJoinPoint joinPoint, CachingRepository<?, ?> repository) throws Throwable {
+        Class<?> domainType = entityResolver.getDomainType(repository);
+        Object[] args = joinPoint.getArgs();
+        if (domainType == null || args.length != 1 || !domainType.isInstance(args[0])) {
+            return joinPoint.proceed();
+        }
+
+        boolean isNew = entityResolver.isNew(domainType, args[0]) || insertsAssignedId(repository, domainType, args[0]);
+        Object result = joinPoint.proceed();
+
+        List<Object> ids = new ArrayList<>();
+        ids.add(entityResolver.getId(domainType, result));
+        publish(repository, domainType, isNew ? EntityChangeEvent.ChangeType.CREATED : EntityChangeEvent.ChangeType.UPDATED, ids);
+        return result;
+    }
+
+    /**
+     * Publishes change events for multi-entity saves.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @param repository the repository
+     * @return the saved entities
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("(execution(* saveAll(..)) || execution(* saveAllAndFlush(..))) && this(repository)")
+    public Object saveAll(ProceedingJoinPoint joinPoint, CachingRepository<?, ?> repository) throws Throwable {
+        Class<?> domainType = entityResolver.getDomainType(repository);
+        Object[] args = joinPoint.getArgs();
+        if (domainType == null || args.length != 1 || !(args[0] instanceof Iterable)) {
+            return joinPoint.proceed();
+        }
+
+        Iterable<?> entities = (Iterable<?>) args[0];
+        List<Boolean> newFlags = new ArrayList<>();
+        for (Object entity : entities) {
+            newFlags.add(entityResolver.isNew(domainType, entity) || insertsAssignedId(repository, domainType, entity));
+        }
+
+        Object result = joinPoint.proceed();
+
+        List<Object> created = new ArrayList<>();
+        List<Object> updated = new ArrayList<>();
+        int index = 0;
+        for (Object entity : (Iterable<?>) result) {
+            Object id = entityResolver.getId(domainType, entity);
+            if (index < newFlags.size() && newFlags.get(index)) {
+                created.add(id);
+            } else {
+                updated.add(id);
+            }
+            index++;
+        }
+
+        publish(repository, domainType, EntityChangeEvent.ChangeType.CREATED, created);
+        publish(repository, domainType, EntityChangeEvent.ChangeType.UPDATED, updated);
+        return result;
+    }
+
+    /**
+     * Publishes change events for deletes by entity, including deletes of all entities.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @param repository the repository
+     * @return the result of the method call
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("(execution(* delete(..)) || execution(* deleteAll(..)) || execution(* deleteAllInBatch(..)) "
+            + "|| execution(* deleteInBatch(..))) && this(repository)")
+    public Object deleteEntities(ProceedingJoinPoint joinPoint, CachingRepository<?, ?> repository) throws Throwable {
+        Class<?> domainType = entityResolver.getDomainType(repository);
+        Object[] args = joinPoint.getArgs();
+        if (domainType == null || args.length > 1) {
+            return joinPoint.proceed();
+        }
+
+        if (args.length == 0) {
+            Object result = joinPoint.proceed();
+            logger.debug("Publishing {} event for {}", EntityChangeEvent.ChangeType.DELETED_ALL, domainType.getSimpleName());
+            eventPublisher.publishEvent(new EntityChangeEvent(repository, domainType,
+                    EntityChangeEvent.ChangeType.DELETED_ALL, Collections.emptyList()));
+            return result;
+        }
+
+        // Batch deletes remove the rows of new entities as well; the others skip new entities
+        boolean skipNew = !joinPoint.getSignature().getName().endsWith("InBatch");
+        List<Object> ids = new ArrayList<>();
+        List<Object> removedIds = new ArrayList<>();
+        if (args[0] instanceof Iterable) {
+            for (Object entity : (Iterable<?>) args[0]) {
+                ids.add(entityResolver.getId(domainType, entity));
+                if (!skipNew || !entityResolver.isNew(domainType, entity)) {
+                    removedIds.add(entityResolver.getId(domainType, entity));
+                }
+            }
+        } else if (domainType.isInstance(args[0])) {
+            ids.add(entityResolver.getId(domainType, args[0]));
+            if (!skipNew || !entityResolver.isNew(domainType, args[0])) {
+                removedIds.add(entityResolver.getId(domainType, args[0]));
+            }
+        }
+        long affectedRows = countExisting(repository, removedIds);
+
+        Object result = joinPoint.proceed();
+        publish(repository, domainType, EntityChangeEvent.ChangeType.DELETED, ids, affectedRows);
+        return result;
+    }
+
+    /**
+     * Publishes change events for deletes by id.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @param repository the repository
+     * @return the result of the method call
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("(execution(* deleteById(..)) || execution(* deleteAllById(..)) "
+            + "|| execution(* deleteAllByIdInBatch(..))) && this(repository)")
+    public Object deleteIds(ProceedingJoinPoint joinPoint, CachingRepository<?, ?> repository) throws Throwable {
+        Class<?> domainType = entityResolver.getDomainType(repository);
+        Object[] args = joinPoint.getArgs();
+        if (domainType == null || args.length != 1 || args[0] == null) {
+            return joinPoint.proceed();
+        }
+
+        List<Object> ids = new ArrayList<>();
+        if (args[0] instanceof Iterable) {
+            for (Object id : (Iterable<?>) args[0]) {
+                ids.add(id);
+            }
+        } else {
+            ids.add(args[0]);
+        }
+        long affectedRows = countExisting(repository, ids);
+
+        Object result = joinPoint.proceed();
+        publish(repository, domainType, EntityChangeEvent.ChangeType.DELETED, ids, affectedRows);
+        return result;
+    }
+
+    /**
+     * Checks whether saving an entity of a counted repository inserts a row although the entity is
+     * not new, because its id is assigned by the application and has no row yet.
+     *
+     * @param repository the repository
+     * @param domainType the domain type
+     * @param entity the entity about to be saved
+     * @return true if the save inserts a row
+     */
+    private boolean insertsAssignedId(CachingRepository<?, ?> repository, Class<?> domainType, Object entity) {
+        if (!(repository instanceof CountedRepository)
+                || !RepositoryEntityResolver.hasAssignedIds(entityResolver.getEntityInformation(domainType))) {
+            return false;
+        }
+        Object id = entityResolver.getId(domainType, entity);
+        return id != null && countExisting(repository, Collections.singletonList(id)) == 0;
+    }
+
+    /**
+     * Counts the distinct ids that have a row, for counted repositories only.
+     *
+     * @param repository the repository
+     * @param ids the ids, possibly with nulls and duplicates
+     * @return the number of existing rows, or -1 if the repository is not counted
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static long countExisting(CachingRepository<?, ?> repository, List<Object> ids) {
+        if (!(repository instanceof CountedRepository)) {
+            return -1;
+        }
+        CrudRepository crudRepository = repository;
+        long existing = 0;
+        for (Object id : new LinkedHashSet<>(ids)) {
+            if (id != null && crudRepository.existsById(id)) {
+                existing++;
+            }
+        }
+        return existing;
+    }
+
+    /**
+     * Publishes an entity change event whose number of affected rows is unknown.
+     *
+     * @param repository the repository
+     * @param domainType the domain type
+     * @param changeType the change type
+     * @param ids the ids of the changed entities
+     */
+    private void publish(Object repository, Class<?> domainType, EntityChangeEvent.ChangeType changeType, List<Object> ids) {
+        publish(repository, domainType, changeType, ids, -1);
+    }
+
+    /**
+     * Publishes an entity change event, skipping null ids and empty changes.
+     *
+     * @param repository the repository
+     * @param domainType the domain type
+     * @param changeType the change type
+     * @param ids the ids of the changed entities
+     * @param affectedRows the number of rows the change removes, or -1 if unknown
+     */
+    private void publish(Object repository, Class<?> domainType, EntityChangeEvent.ChangeType changeType,
+                         List<Object> ids, long affectedRows) {
+        ids.removeIf(id -> id == null);
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Publishing {} event for {} {} entities", changeType, ids.size(), domainType.getSimpleName());
+        eventPublisher.publishEvent(new EntityChangeEvent(repository, domainType, changeType, ids, affectedRows));
+    }
+}
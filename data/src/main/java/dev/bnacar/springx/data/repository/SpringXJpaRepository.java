@@ -0,0 +1,231 @@
+package dev.bnacar.springx.data.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.metamodel.Attribute;
+import jakarta.persistence.metamodel.EntityType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repository base class implementing the Spring X repository extensions.
+ * Register it with {@code @EnableJpaRepositories(repositoryBaseClass = SpringXJpaRepository.class)};
+ * repositories then opt into each extension by extending its interface, such as {@link StreamingRepository}.
+ *
+ * @param <T> the domain type the repository manages
+ * @param <ID> the type of the id of the entity the repository manages
+ */
+public class SpringXJpaRepository<T, ID> extends SimpleJpaRepository<T, ID>
+        implements StreamingRepository<T>, KeysetRepository<T> {
+
+    private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+    private static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+
+    private final JpaEntityInformation<T, ?> entityInformation;
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a new SpringXJpaRepository.
+     *
+     * @param entityInformation the entity information
+     * @param entityManager the entity manager
+     */
+    public SpringXJpaRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Stream<T> streamAll() {
+        return streamAll(DEFAULT_FETCH_SIZE);
+    }
+
+    @Override
+    public Stream<T> streamAll(int fetchSize) {
+        Assert.isTrue(fetchSize > 0, "Fetch size must be positive");
+
+        TypedQuery<T> query = entityManager.createQuery(
+                "select e from " + entityInformation.getEntityName() + " e", getDomainClass());
+        query.setHint(HINT_FETCH_SIZE, fetchSize);
+        query.setHint(HINT_READ_ONLY, true);
+
+        Stream<T> results = query.getResultStream();
+        Iterator<T> iterator = results.iterator();
+        Spliterator<T> spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long count;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                // Detach the previous batch once it has been processed
+                if (count > 0 && count % fetchSize == 0) {
+                    entityManager.clear();
+                }
+                if (!iterator.hasNext()) {
+                    return false;
+                }
+                count++;
+                action.accept(iterator.next());
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(results::close);
+    }
+
+    @Override
+    public long forEachEntity(Consumer<? super T> action) {
+        return forEachEntity(DEFAULT_FETCH_SIZE, action);
+    }
+
+    @Override
+    public long forEachEntity(int fetchSize, Consumer<? super T> action) {
+        long count = 0;
+        try (Stream<T> stream = streamAll(fetchSize)) {
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                action.accept(iterator.next());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public KeysetPage<T> findPage(int size, String continuationToken) {
+        return findPage(Sort.unsorted(), size, continuationToken);
+    }
+
+    @Override
+    public KeysetPage<T> findPage(Sort.Order order, int size, String continuationToken) {
+        return findPage(Sort.by(order), size, continuationToken);
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public KeysetPage<T> findPage(Sort sort, int size, String continuationToken) {
+        Assert.isTrue(size > 0, "Page size must be positive");
+        Assert.isTrue(!entityInformation.hasCompositeId(), "Keyset pagination does not support composite ids");
+
+        String idAttribute = entityInformation.getRequiredIdAttribute().getName();
+        List<Sort.Order> orders = getKeysetOrders(sort, idAttribute);
+        EntityType<T> entityType = entityManager.getMetamodel().entity(getDomainClass());
+        List<Attribute<? super T, ?>> attributes = new ArrayList<>(orders.size());
+        StringBuilder ordering = new StringBuilder();
+        for (Sort.Order order : orders) {
+            attributes.add(entityType.getAttribute(order.getProperty()));
+            if (ordering.length() > 0) {
+                ordering.append(',');
+            }
+            ordering.append(order.getProperty()).append(':').append(order.getDirection());
+        }
+
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> criteria = builder.createQuery(getDomainClass());
+        Root<T> root = criteria.from(getDomainClass());
+        List<Path<Comparable>> paths = new ArrayList<>(orders.size());
+        List<jakarta.persistence.criteria.Order> orderBy = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Path<Comparable> path = root.get(attributes.get(i).getName());
+            paths.add(path);
+            orderBy.add(orders.get(i).isAscending() ? builder.asc(path) : builder.desc(path));
+        }
+
+        if (continuationToken != null) {
+            ContinuationToken token = ContinuationToken.decode(continuationToken, ordering.toString());
+            if (token.getValueCount() != orders.size()) {
+                throw new IllegalArgumentException("Malformed continuation token");
+            }
+            // Expanded form of the row value comparison (a, b, id) > (?, ?, ?) with a direction per
+            // column, built from the last column: a > ? or (a = ? and (b > ? or (b = ? and id > ?)))
+            Predicate after = null;
+            for (int i = orders.size() - 1; i >= 0; i--) {
+                Path<Comparable> path = paths.get(i);
+                Comparable last = (Comparable) token.getValue(i, attributes.get(i).getJavaType());
+                Predicate beyond = orders.get(i).isAscending()
+                        ? builder.greaterThan(path, last) : builder.lessThan(path, last);
+                after = after == null ? beyond : builder.or(beyond, builder.and(builder.equal(path, last), after));
+            }
+            criteria.where(after);
+        }
+        criteria.orderBy(orderBy);
+
+        // Fetch one extra row to find out whether there is a next page
+        List<T> results = entityManager.createQuery(criteria).setMaxResults(size + 1).getResultList();
+        if (results.size() <= size) {
+            return new KeysetPage<>(results, size, null);
+        }
+
+        List<T> content = results.subList(0, size);
+        T last = content.get(size - 1);
+        String[] lastValues = new String[orders.size()];
+        for (int i = 0; i < lastValues.length - 1; i++) {
+            lastValues[i] = String.valueOf(readAttribute(attributes.get(i), last));
+        }
+        lastValues[lastValues.length - 1] = String.valueOf(entityInformation.getId(last));
+        String nextToken = new ContinuationToken(ordering.toString(), lastValues).encode();
+        return new KeysetPage<>(content, size, nextToken);
+    }
+
+    /**
+     * Gets the orders of a keyset query: the orders of the sort, up to and including the id,
+     * followed by the id in the direction of the last order if the sort does not contain it.
+     *
+     * @param sort the requested sort
+     * @param idAttribute the name of the id attribute
+     * @return the orders, ending with the id
+     */
+    private static List<Sort.Order> getKeysetOrders(Sort sort, String idAttribute) {
+        List<Sort.Order> orders = new ArrayList<>();
+        Sort.Direction direction = Sort.Direction.ASC;
+        for (Sort.Order order : sort) {
+            Assert.isTrue(!order.isIgnoreCase(), "Keyset pagination does not support case-insensitive sorting");
+            orders.add(order);
+            if (order.getProperty().equals(idAttribute)) {
+                // Orders after the unique id never take effect
+                return orders;
+            }
+            direction = order.getDirection();
+        }
+        orders.add(new Sort.Order(direction, idAttribute));
+        return orders;
+    }
+
+    /**
+     * Reads the value of an attribute from an entity.
+     *
+     * @param attribute the attribute
+     * @param entity the entity
+     * @return the attribute value
+     */
+    private Object readAttribute(Attribute<? super T, ?> attribute, T entity) {
+        Member member = attribute.getJavaMember();
+        if (member instanceof Field) {
+            Field field = (Field) member;
+            ReflectionUtils.makeAccessible(field);
+            return ReflectionUtils.getField(field, entity);
+        }
+        Method getter = (Method) member;
+        ReflectionUtils.makeAccessible(getter);
+        return ReflectionUtils.invokeMethod(getter, entity);
+    }
+}
@@ -0,0 +1,65 @@
+package dev.bnacar.springx.data.repository;
+
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for processing all entities of a type in constant memory.
+ * Unlike {@link CachingRepository#findAll()}, which materializes and caches the whole table,
+ * entities are read through a database cursor with a JDBC fetch size, loaded read-only, and
+ * the persistence context is cleared after every fetched batch so processed entities can be
+ * garbage collected.
+ * <p>
+ * Requires {@link SpringXJpaRepository} as the repository base class:
+ * {@code @EnableJpaRepositories(repositoryBaseClass = SpringXJpaRepository.class)}.
+ * Because the persistence context is cleared while streaming, entities must not be modified
+ * and the surrounding unit of work must not hold pending changes.
+ *
+ * @param <T> the domain type the repository manages
+ */
+@NoRepositoryBean
+public interface StreamingRepository<T> {
+
+    /**
+     * Default number of rows fetched per database round trip.
+     */
+    int DEFAULT_FETCH_SIZE = 1000;
+
+    /**
+     * Streams all entities with the default fetch size.
+     * The stream holds an open cursor: it must be consumed within a transaction and closed,
+     * for example with try-with-resources.
+     *
+     * @return a stream of all entities
+     */
+    Stream<T> streamAll();
+
+    /**
+     * Streams all entities with the given fetch size.
+     * The stream holds an open cursor: it must be consumed within a transaction and closed,
+     * for example with try-with-resources.
+     *
+     * @param fetchSize the number of rows fetched per database round trip, must be positive
+     * @return a stream of all entities
+     */
+    Stream<T> streamAll(int fetchSize);
+
+    /**
+     * Passes every entity to a callback, within a read-only transaction, with the default fetch size.
+     *
+     * @param action the callback
+     * @return the number of entities processed
+     */
+    long forEachEntity(Consumer<? super T> action);
+
+    /**
+     * Passes every entity to a callback, within a read-only transaction, with the given fetch size.
+     *
+     * @param fetchSize the number of rows fetched per database round trip, must be positive
+     * @param action the callback
+     * @return the number of entities processed
+     */
+    long forEachEntity(int fetchSize, Consumer<? super T> action);
+}
@@ -0,0 +1,17 @@
+package dev.bnacar.springx.data.repository;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark a cached repository method for warm-up at application startup.
+ * The method must take no arguments; it is invoked once through the repository proxy
+ * when the application is ready, so that its {@link Cacheable} result is cached before
+ * the instance starts accepting traffic.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface WarmUp {
+}
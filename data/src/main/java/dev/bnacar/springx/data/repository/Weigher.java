@@ -0,0 +1,19 @@
+package dev.bnacar.springx.data.repository;
+
+/**
+ * Computes the weight of a repository cache entry.
+ * Weights are compared against the {@link Cacheable#maxWeight()} budget of the cache;
+ * implementations must be thread-safe and have a public no-argument constructor.
+ */
+@FunctionalInterface
+public interface Weigher {
+
+    /**
+     * Computes the weight of a cache entry.
+     *
+     * @param key the cache key
+     * @param value the cached value, may be null
+     * @return the weight, must not be negative
+     */
+    long weigh(String key, Object value);
+}
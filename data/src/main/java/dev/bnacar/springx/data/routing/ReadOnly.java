@@ -0,0 +1,18 @@
+package dev.bnacar.springx.data.routing;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to route the database work of a method to a read replica.
+ * Applied to a type, it covers all methods of the type. Read-only transactions, such as
+ * {@code @Transactional(readOnly = true)} and the read methods of Spring Data repositories,
+ * are routed to replicas without this annotation. Within a read-write transaction, including
+ * one started for the annotated method itself, the annotation has no effect.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnly {
+}
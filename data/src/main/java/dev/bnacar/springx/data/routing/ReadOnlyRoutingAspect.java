@@ -0,0 +1,35 @@
+package dev.bnacar.springx.data.routing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Aspect that handles the {@link ReadOnly} annotation.
+ * Runs before transaction interceptors so that the routing decision is in place when the
+ * transaction obtains its connection. The flag is ignored within read-write transactions,
+ * see {@link ReplicaRoutingContext#isReadOnly()}.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReadOnlyRoutingAspect {
+
+    /**
+     * Routes the database work of methods annotated with {@link ReadOnly} to a replica.
+     *
+     * @param joinPoint the join point representing the intercepted method call
+     * @return the result of the method call
+     * @throws Throwable if the method call throws an exception
+     */
+    @Around("@annotation(dev.bnacar.springx.data.routing.ReadOnly) || @within(dev.bnacar.springx.data.routing.ReadOnly)")
+    public Object readOnly(ProceedingJoinPoint joinPoint) throws Throwable {
+        Boolean previous = ReplicaRoutingContext.enterReadOnly();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.bnacar.springx.data.routing;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Bean post-processor that puts a {@link ReplicaRoutingDataSource} in front of the primary DataSource bean.
+ * The routing DataSource is wrapped in a {@link LazyConnectionDataSourceProxy}, so the connection is
+ * only obtained once the transaction has been marked read-only.
+ */
+public class ReplicaRoutingBeanPostProcessor implements BeanPostProcessor, DisposableBean {
+
+    private final String dataSourceBeanName;
+    private final Function<DataSource, ReplicaRoutingDataSource> routingFactory;
+    private final List<ReplicaRoutingDataSource> routingDataSources = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new ReplicaRoutingBeanPostProcessor.
+     *
+     * @param dataSourceBeanName the name of the primary DataSource bean
+     * @param routingFactory creates the routing DataSource for the primary DataSource
+     */
+    public ReplicaRoutingBeanPostProcessor(String dataSourceBeanName,
+                                           Function<DataSource, ReplicaRoutingDataSource> routingFactory) {
+        this.dataSourceBeanName = dataSourceBeanName;
+        this.routingFactory = routingFactory;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!dataSourceBeanName.equals(beanName) || !(bean instanceof DataSource)
+                || bean instanceof ReplicaRoutingDataSource || bean instanceof LazyConnectionDataSourceProxy) {
+            return bean;
+        }
+
+        ReplicaRoutingDataSource routingDataSource = routingFactory.apply((DataSource) bean);
+        routingDataSources.add(routingDataSource);
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * Closes the routing DataSources created by this post-processor. The primary DataSources are
+     * closed here as well, since the container only sees the proxy that replaced them.
+     *
+     * @throws Exception if a primary DataSource fails to close
+     */
+    @Override
+    public void destroy() throws Exception {
+        for (ReplicaRoutingDataSource routingDataSource : routingDataSources) {
+            routingDataSource.close();
+            if (routingDataSource.getPrimary() instanceof AutoCloseable) {
+                ((AutoCloseable) routingDataSource.getPrimary()).close();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package dev.bnacar.springx.data.routing;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Holds whether the current thread may read from a replica.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    /**
+     * Prevents instantiation.
+     */
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * Runs a task with replica reads enabled for the current thread.
+     *
+     * @param task the task
+     * @param <T> the result type
+     * @return the task result
+     * @throws Exception if the task throws an exception
+     */
+    public static <T> T callReadOnly(Callable<T> task) throws Exception {
+        Boolean previous = enterReadOnly();
+        try {
+            return task.call();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Checks whether connections obtained by the current thread may come from a replica.
+     * This is the case within read-only transactions, and within {@link #callReadOnly} unless a
+     * read-write transaction is active, since its connection must see the transaction's writes.
+     *
+     * @return true if a replica may be used
+     */
+    public static boolean isReadOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    /**
+     * Enables replica reads for the current thread.
+     *
+     * @return the previous state, to be passed to {@link #restore}
+     */
+    static Boolean enterReadOnly() {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    /**
+     * Restores the state saved by {@link #enterReadOnly}.
+     *
+     * @param previous the previous state
+     */
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            READ_ONLY.remove();
+        } else {
+            READ_ONLY.set(previous);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package dev.bnacar.springx.data.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that serves read-only work from replicas and everything else from the primary.
+ * Work counts as read-only within {@link ReadOnly} methods and read-only transactions, see
+ * {@link ReplicaRoutingContext#isReadOnly()}. Since transaction managers obtain their connection
+ * before the transaction is marked read-only, this DataSource is meant to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}.
+ * <p>
+ * Replicas that fail to hand out a connection, or that lag behind the primary by more than the
+ * configured threshold, are skipped until the next successful check. When no replica is
+ * available, read-only work falls back to the primary.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaSelection selection;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ScheduledExecutorService monitor;
+
+    /**
+     * Constructs a new ReplicaRoutingDataSource.
+     *
+     * @param primary the primary DataSource
+     * @param replicas the replica DataSources
+     * @param selection the replica selection strategy
+     * @param lagQuery query returning the replication lag in seconds, or null to only check connectivity
+     * @param maxLagSeconds the lag above which a replica is skipped
+     * @param checkIntervalSeconds the interval between replica checks, or 0 to disable checks
+     */
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas,
+                                    ReplicaSelection selection, String lagQuery, long maxLagSeconds,
+                                    long checkIntervalSeconds) {
+        this.primary = primary;
+        List<Replica> replicaList = new ArrayList<>(replicas.size());
+        for (DataSource replica : replicas) {
+            replicaList.add(new Replica(replica));
+        }
+        this.replicas = Collections.unmodifiableList(replicaList);
+        this.selection = selection;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+
+        if (checkIntervalSeconds > 0 && !replicaList.isEmpty()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "springx-replica-monitor-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.monitor.scheduleWithFixedDelay(this::checkReplicas,
+                    checkIntervalSeconds, checkIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.monitor = null;
+        }
+    }
+
+    /**
+     * Gets the primary DataSource.
+     *
+     * @return the primary DataSource
+     */
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    /**
+     * Gets the number of replicas currently eligible for read-only work.
+     *
+     * @return the number of available replicas
+     */
+    public int getAvailableReplicaCount() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.available) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (ReplicaRoutingContext.isReadOnly()) {
+            Replica replica = selectReplica();
+            if (replica != null) {
+                try {
+                    return replica.getConnection(username, password);
+                } catch (SQLException ex) {
+                    logger.warn("Replica connection failed, falling back to primary: {}", ex.getMessage());
+                    replica.available = false;
+                }
+            }
+        }
+
+        return username == null ? primary.getConnection() : primary.getConnection(username, password);
+    }
+
+    /**
+     * Checks every replica and updates its availability. Called periodically when checks are enabled.
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean available;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                available = lagQuery == null ? connection.isValid(5) : readLag(connection) <= maxLagSeconds;
+            } catch (SQLException ex) {
+                logger.debug("Replica check failed: {}", ex.getMessage());
+                available = false;
+            }
+
+            if (replica.available != available) {
+                logger.info("Replica {} is now {}", replicas.indexOf(replica), available ? "available" : "unavailable");
+                replica.available = available;
+            }
+        }
+    }
+
+    /**
+     * Stops the replica checks and closes the replica DataSources that are closeable.
+     */
+    @Override
+    public void close() {
+        if (monitor != null) {
+            monitor.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) replica.dataSource).close();
+                } catch (Exception ex) {
+                    logger.warn("Failed to close replica DataSource", ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Selects an available replica according to the selection strategy.
+     *
+     * @return the replica, or null if none is available
+     */
+    private Replica selectReplica() {
+        int size = replicas.size();
+        if (selection == ReplicaSelection.LEAST_IN_FLIGHT) {
+            Replica best = null;
+            for (Replica replica : replicas) {
+                if (replica.available && (best == null || replica.inFlight.get() < best.inFlight.get())) {
+                    best = replica;
+                }
+            }
+            return best;
+        }
+
+        int start = nextReplica.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads the replication lag using the lag query.
+     *
+     * @param connection the replica connection
+     * @return the lag in seconds
+     * @throws SQLException if the query fails
+     */
+    private long readLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(lagQuery)) {
+            if (!resultSet.next()) {
+                return 0;
+            }
+            // A null lag means the replica is not replicating at all
+            double lag = resultSet.getDouble(1);
+            return resultSet.wasNull() ? Long.MAX_VALUE : (long) Math.ceil(lag);
+        }
+    }
+
+    /**
+     * A replica DataSource with its availability and number of open connections.
+     */
+    private final class Replica {
+        private final DataSource dataSource;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean available = true;
+
+        /**
+         * Constructs a new Replica.
+         *
+         * @param dataSource the replica DataSource
+         */
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * Obtains a connection from the replica. With least-in-flight selection, the connection
+         * is tracked until it is closed.
+         *
+         * @param username the username, or null for the default credentials
+         * @param password the password
+         * @return the connection
+         * @throws SQLException if the connection cannot be obtained
+         */
+        private Connection getConnection(String username, String password) throws SQLException {
+            Connection connection = username == null
+                    ? dataSource.getConnection() : dataSource.getConnection(username, password);
+            if (selection != ReplicaSelection.LEAST_IN_FLIGHT) {
+                return connection;
+            }
+
+            inFlight.incrementAndGet();
+            AtomicBoolean closed = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        if ("close".equals(method.getName()) && closed.compareAndSet(false, true)) {
+                            inFlight.decrementAndGet();
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        }
+                    });
+        }
+    }
+}
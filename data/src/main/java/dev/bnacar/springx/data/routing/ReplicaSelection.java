@@ -0,0 +1,16 @@
+package dev.bnacar.springx.data.routing;
+
+/**
+ * Strategies for choosing the replica that serves a read-only connection.
+ */
+public enum ReplicaSelection {
+    /**
+     * Cycles through the available replicas.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Picks the available replica with the fewest open connections.
+     */
+    LEAST_IN_FLIGHT
+}
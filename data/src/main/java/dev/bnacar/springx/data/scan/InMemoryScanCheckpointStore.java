@@ -0,0 +1,33 @@
+package dev.bnacar.springx.data.scan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Checkpoint store keeping progress in memory.
+ * Scans resume after a failure within the same process, but not after a restart.
+ */
+public class InMemoryScanCheckpointStore implements ScanCheckpointStore {
+
+    // Map of scan name to its partitions by index
+    private final Map<String, Map<Integer, ScanPartition>> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public List<ScanPartition> load(String scanName) {
+        Map<Integer, ScanPartition> partitions = checkpoints.get(scanName);
+        return partitions != null ? new ArrayList<>(partitions.values()) : new ArrayList<>();
+    }
+
+    @Override
+    public void save(String scanName, ScanPartition partition) {
+        checkpoints.computeIfAbsent(scanName, key -> new ConcurrentSkipListMap<>()).put(partition.getIndex(), partition);
+    }
+
+    @Override
+    public void clear(String scanName) {
+        checkpoints.remove(scanName);
+    }
+}
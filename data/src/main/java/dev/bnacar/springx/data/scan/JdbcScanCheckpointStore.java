@@ -0,0 +1,110 @@
+package dev.bnacar.springx.data.scan;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Checkpoint store keeping progress in a database table, so that scans resume after a restart.
+ * The table has one row per partition:
+ * <pre>
+ * CREATE TABLE springx_scan_checkpoint (
+ *     scan_name VARCHAR(200) NOT NULL,
+ *     partition_index INTEGER NOT NULL,
+ *     lower_bound BIGINT,
+ *     upper_bound BIGINT,
+ *     last_id BIGINT,
+ *     completed BOOLEAN NOT NULL,
+ *     PRIMARY KEY (scan_name, partition_index)
+ * )
+ * </pre>
+ * Each checkpoint is written in its own auto-committed statement, independent of the work done on
+ * the scanned rows.
+ */
+public class JdbcScanCheckpointStore implements ScanCheckpointStore {
+
+    /**
+     * The default checkpoint table name.
+     */
+    public static final String DEFAULT_TABLE_NAME = "springx_scan_checkpoint";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tableName;
+
+    /**
+     * Constructs a new JdbcScanCheckpointStore.
+     *
+     * @param dataSource the data source holding the checkpoint table
+     * @param tableName the checkpoint table name
+     */
+    public JdbcScanCheckpointStore(DataSource dataSource, String tableName) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.tableName = tableName;
+    }
+
+    /**
+     * Creates the checkpoint table if it does not exist yet.
+     */
+    public void initializeSchema() {
+        try {
+            jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + tableName + " WHERE 1 = 0", Long.class);
+        } catch (DataAccessException ex) {
+            jdbcTemplate.execute("CREATE TABLE " + tableName + " ("
+                    + "scan_name VARCHAR(200) NOT NULL, "
+                    + "partition_index INTEGER NOT NULL, "
+                    + "lower_bound BIGINT, "
+                    + "upper_bound BIGINT, "
+                    + "last_id BIGINT, "
+                    + "completed BOOLEAN NOT NULL, "
+                    + "PRIMARY KEY (scan_name, partition_index))");
+        }
+    }
+
+    @Override
+    public List<ScanPartition> load(String scanName) {
+        return jdbcTemplate.query("SELECT partition_index, lower_bound, upper_bound, last_id, completed FROM "
+                        + tableName + " WHERE scan_name = ? ORDER BY partition_index",
+                (rs, rowNum) -> new ScanPartition(rs.getInt("partition_index"),
+                        getLong(rs, "lower_bound"), getLong(rs, "upper_bound"), getLong(rs, "last_id"),
+                        rs.getBoolean("completed")),
+                scanName);
+    }
+
+    @Override
+    public void save(String scanName, ScanPartition partition) {
+        int updated = jdbcTemplate.update("UPDATE " + tableName
+                        + " SET lower_bound = ?, upper_bound = ?, last_id = ?, completed = ?"
+                        + " WHERE scan_name = ? AND partition_index = ?",
+                partition.getLowerBound(), partition.getUpperBound(), partition.getLastId(), partition.isCompleted(),
+                scanName, partition.getIndex());
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO " + tableName
+                            + " (scan_name, partition_index, lower_bound, upper_bound, last_id, completed)"
+                            + " VALUES (?, ?, ?, ?, ?, ?)",
+                    scanName, partition.getIndex(), partition.getLowerBound(), partition.getUpperBound(),
+                    partition.getLastId(), partition.isCompleted());
+        }
+    }
+
+    @Override
+    public void clear(String scanName) {
+        jdbcTemplate.update("DELETE FROM " + tableName + " WHERE scan_name = ?", scanName);
+    }
+
+    /**
+     * Reads a nullable BIGINT column.
+     *
+     * @param rs the result set
+     * @param column the column name
+     * @return the value, or null if the column is null
+     * @throws SQLException if the column cannot be read
+     */
+    private static Long getLong(ResultSet rs, String column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+}
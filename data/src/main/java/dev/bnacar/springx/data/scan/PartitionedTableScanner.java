@@ -0,0 +1,381 @@
+package dev.bnacar.springx.data.scan;
+
+import dev.bnacar.springx.data.query.QueryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Scans large tables in parallel for batch jobs.
+ * <p>
+ * A scan is split into id-range partitions, computed from the smallest and largest id or from
+ * id quantiles, see {@link ScanPartitioning}. Partitions are processed on a bounded pool of
+ * threads. Each partition streams its rows in id order through its own connection, as by
+ * {@link QueryBuilder#forEachBatch}, within a read-only transaction, since drivers such as
+ * PostgreSQL ignore the fetch size in auto-commit mode and would load the whole partition.
+ * After each batch the last processed id is saved to a {@link ScanCheckpointStore}, with the
+ * partition's transaction suspended so that the checkpoint is committed right away.
+ * <p>
+ * Each running partition holds a connection for its whole duration, and a JDBC checkpoint store
+ * borrows another one for every checkpoint. The connection pool must therefore hold more
+ * connections than the parallelism, or checkpoints wait until the pool times out.
+ * <p>
+ * When a scan fails, running it again with the same name resumes each partition after its last
+ * checkpoint. Partitions that were completed are skipped, so rows are processed at least once.
+ * The checkpoint is removed once all partitions are completed. Checkpoints only survive a restart
+ * of the process when they are stored in a table, by a {@link JdbcScanCheckpointStore}; the
+ * {@link InMemoryScanCheckpointStore} used when no checkpoint table is configured loses them.
+ */
+public class PartitionedTableScanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedTableScanner.class);
+
+    // Partitions per thread when the scan does not set a count, to keep threads busy when partitions are uneven
+    private static final int PARTITIONS_PER_THREAD = 4;
+
+    // Sampled ids per partition for quantile partitioning, which keeps partition sizes within about 0.2% of even
+    private static final int SAMPLES_PER_PARTITION = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate partitionTransaction;
+    private final TransactionTemplate checkpointTransaction;
+    private final ScanCheckpointStore checkpointStore;
+    private final int parallelism;
+    private final int batchSize;
+
+    /**
+     * Constructs a new PartitionedTableScanner.
+     *
+     * @param dataSource the data source
+     * @param checkpointStore the checkpoint store
+     * @param parallelism the maximum number of partitions processed at once, which must be less than
+     *                    the number of connections the data source can hand out
+     * @param batchSize the default number of rows per batch
+     */
+    public PartitionedTableScanner(DataSource dataSource, ScanCheckpointStore checkpointStore,
+                                   int parallelism, int batchSize) {
+        Assert.isTrue(parallelism > 0, "Parallelism must be positive");
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        this.partitionTransaction = new TransactionTemplate(transactionManager);
+        this.partitionTransaction.setReadOnly(true);
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+        this.checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NOT_SUPPORTED);
+        this.checkpointStore = checkpointStore;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Runs a scan, resuming it from its checkpoint if it did not complete before.
+     * The consumer is called from several threads at once, each with batches in id order
+     * for its own partition. A batch is checkpointed once the consumer returns.
+     * <p>
+     * A failing partition does not stop the others. Once all partitions have finished, the first failure
+     * is thrown with the others suppressed, and the checkpoint is kept for the next run.
+     *
+     * @param scan the scan definition
+     * @param rowMapper the row mapper
+     * @param consumer the consumer of each batch of rows
+     * @param <T> the row type
+     * @return the number of rows processed by this run
+     * @throws InterruptedException if interrupted while waiting for the partitions
+     * @throws IllegalStateException if a partition failed
+     */
+    public <T> long scan(TableScan scan, RowMapper<T> rowMapper, Consumer<List<T>> consumer)
+            throws InterruptedException {
+        String name = scan.getName();
+        List<ScanPartition> partitions = checkpointStore.load(name);
+        if (partitions.isEmpty()) {
+            partitions = computePartitions(scan);
+            for (ScanPartition partition : partitions) {
+                checkpointStore.save(name, partition);
+            }
+        } else {
+            logger.info("Resuming scan {} from its checkpoint", name);
+        }
+
+        List<Callable<Long>> tasks = new ArrayList<>();
+        for (ScanPartition partition : partitions) {
+            if (!partition.isCompleted()) {
+                tasks.add(() -> scanPartition(scan, partition, rowMapper, consumer));
+            }
+        }
+        logger.info("Scanning {} with {} of {} partitions remaining", name, tasks.size(), partitions.size());
+        long start = System.currentTimeMillis();
+
+        List<Future<Long>> futures = List.of();
+        if (!tasks.isEmpty()) {
+            ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tasks.size()),
+                    new ScanThreadFactory());
+            try {
+                futures = executor.invokeAll(tasks);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        long rows = 0;
+        IllegalStateException failure = null;
+        for (Future<Long> future : futures) {
+            try {
+                rows += future.get();
+            } catch (ExecutionException ex) {
+                if (failure == null) {
+                    failure = new IllegalStateException("Scan " + name + " failed; run it again to resume"
+                            + " from its checkpoint", ex.getCause());
+                } else {
+                    failure.addSuppressed(ex.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+
+        checkpointStore.clear(name);
+        logger.info("Scanned {} rows of {} in {} ms", rows, name, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    /**
+     * Computes the partitions of a scan.
+     *
+     * @param scan the scan definition
+     * @return the partitions, the first without lower bound and the last without upper bound
+     */
+    List<ScanPartition> computePartitions(TableScan scan) {
+        int count = scan.getPartitions() > 0 ? scan.getPartitions() : parallelism * PARTITIONS_PER_THREAD;
+        List<Long> bounds = scan.getPartitioning() == ScanPartitioning.QUANTILES
+                ? quantileBounds(scan, count)
+                : rangeBounds(scan, count);
+
+        List<ScanPartition> partitions = new ArrayList<>(bounds.size() + 1);
+        Long lower = null;
+        for (Long upper : bounds) {
+            partitions.add(new ScanPartition(partitions.size(), lower, upper, null, false));
+            lower = upper;
+        }
+        partitions.add(new ScanPartition(partitions.size(), lower, null, null, false));
+        return partitions;
+    }
+
+    /**
+     * Computes the bounds between partitions of equal id ranges.
+     *
+     * @param scan the scan definition
+     * @param count the number of partitions
+     * @return the ascending bounds between partitions
+     */
+    private List<Long> rangeBounds(TableScan scan, int count) {
+        String idColumn = scan.getIdColumn();
+        QueryBuilder query = rowQuery(scan, "MIN(" + idColumn + ")", "MAX(" + idColumn + ")");
+        Long[] range = jdbcTemplate.queryForObject(query.getQuery(),
+                (rs, rowNum) -> new Long[] {getLong(rs, 1), getLong(rs, 2)}, query.getParameters());
+
+        List<Long> bounds = new ArrayList<>();
+        if (range == null || range[0] == null) {
+            return bounds;
+        }
+
+        // Unsigned arithmetic, as the span of signed ids may exceed Long.MAX_VALUE
+        long min = range[0];
+        long span = range[1] - min;
+        long step = Long.divideUnsigned(span, count) + 1;
+        for (int i = 1; i < count; i++) {
+            long offset = step * i;
+            if (Long.compareUnsigned(offset, span) > 0) {
+                break;
+            }
+            bounds.add(min + offset);
+        }
+        return bounds;
+    }
+
+    /**
+     * Computes the bounds between partitions holding about the same number of rows.
+     * The ids are streamed once in index order, keeping every n-th id, where n doubles whenever
+     * the sample grows beyond {@link #SAMPLES_PER_PARTITION} ids per partition, and the bounds
+     * are the quantiles of the sample.
+     *
+     * @param scan the scan definition
+     * @param count the number of partitions
+     * @return the ascending bounds between partitions
+     */
+    private List<Long> quantileBounds(TableScan scan, int count) {
+        String idColumn = scan.getIdColumn();
+        QueryBuilder query = rowQuery(scan, idColumn).orderBy(idColumn);
+        int maxSamples = count * SAMPLES_PER_PARTITION;
+        List<Long> sample = new ArrayList<>();
+        long[] stride = {1};
+        long[] seen = {0};
+        partitionTransaction.executeWithoutResult(status -> {
+            try (Stream<Long> ids = query.stream(jdbcTemplate, (rs, rowNum) -> rs.getLong(1), batchSize)) {
+                ids.forEach(id -> {
+                    if (seen[0]++ % stride[0] == 0) {
+                        sample.add(id);
+                    }
+                    if (sample.size() > maxSamples) {
+                        // Keep the ids at multiples of twice the stride
+                        for (int i = 0; i < (sample.size() + 1) / 2; i++) {
+                            sample.set(i, sample.get(i * 2));
+                        }
+                        sample.subList((sample.size() + 1) / 2, sample.size()).clear();
+                        stride[0] *= 2;
+                    }
+                });
+            }
+        });
+
+        // The first quantile is the smallest id, which the open first partition already covers
+        List<Long> bounds = new ArrayList<>();
+        for (int i = 1; i < count && !sample.isEmpty(); i++) {
+            int index = (int) Math.min(sample.size() - 1, seen[0] * i / count / stride[0]);
+            Long bound = sample.get(index);
+            if (index > 0 && (bounds.isEmpty() || !bounds.get(bounds.size() - 1).equals(bound))) {
+                bounds.add(bound);
+            }
+        }
+        return bounds;
+    }
+
+    /**
+     * Streams the rows of one partition from its checkpoint in a read-only transaction, checkpointing
+     * after each batch outside of it.
+     *
+     * @param scan the scan definition
+     * @param partition the partition
+     * @param rowMapper the row mapper
+     * @param consumer the consumer of each batch of rows
+     * @param <T> the row type
+     * @return the number of rows processed
+     */
+    private <T> long scanPartition(TableScan scan, ScanPartition partition, RowMapper<T> rowMapper,
+                                   Consumer<List<T>> consumer) {
+        String idColumn = scan.getIdColumn();
+        QueryBuilder query = rowQuery(scan, scan.getColumns()).label("scan " + scan.getName());
+        if (partition.getLastId() != null) {
+            query.where(idColumn + " > ?", partition.getLastId());
+        } else if (partition.getLowerBound() != null) {
+            query.where(idColumn + " >= ?", partition.getLowerBound());
+        }
+        if (partition.getUpperBound() != null) {
+            query.where(idColumn + " < ?", partition.getUpperBound());
+        }
+        query.orderBy(idColumn);
+
+        String idLabel = columnLabel(idColumn);
+        ScanPartition[] progress = {partition};
+        long rows = partitionTransaction.execute(status -> query.forEachBatch(jdbcTemplate,
+                (rs, rowNum) -> new IdentifiedRow<>(rs.getLong(idLabel), rowMapper.mapRow(rs, rowNum)),
+                scan.getBatchSize() > 0 ? scan.getBatchSize() : batchSize,
+                batch -> {
+                    List<T> values = new ArrayList<>(batch.size());
+                    for (IdentifiedRow<T> row : batch) {
+                        values.add(row.value);
+                    }
+                    consumer.accept(values);
+                    progress[0] = progress[0].withLastId(batch.get(batch.size() - 1).id);
+                    checkpointTransaction.executeWithoutResult(
+                            checkpointStatus -> checkpointStore.save(scan.getName(), progress[0]));
+                }));
+
+        checkpointStore.save(scan.getName(), progress[0].asCompleted());
+        logger.debug("Scanned {} rows of {} partition {}", rows, scan.getName(), partition.getIndex());
+        return rows;
+    }
+
+    /**
+     * Creates a query over the rows of a scan, restricted to its condition.
+     *
+     * @param scan the scan definition
+     * @param columns the selected columns
+     * @return the query
+     */
+    private QueryBuilder rowQuery(TableScan scan, String... columns) {
+        QueryBuilder query = QueryBuilder.select(columns).from(scan.getTable());
+        if (scan.getCondition() != null) {
+            query.where("(" + scan.getCondition() + ")", scan.getParameters());
+        }
+        return query;
+    }
+
+    /**
+     * Gets the result set label of a possibly qualified column.
+     *
+     * @param column the column
+     * @return the column name without table qualifier
+     */
+    private static String columnLabel(String column) {
+        return column.substring(column.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * Reads a nullable BIGINT column.
+     *
+     * @param rs the result set
+     * @param index the column index
+     * @return the value, or null if the column is null
+     * @throws SQLException if the column cannot be read
+     */
+    private static Long getLong(ResultSet rs, int index) throws SQLException {
+        long value = rs.getLong(index);
+        return rs.wasNull() ? null : value;
+    }
+
+    /**
+     * A mapped row with its id.
+     *
+     * @param <T> the row type
+     */
+    private static final class IdentifiedRow<T> {
+        private final long id;
+        private final T value;
+
+        /**
+         * Constructs a new IdentifiedRow.
+         *
+         * @param id the row id
+         * @param value the mapped row
+         */
+        private IdentifiedRow(long id, T value) {
+            this.id = id;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Thread factory for named daemon scan threads.
+     */
+    private static class ScanThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "springx-scan-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dev.bnacar.springx.data.scan;
+
+import java.util.List;
+
+/**
+ * Stores the partitions of table scans and their progress, so that an interrupted scan resumes
+ * where it stopped instead of starting over.
+ */
+public interface ScanCheckpointStore {
+
+    /**
+     * Loads the partitions of an unfinished scan.
+     *
+     * @param scanName the scan name
+     * @return the partitions ordered by index, or an empty list if the scan has no checkpoint
+     */
+    List<ScanPartition> load(String scanName);
+
+    /**
+     * Saves a partition, replacing the saved partition with the same index.
+     * Called from several threads at once, for different partitions.
+     *
+     * @param scanName the scan name
+     * @param partition the partition
+     */
+    void save(String scanName, ScanPartition partition);
+
+    /**
+     * Removes the checkpoint of a scan, once all its partitions are completed.
+     *
+     * @param scanName the scan name
+     */
+    void clear(String scanName);
+}
@@ -0,0 +1,101 @@
+package dev.bnacar.springx.data.scan;
+
+/**
+ * One id range of a partitioned table scan and its progress.
+ * The range includes its lower bound and excludes its upper bound; a null bound leaves that side open.
+ */
+public final class ScanPartition {
+
+    private final int index;
+    private final Long lowerBound;
+    private final Long upperBound;
+    private final Long lastId;
+    private final boolean completed;
+
+    /**
+     * Constructs a new ScanPartition.
+     *
+     * @param index the partition index
+     * @param lowerBound the lowest id, inclusive, or null for no lower bound
+     * @param upperBound the highest id, exclusive, or null for no upper bound
+     * @param lastId the last id processed, or null if none was processed yet
+     * @param completed whether all rows of the partition were processed
+     */
+    public ScanPartition(int index, Long lowerBound, Long upperBound, Long lastId, boolean completed) {
+        this.index = index;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        this.lastId = lastId;
+        this.completed = completed;
+    }
+
+    /**
+     * Gets the partition index.
+     *
+     * @return the index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the lowest id of the partition, inclusive.
+     *
+     * @return the lower bound, or null for no lower bound
+     */
+    public Long getLowerBound() {
+        return lowerBound;
+    }
+
+    /**
+     * Gets the highest id of the partition, exclusive.
+     *
+     * @return the upper bound, or null for no upper bound
+     */
+    public Long getUpperBound() {
+        return upperBound;
+    }
+
+    /**
+     * Gets the last id processed. The scan resumes after it.
+     *
+     * @return the last id, or null if none was processed yet
+     */
+    public Long getLastId() {
+        return lastId;
+    }
+
+    /**
+     * Gets whether all rows of the partition were processed.
+     *
+     * @return whether the partition is completed
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Returns a copy of this partition recording progress up to an id.
+     *
+     * @param lastId the last id processed
+     * @return the updated partition
+     */
+    public ScanPartition withLastId(long lastId) {
+        return new ScanPartition(index, lowerBound, upperBound, lastId, false);
+    }
+
+    /**
+     * Returns a copy of this partition marked as completed.
+     *
+     * @return the completed partition
+     */
+    public ScanPartition asCompleted() {
+        return new ScanPartition(index, lowerBound, upperBound, lastId, true);
+    }
+
+    @Override
+    public String toString() {
+        return "ScanPartition{index=" + index + ", lowerBound=" + lowerBound + ", upperBound=" + upperBound
+                + ", lastId=" + lastId + ", completed=" + completed + "}";
+    }
+}
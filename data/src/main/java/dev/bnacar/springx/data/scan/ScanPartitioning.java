@@ -0,0 +1,21 @@
+package dev.bnacar.springx.data.scan;
+
+/**
+ * Strategies for splitting a table scan into id-range partitions.
+ */
+public enum ScanPartitioning {
+
+    /**
+     * Splits the range between the smallest and largest id into equal ranges.
+     * Needs a single aggregate query, but partitions are uneven when ids are not evenly spread.
+     */
+    RANGE,
+
+    /**
+     * Splits the ids into ranges holding about the same number of rows, taken from a sample of the ids.
+     * Before the scan starts, all matching ids are streamed once in id order, which reads the whole id
+     * index, or sorts the table if the id column is not indexed. This adds a pass over the ids to the
+     * scan, but keeps partitions even for sparse or skewed ids.
+     */
+    QUANTILES
+}
@@ -0,0 +1,212 @@
+package dev.bnacar.springx.data.scan;
+
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+
+/**
+ * Definition of a partitioned scan over a table with a numeric id column.
+ * <p>
+ * Example:
+ * <pre>
+ * TableScan.of("orders", "id")
+ *         .columns("id", "customer_id", "total")
+ *         .where("status = ?", "OPEN")
+ *         .partitioning(ScanPartitioning.QUANTILES)
+ *         .partitions(32);
+ * </pre>
+ * The scan name keys its checkpoint, so two scans of the same table with different conditions
+ * need different names.
+ */
+public final class TableScan {
+
+    private final String table;
+    private final String idColumn;
+    private String name;
+    private String[] columns = {"*"};
+    private String condition;
+    private Object[] parameters = new Object[0];
+    private ScanPartitioning partitioning = ScanPartitioning.RANGE;
+    private int partitions;
+    private int batchSize;
+
+    /**
+     * Constructs a new TableScan.
+     *
+     * @param table the table
+     * @param idColumn the numeric id column
+     */
+    private TableScan(String table, String idColumn) {
+        this.table = table;
+        this.idColumn = idColumn;
+        this.name = table;
+    }
+
+    /**
+     * Starts the definition of a scan over a table.
+     *
+     * @param table the table
+     * @param idColumn the numeric id column, which partitions and orders the scan
+     * @return the scan definition
+     */
+    public static TableScan of(String table, String idColumn) {
+        Assert.hasText(table, "Table must not be empty");
+        Assert.hasText(idColumn, "Id column must not be empty");
+        return new TableScan(table, idColumn);
+    }
+
+    /**
+     * Sets the scan name, which keys its checkpoint. Defaults to the table name.
+     *
+     * @param name the scan name
+     * @return this scan definition
+     */
+    public TableScan name(String name) {
+        Assert.hasText(name, "Name must not be empty");
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Sets the selected columns, which must include the id column. Defaults to all columns.
+     *
+     * @param columns the columns
+     * @return this scan definition
+     */
+    public TableScan columns(String... columns) {
+        Assert.notEmpty(columns, "Columns must not be empty");
+        this.columns = columns;
+        return this;
+    }
+
+    /**
+     * Restricts the scan to the rows matching a condition.
+     *
+     * @param condition the condition
+     * @param params the condition parameters
+     * @return this scan definition
+     */
+    public TableScan where(String condition, Object... params) {
+        this.condition = condition;
+        this.parameters = params;
+        return this;
+    }
+
+    /**
+     * Sets how partitions are computed. Defaults to {@link ScanPartitioning#RANGE}.
+     *
+     * @param partitioning the partitioning
+     * @return this scan definition
+     */
+    public TableScan partitioning(ScanPartitioning partitioning) {
+        this.partitioning = partitioning;
+        return this;
+    }
+
+    /**
+     * Sets the number of partitions. Defaults to four per scanner thread, so that uneven
+     * partitions still keep all threads busy.
+     *
+     * @param partitions the number of partitions
+     * @return this scan definition
+     */
+    public TableScan partitions(int partitions) {
+        Assert.isTrue(partitions > 0, "Partitions must be positive");
+        this.partitions = partitions;
+        return this;
+    }
+
+    /**
+     * Sets the number of rows passed to the consumer at once and checkpointed together.
+     * Defaults to the scanner's batch size.
+     *
+     * @param batchSize the batch size
+     * @return this scan definition
+     */
+    public TableScan batchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be positive");
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * Gets the table.
+     *
+     * @return the table
+     */
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * Gets the id column.
+     *
+     * @return the id column
+     */
+    public String getIdColumn() {
+        return idColumn;
+    }
+
+    /**
+     * Gets the scan name.
+     *
+     * @return the scan name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the selected columns.
+     *
+     * @return the columns
+     */
+    public String[] getColumns() {
+        return Arrays.copyOf(columns, columns.length);
+    }
+
+    /**
+     * Gets the row condition.
+     *
+     * @return the condition, or null to scan all rows
+     */
+    public String getCondition() {
+        return condition;
+    }
+
+    /**
+     * Gets the condition parameters.
+     *
+     * @return the parameters
+     */
+    public Object[] getParameters() {
+        return Arrays.copyOf(parameters, parameters.length);
+    }
+
+    /**
+     * Gets how partitions are computed.
+     *
+     * @return the partitioning
+     */
+    public ScanPartitioning getPartitioning() {
+        return partitioning;
+    }
+
+    /**
+     * Gets the number of partitions.
+     *
+     * @return the number of partitions, or 0 for the scanner's default
+     */
+    public int getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Gets the batch size.
+     *
+     * @return the batch size, or 0 for the scanner's default
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
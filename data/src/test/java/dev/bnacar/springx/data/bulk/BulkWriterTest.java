@@ -0,0 +1,111 @@
+package dev.bnacar.springx.data.bulk;
+
+import dev.bnacar.springx.data.converter.EntityDtoConverter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BulkWriterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private BulkWriter bulkWriter;
+
+    private final BulkTable<TestEntity> table = BulkTable.of("test_entity", TestEntity.class)
+            .keyColumn("id", TestEntity::getId)
+            .column("name", TestEntity::getName);
+
+    @BeforeEach
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE test_entity (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        // Small batches and chunks so a few hundred rows exercise every code path
+        bulkWriter = new BulkWriter(database, new DataSourceTransactionManager(database), null, 2, 7, 100);
+    }
+
+    @AfterEach
+    public void teardown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testInsertWritesAllRows() {
+        // Arrange
+        List<TestEntity> entities = new ArrayList<>();
+        for (long i = 1; i <= 250; i++) {
+            entities.add(new TestEntity(i, "Entity " + i));
+        }
+
+        // Act
+        long written = bulkWriter.insert(table, entities);
+
+        // Assert
+        assertEquals(BulkDialect.H2, bulkWriter.getDialect());
+        assertEquals(250, written);
+        assertEquals(250, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_entity", Long.class));
+        assertEquals("Entity 250", jdbcTemplate.queryForObject("SELECT name FROM test_entity WHERE id = 250", String.class));
+    }
+
+    @Test
+    public void testUpsertConvertsDtosAndUpdatesExistingRows() {
+        // Arrange
+        bulkWriter.insert(table, Arrays.asList(new TestEntity(1L, "Old"), new TestEntity(2L, "Unchanged")));
+        EntityDtoConverter<TestEntity, String> converter = new EntityDtoConverter<>(
+                TestEntity::getName,
+                dto -> new TestEntity(Long.valueOf(dto.split("=")[0]), dto.split("=")[1]));
+
+        // Act
+        long written = bulkWriter.upsert(table, Arrays.asList("1=New", "3=Inserted"), converter);
+
+        // Assert
+        assertEquals(2, written);
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM test_entity", Long.class));
+        assertEquals("New", jdbcTemplate.queryForObject("SELECT name FROM test_entity WHERE id = 1", String.class));
+        assertEquals("Unchanged", jdbcTemplate.queryForObject("SELECT name FROM test_entity WHERE id = 2", String.class));
+        assertEquals("Inserted", jdbcTemplate.queryForObject("SELECT name FROM test_entity WHERE id = 3", String.class));
+    }
+
+    @Test
+    public void testDialectStatements() {
+        // Act & Assert
+        assertEquals("INSERT INTO test_entity (id, name) VALUES (?, ?), (?, ?)",
+                BulkDialect.GENERIC.insert(table, 2));
+        assertEquals("MERGE INTO test_entity (id, name) KEY (id) VALUES (?, ?)",
+                BulkDialect.H2.upsert(table, 1));
+        assertEquals("INSERT INTO test_entity (id, name) VALUES (?, ?) ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name",
+                BulkDialect.POSTGRESQL.upsert(table, 1));
+        assertEquals("INSERT INTO test_entity (id, name) VALUES (?, ?) ON DUPLICATE KEY UPDATE name = VALUES(name)",
+                BulkDialect.MYSQL.upsert(table, 1));
+    }
+
+    // Test entity class
+    static class TestEntity {
+        private final Long id;
+        private final String name;
+
+        public TestEntity(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package dev.bnacar.springx.data.converter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class AutoConverterFactoryTest {
+
+    @Test
+    public void testConvertsMatchingBeanProperties() {
+        // Arrange
+        EntityDtoConverter<TestEntity, TestDto> converter = AutoConverterFactory.create(TestEntity.class, TestDto.class);
+        TestEntity entity = new TestEntity();
+        entity.setId(7L);
+        entity.setName("Test Entity");
+        entity.setSecret("hidden");
+
+        // Act
+        TestDto dto = converter.convertToDto(entity);
+        TestEntity roundTrip = converter.convertToEntity(dto);
+
+        // Assert
+        assertEquals(7L, dto.getId());
+        assertEquals("Test Entity", dto.getName());
+        assertEquals(7L, roundTrip.getId());
+        assertEquals("Test Entity", roundTrip.getName());
+        assertNull(roundTrip.getSecret());
+    }
+
+    @Test
+    public void testConvertsToRecord() {
+        // Arrange
+        EntityDtoConverter<TestEntity, TestRecord> converter = AutoConverterFactory.create(TestEntity.class, TestRecord.class);
+        TestEntity entity = new TestEntity();
+        entity.setName("Test Entity");
+
+        // Act
+        TestRecord dto = converter.convertToDto(entity);
+        TestEntity roundTrip = converter.convertToEntity(new TestRecord(3L, "From Record"));
+
+        // Assert
+        assertEquals(0L, dto.id());
+        assertEquals("Test Entity", dto.name());
+        assertEquals(3L, roundTrip.getId());
+        assertEquals("From Record", roundTrip.getName());
+    }
+
+    @Test
+    public void testConverterIsCachedPerTypePair() {
+        // Act & Assert
+        assertSame(AutoConverterFactory.create(TestEntity.class, TestDto.class),
+                AutoConverterFactory.create(TestEntity.class, TestDto.class));
+    }
+
+    @Test
+    public void testRejectsTypeWithoutUsableConstructor() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> AutoConverterFactory.create(TestEntity.class, ImmutableDto.class));
+    }
+
+    // Test classes
+    static class TestEntity {
+        private Long id;
+        private String name;
+        private String secret;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+
+        public void setSecret(String secret) {
+            this.secret = secret;
+        }
+    }
+
+    static class TestDto {
+        private long id;
+        private String name;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    record TestRecord(long id, String name) {
+    }
+
+    static class ImmutableDto {
+        private final String name;
+
+        ImmutableDto(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dev.bnacar.springx.data.converter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ConversionContextTest {
+
+    private final AtomicInteger customerConversions = new AtomicInteger();
+
+    private final EntityDtoConverter<Customer, CustomerDto> customerConverter = new EntityDtoConverter<>(customer -> {
+        customerConversions.incrementAndGet();
+        return new CustomerDto(customer.name);
+    }, null);
+
+    private final EntityDtoConverter<Order, OrderDto> orderConverter = new EntityDtoConverter<>(
+            order -> new OrderDto(order.id, customerConverter.convertToDto(order.customer)), null);
+
+    @Test
+    public void testSharedReferencesAreConvertedOncePerCall() {
+        // Arrange
+        Customer customer = new Customer("Alice");
+        List<Order> orders = Arrays.asList(new Order(1, customer), new Order(2, customer), new Order(3, customer));
+
+        // Act
+        List<OrderDto> dtos = orderConverter.convertToDtoList(orders);
+        OrderDto single = orderConverter.convertToDto(orders.get(0));
+
+        // Assert
+        assertSame(dtos.get(0).customer, dtos.get(2).customer);
+        assertNotSame(dtos.get(0).customer, single.customer);
+        assertEquals(2, customerConversions.get());
+    }
+
+    @Test
+    public void testWithContextSharesAcrossCalls() {
+        // Arrange
+        Customer customer = new Customer("Alice");
+
+        // Act
+        List<OrderDto> dtos = ConversionContext.withContext(() -> Arrays.asList(
+                orderConverter.convertToDto(new Order(1, customer)),
+                orderConverter.convertToDto(new Order(2, customer))));
+
+        // Assert
+        assertSame(dtos.get(0).customer, dtos.get(1).customer);
+        assertEquals(1, customerConversions.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCyclicReferenceIsReported() {
+        // Arrange
+        Node first = new Node();
+        Node second = new Node();
+        first.next = second;
+        second.next = first;
+        EntityDtoConverter<Node, NodeDto>[] holder = new EntityDtoConverter[1];
+        holder[0] = new EntityDtoConverter<>(node -> new NodeDto(holder[0].convertToDto(node.next)), null);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> holder[0].convertToDto(first));
+        assertEquals(NodeDto.class, holder[0].convertToDto(new Node()).getClass());
+    }
+
+    // Test classes
+    static class Customer {
+        private final String name;
+
+        Customer(String name) {
+            this.name = name;
+        }
+    }
+
+    static class Order {
+        private final long id;
+        private final Customer customer;
+
+        Order(long id, Customer customer) {
+            this.id = id;
+            this.customer = customer;
+        }
+    }
+
+    static class Node {
+        private Node next;
+    }
+
+    record CustomerDto(String name) {
+    }
+
+    record OrderDto(long id, CustomerDto customer) {
+    }
+
+    record NodeDto(NodeDto next) {
+    }
+}
@@ -3,9 +3,13 @@ package dev.bnacar.springx.data.converter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +48,101 @@ public class EntityDtoConverterTest {
         assertNull(dto);
     }
 
+    @Test
+    public void testConvertToDtoListParallelPreservesOrder() {
+        // Arrange
+        List<TestEntity> entities = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            entities.add(new TestEntity(i, "Entity " + i));
+        }
+        converter.setParallelThreshold(1_000);
+
+        // Act
+        List<TestDto> dtos = converter.convertToDtoListParallel(entities);
+
+        // Assert
+        assertEquals(10_000, dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            assertEquals((long) i, dtos.get(i).getId());
+        }
+    }
+
+    @Test
+    public void testConvertToDtoStream() {
+        // Arrange
+        Stream<TestEntity> entities = Stream.of(new TestEntity(1L, "First"), new TestEntity(2L, "Second"));
+
+        // Act
+        List<String> names = converter.convertToDtoStream(entities).map(TestDto::getName).collect(Collectors.toList());
+
+        // Assert
+        assertEquals(Arrays.asList("First", "Second"), names);
+    }
+
+    @Test
+    public void testAsDtoViewConvertsOnlyAccessedElements() {
+        // Arrange
+        List<TestEntity> entities = new ArrayList<>();
+        for (long i = 0; i < 10_000; i++) {
+            entities.add(new TestEntity(i, "Entity " + i));
+        }
+        AtomicInteger conversions = new AtomicInteger();
+        EntityDtoConverter<TestEntity, TestDto> countingConverter = new EntityDtoConverter<>(entity -> {
+            conversions.incrementAndGet();
+            return new TestDto(entity.getId(), entity.getName());
+        }, null);
+
+        // Act
+        List<TestDto> view = countingConverter.asDtoView(entities);
+        List<TestDto> page = view.subList(20, 30);
+        TestDto found = view.stream().filter(dto -> dto.getId() == 5L).findFirst().orElse(null);
+
+        // Assert
+        assertEquals(10_000, view.size());
+        assertEquals(20L, page.get(0).getId());
+        assertEquals(5L, found.getId());
+        assertEquals(7, conversions.get());
+        assertThrows(UnsupportedOperationException.class, () -> view.add(new TestDto(1L, "Other")));
+    }
+
+    @Test
+    public void testMemoizingDtoViewConvertsEachElementOnce() {
+        // Arrange
+        AtomicInteger conversions = new AtomicInteger();
+        EntityDtoConverter<TestEntity, TestDto> countingConverter = new EntityDtoConverter<>(entity -> {
+            conversions.incrementAndGet();
+            return new TestDto(entity.getId(), entity.getName());
+        }, null);
+        List<TestDto> view = countingConverter.asDtoView(
+                Arrays.asList(new TestEntity(1L, "First"), null, new TestEntity(3L, "Third")), true);
+
+        // Act
+        TestDto first = view.get(0);
+        TestDto again = view.get(0);
+        List<TestDto> all = new ArrayList<>(view);
+
+        // Assert
+        assertSame(first, again);
+        assertNull(all.get(1));
+        assertEquals("Third", all.get(2).getName());
+        assertEquals(2, conversions.get());
+    }
+
+    @Test
+    public void testMemoizingDtoViewFollowsShrunkenList() {
+        // Arrange
+        List<TestEntity> entities = new ArrayList<>(Arrays.asList(new TestEntity(1L, "First"), new TestEntity(2L, "Second")));
+        List<TestDto> view = converter.asDtoView(entities, true);
+        view.get(1);
+
+        // Act
+        entities.remove(1);
+
+        // Assert
+        assertEquals(1, view.size());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.get(1));
+    }
+
     @Test
     public void testConvertToEntity() {
         // Arrange
@@ -0,0 +1,99 @@
+package dev.bnacar.springx.data.id;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PooledLoIdGeneratorTest {
+
+    @Test
+    public void testIdsAreUniqueAcrossThreadsWithOneFetchPerBlock() throws InterruptedException {
+        // Arrange
+        CountingIncrementer incrementer = new CountingIncrementer(100);
+        PooledLoIdGenerator generator = new PooledLoIdGenerator(incrementer, 100);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 5_000; i++) {
+                    ids.add(generator.nextId());
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        // Assert
+        assertEquals(40_000, ids.size());
+        assertEquals(400, incrementer.fetches.get());
+    }
+
+    @Test
+    public void testSequenceGeneratorAllocatesBlocksFromDatabaseSequence() {
+        // Arrange
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        try {
+            new JdbcTemplate(database).execute("CREATE SEQUENCE order_seq START WITH 1 INCREMENT BY 50");
+            SequenceIdGenerators generators = new SequenceIdGenerators(database, null, 50);
+
+            // Act
+            IdGenerator generator = generators.forSequence("order_seq");
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 120; i++) {
+                ids.add(generator.nextId());
+            }
+            Long sequenceValue = new JdbcTemplate(database).queryForObject("SELECT NEXT VALUE FOR order_seq", Long.class);
+
+            // Assert
+            assertSame(generator, generators.forSequence("order_seq"));
+            assertEquals(1L, ids.get(0));
+            assertEquals(120L, ids.get(119));
+            assertEquals(151L, sequenceValue);
+        } finally {
+            database.shutdown();
+        }
+    }
+
+    // Test incrementer emulating a sequence incremented by the allocation size
+    static class CountingIncrementer implements DataFieldMaxValueIncrementer {
+        private final AtomicLong value = new AtomicLong(1);
+        private final AtomicInteger fetches = new AtomicInteger();
+        private final int increment;
+
+        CountingIncrementer(int increment) {
+            this.increment = increment;
+        }
+
+        @Override
+        public int nextIntValue() {
+            return (int) nextLongValue();
+        }
+
+        @Override
+        public long nextLongValue() {
+            fetches.incrementAndGet();
+            return value.getAndAdd(increment);
+        }
+
+        @Override
+        public String nextStringValue() {
+            return String.valueOf(nextLongValue());
+        }
+    }
+}
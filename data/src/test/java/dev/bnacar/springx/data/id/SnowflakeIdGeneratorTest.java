@@ -0,0 +1,67 @@
+package dev.bnacar.springx.data.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SnowflakeIdGeneratorTest {
+
+    @Test
+    public void testIdsAreIncreasingBeyondSequenceWithinOneMillisecond() {
+        // Arrange
+        Clock clock = Clock.fixed(Instant.ofEpochMilli(SnowflakeIdGenerator.DEFAULT_EPOCH_MILLIS + 1000), ZoneOffset.UTC);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, SnowflakeIdGenerator.DEFAULT_EPOCH_MILLIS, clock);
+
+        // Act
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(generator.nextId());
+        }
+
+        // Assert
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i) > ids.get(i - 1));
+        }
+        assertEquals(clock.millis(), generator.getTimestampMillis(ids.get(0)));
+        assertEquals(7, (ids.get(0) >>> 12) & SnowflakeIdGenerator.MAX_WORKER_ID);
+    }
+
+    @Test
+    public void testIdsAreUniqueAcrossThreads() throws InterruptedException {
+        // Arrange
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        CountDownLatch done = new CountDownLatch(8);
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(generator.nextId());
+                }
+                done.countDown();
+            }).start();
+        }
+        done.await();
+
+        // Assert
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    public void testRejectsWorkerIdOutOfRange() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new SnowflakeIdGenerator(SnowflakeIdGenerator.MAX_WORKER_ID + 1));
+    }
+}
@@ -0,0 +1,94 @@
+package dev.bnacar.springx.data.instrument;
+
+import dev.bnacar.springx.data.query.QueryBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class QueryInstrumentationTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private QueryInstrumentation instrumentation;
+    private final List<StatementExecution> executions = new ArrayList<>();
+    private final List<String> nPlusOnes = new ArrayList<>();
+    private final List<Integer> scopes = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        new JdbcTemplate(database).execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        instrumentation = new QueryInstrumentation(60_000, 3);
+        instrumentation.addListener(new StatementListener() {
+            @Override
+            public void statementExecuted(StatementExecution execution) {
+                executions.add(execution);
+            }
+
+            @Override
+            public void nPlusOneDetected(String label, String sql, int count) {
+                nPlusOnes.add(label);
+            }
+
+            @Override
+            public void scopeCompleted(int statements) {
+                scopes.add(statements);
+            }
+        });
+        jdbcTemplate = new JdbcTemplate(instrumentation.instrument(database));
+    }
+
+    @AfterEach
+    public void teardown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testStatementsAreRecordedWithLabelAndRows() {
+        // Arrange
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'Ann'), (2, 'Bob')");
+
+        // Act
+        List<UserName> names = QueryBuilder.select("name").from("users").label("UserReport.names")
+                .projectTo(jdbcTemplate, UserName.class);
+
+        // Assert
+        assertEquals(2, names.size());
+        assertEquals(2, executions.size());
+        assertEquals(QueryInstrumentation.UNLABELED, executions.get(0).getLabel());
+        assertEquals(2, executions.get(0).getRows());
+        assertEquals("UserReport.names", executions.get(1).getLabel());
+        assertEquals("SELECT name FROM users", executions.get(1).getSql());
+        assertEquals(2, executions.get(1).getRows());
+    }
+
+    @Test
+    public void testRepeatedStatementInScopeIsReportedAsNPlusOne() throws Exception {
+        // Act
+        instrumentation.callInScope(() -> QueryInstrumentation.withLabel("OrderService.list", () -> {
+            for (long id = 1; id <= 5; id++) {
+                jdbcTemplate.queryForList("SELECT name FROM users WHERE id = ?", String.class, id);
+            }
+            return null;
+        }));
+
+        // Assert
+        assertEquals(List.of("OrderService.list"), nPlusOnes);
+        assertEquals(List.of(5), scopes);
+        assertTrue(executions.stream().noneMatch(StatementExecution::isSlow));
+    }
+
+    // Test projection record
+    record UserName(String name) {
+    }
+}
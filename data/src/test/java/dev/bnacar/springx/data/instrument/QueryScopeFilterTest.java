@@ -0,0 +1,73 @@
+package dev.bnacar.springx.data.instrument;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryScopeFilterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private QueryInstrumentation instrumentation;
+    private final List<String> nPlusOnes = new ArrayList<>();
+    private final List<Integer> scopes = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        new JdbcTemplate(database).execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        instrumentation = new QueryInstrumentation(60_000, 3);
+        instrumentation.addListener(new StatementListener() {
+            @Override
+            public void statementExecuted(StatementExecution execution) {
+            }
+
+            @Override
+            public void nPlusOneDetected(String label, String sql, int count) {
+                nPlusOnes.add(sql);
+            }
+
+            @Override
+            public void scopeCompleted(int statements) {
+                scopes.add(statements);
+            }
+        });
+        jdbcTemplate = new JdbcTemplate(instrumentation.instrument(database));
+    }
+
+    @AfterEach
+    public void teardown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testNPlusOneOutsideTransactionIsReportedPerRequest() throws Exception {
+        // Arrange
+        QueryScopeFilter filter = new QueryScopeFilter(instrumentation);
+        FilterChain chain = (request, response) -> {
+            for (long id = 1; id <= 5; id++) {
+                jdbcTemplate.queryForList("SELECT name FROM users WHERE id = ?", String.class, id);
+            }
+        };
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), chain);
+        jdbcTemplate.queryForList("SELECT name FROM users WHERE id = ?", String.class, 6L);
+
+        // Assert
+        assertEquals(List.of("SELECT name FROM users WHERE id = ?"), nPlusOnes);
+        assertEquals(List.of(5), scopes);
+    }
+}
@@ -0,0 +1,116 @@
+package dev.bnacar.springx.data.query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class DtoRowMapperTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, first_name VARCHAR(255), status VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'Ann', 'ACTIVE')");
+        jdbcTemplate.update("INSERT INTO users VALUES (2, NULL, 'BLOCKED')");
+    }
+
+    @AfterEach
+    public void teardown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testProjectIntoRecord() {
+        // Arrange & Act
+        List<UserRecord> users = QueryBuilder.select("id", "first_name", "status")
+                .from("users")
+                .orderBy("id")
+                .projectTo(jdbcTemplate, UserRecord.class);
+
+        // Assert
+        assertEquals(2, users.size());
+        assertEquals(new UserRecord(1, "Ann", Status.ACTIVE, 0), users.get(0));
+        assertNull(users.get(1).firstName());
+        assertEquals(Status.BLOCKED, users.get(1).status());
+    }
+
+    @Test
+    public void testProjectIntoBean() {
+        // Arrange & Act
+        List<UserBean> users = QueryBuilder.select("id", "first_name")
+                .from("users")
+                .where("id = ?", 1)
+                .projectTo(jdbcTemplate, UserBean.class);
+
+        // Assert
+        assertEquals(1, users.size());
+        assertEquals(1L, users.get(0).getId());
+        assertEquals("Ann", users.get(0).getFirstName());
+    }
+
+    @Test
+    public void testSharedMapperHandlesDifferentColumnLists() {
+        // Arrange
+        DtoRowMapper<UserBean> mapper = DtoRowMapper.of(UserBean.class);
+
+        // Act
+        List<UserBean> byId = jdbcTemplate.query("SELECT id, first_name FROM users WHERE id = 1", mapper);
+        List<UserBean> byName = jdbcTemplate.query("SELECT first_name, status, id FROM users WHERE id = 1", mapper);
+
+        // Assert
+        assertEquals("Ann", byId.get(0).getFirstName());
+        assertEquals("Ann", byName.get(0).getFirstName());
+        assertEquals(1L, byName.get(0).getId());
+    }
+
+    @Test
+    public void testMapperIsSharedPerType() {
+        // Arrange & Act & Assert
+        assertSame(DtoRowMapper.of(UserRecord.class), DtoRowMapper.of(UserRecord.class));
+    }
+
+    // Test enum mapped from a VARCHAR column
+    enum Status {
+        ACTIVE, BLOCKED
+    }
+
+    // Test record; loginCount has no column and takes its default value
+    record UserRecord(long id, String firstName, Status status, int loginCount) {
+    }
+
+    // Test bean class
+    public static class UserBean {
+        private Long id;
+        private String firstName;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public void setFirstName(String firstName) {
+            this.firstName = firstName;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package dev.bnacar.springx.data.query;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryBuilderStreamTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        for (long i = 1; i <= 25; i++) {
+            jdbcTemplate.update("INSERT INTO users VALUES (?, ?)", i, "User " + i);
+        }
+    }
+
+    @AfterEach
+    public void teardown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testStreamMapsMatchingRows() {
+        // Arrange
+        QueryBuilder queryBuilder = QueryBuilder.select("name").from("users").where("id > ?", 20).orderBy("id");
+
+        // Act
+        List<String> names;
+        try (Stream<String> rows = queryBuilder.stream(jdbcTemplate, (rs, rowNum) -> rs.getString("name"), 2)) {
+            names = rows.collect(Collectors.toList());
+        }
+
+        // Assert
+        assertEquals(List.of("User 21", "User 22", "User 23", "User 24", "User 25"), names);
+    }
+
+    @Test
+    public void testForEachBatchPassesFullAndPartialBatches() {
+        // Arrange
+        QueryBuilder queryBuilder = QueryBuilder.select("id").from("users").orderBy("id");
+        List<Integer> batchSizes = new ArrayList<>();
+
+        // Act
+        long count = queryBuilder.forEachBatch(jdbcTemplate, (rs, rowNum) -> rs.getLong("id"), 10,
+                batch -> batchSizes.add(batch.size()));
+
+        // Assert
+        assertEquals(25, count);
+        assertEquals(List.of(10, 10, 5), batchSizes);
+    }
+
+    @Test
+    public void testCompiledTemplateRunsWithNewParameters() {
+        // Arrange
+        QueryTemplate template = QueryBuilder.select("name").from("users").where("id > ?", 0).orderBy("id").compile();
+        List<Integer> batchSizes = new ArrayList<>();
+
+        // Act
+        List<String> names = template.query(jdbcTemplate, (rs, rowNum) -> rs.getString("name"), 23);
+        long count = template.forEachBatch(jdbcTemplate, (rs, rowNum) -> rs.getString("name"), 2,
+                batch -> batchSizes.add(batch.size()), 20);
+
+        // Assert
+        assertEquals(List.of("User 24", "User 25"), names);
+        assertEquals(5, count);
+        assertEquals(List.of(2, 2, 1), batchSizes);
+    }
+}
@@ -2,6 +2,13 @@ package dev.bnacar.springx.data.query;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -133,4 +140,187 @@ public class QueryBuilderTest {
             QueryBuilder.select().from("users").or("id = ?", 1);
         });
     }
+
+    @Test
+    public void testCompileKeepsShapeLabelAndTables() {
+        // Arrange & Act
+        QueryTemplate template = QueryBuilder.select("u.id")
+                .from("users u")
+                .join("orders o", "o.user_id = u.id")
+                .where("status = ?", "active")
+                .limit(10)
+                .label("active users")
+                .compile();
+
+        // Assert
+        assertEquals("SELECT u.id FROM users u JOIN orders o ON o.user_id = u.id WHERE status = ? LIMIT ?",
+                template.getQuery());
+        assertEquals(2, template.getParameterCount());
+        assertEquals("active users", template.getLabel());
+        assertEquals(Set.of("users", "orders"), template.getTables());
+        assertArrayEquals(new Object[]{"blocked", 5}, template.bind("blocked", 5));
+    }
+
+    @Test
+    public void testBindWithWrongParameterCount() {
+        // Arrange
+        QueryTemplate template = QueryBuilder.select().from("users").where("id = ?", 1).compile();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> template.bind(1, 2));
+    }
+
+    @Test
+    public void testWhereInPadsToPowerOfTwo() {
+        // Arrange & Act
+        QueryBuilder queryBuilder = QueryBuilder.select()
+                .from("users")
+                .where("status = ?", "active")
+                .whereIn("id", Arrays.asList(1, 2, 3));
+
+        // Assert
+        assertEquals("SELECT * FROM users WHERE status = ? AND id IN (?, ?, ?, ?)", queryBuilder.getQuery());
+        assertArrayEquals(new Object[]{"active", 1, 2, 3, 3}, queryBuilder.getParameters());
+    }
+
+    @Test
+    public void testWhereInSplitsLargeLists() {
+        // Arrange
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < QueryBuilder.MAX_IN_LIST_SIZE + 88; i++) {
+            ids.add(i);
+        }
+
+        // Act
+        QueryBuilder queryBuilder = QueryBuilder.select().from("users").whereIn("id", ids);
+
+        // Assert
+        String query = queryBuilder.getQuery();
+        assertEquals(2, query.split(" IN ").length - 1);
+        assertEquals(QueryBuilder.MAX_IN_LIST_SIZE + 128, queryBuilder.getParameters().length);
+        assertEquals(ids.size() - 1, queryBuilder.getParameters()[queryBuilder.getParameters().length - 1]);
+    }
+
+    @Test
+    public void testWhereInWithEmptyList() {
+        // Arrange & Act
+        QueryBuilder queryBuilder = QueryBuilder.select().from("users").whereIn("id", Collections.emptyList());
+
+        // Assert
+        assertEquals("SELECT * FROM users WHERE 1 = 0", queryBuilder.getQuery());
+        assertEquals(0, queryBuilder.getParameters().length);
+    }
+
+    @Test
+    public void testSeekAfterWithUniformDirection() {
+        // Arrange
+        String[] sort = {"created_at DESC", "id DESC"};
+
+        // Act
+        QueryBuilder queryBuilder = QueryBuilder.select()
+                .from("orders")
+                .seekAfter(sort, new Object[]{"2023-01-01", 42})
+                .orderBy(sort)
+                .limit(20);
+
+        // Assert
+        assertEquals("SELECT * FROM orders WHERE (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC LIMIT ?",
+                queryBuilder.getQuery());
+        assertArrayEquals(new Object[]{"2023-01-01", 42, 20}, queryBuilder.getParameters());
+    }
+
+    @Test
+    public void testSeekAfterWithMixedDirections() {
+        // Arrange
+        String[] sort = {"status", "created_at DESC", "id"};
+
+        // Act
+        QueryBuilder queryBuilder = QueryBuilder.select()
+                .from("orders")
+                .where("customer_id = ?", 7)
+                .seekAfter(sort, new Object[]{"open", "2023-01-01", 42});
+
+        // Assert
+        assertEquals("SELECT * FROM orders WHERE customer_id = ? AND (status > ?"
+                        + " OR (status = ? AND created_at < ?)"
+                        + " OR (status = ? AND created_at = ? AND id > ?))",
+                queryBuilder.getQuery());
+        assertArrayEquals(new Object[]{7, "open", "open", "2023-01-01", "open", "2023-01-01", 42},
+                queryBuilder.getParameters());
+    }
+
+    @Test
+    public void testSeekAfterFirstPage() {
+        // Arrange & Act
+        QueryBuilder queryBuilder = QueryBuilder.select().from("orders").seekAfter(new String[]{"id"}, null).orderBy("id");
+
+        // Assert
+        assertEquals("SELECT * FROM orders ORDER BY id", queryBuilder.getQuery());
+    }
+
+    @Test
+    public void testSelectWithJoinsGroupByAndHaving() {
+        // Arrange & Act
+        QueryBuilder queryBuilder = QueryBuilder.select("u.name", "COUNT(o.id)")
+                .from("users u")
+                .join("orders o", "o.user_id = u.id AND o.status = ?", "paid")
+                .where("u.active = ?", true)
+                .groupBy("u.name")
+                .having("COUNT(o.id) > ?", 2)
+                .orderBy("u.name");
+
+        // Assert
+        assertEquals("SELECT u.name, COUNT(o.id) FROM users u JOIN orders o ON o.user_id = u.id AND o.status = ?"
+                        + " WHERE u.active = ? GROUP BY u.name HAVING COUNT(o.id) > ? ORDER BY u.name",
+                queryBuilder.getQuery());
+        assertArrayEquals(new Object[]{"paid", true, 2}, queryBuilder.getParameters());
+    }
+
+    @Test
+    public void testCountQueryDropsOrderingPagingAndUnusedJoins() {
+        // Arrange
+        QueryBuilder queryBuilder = QueryBuilder.select("u.id", "a.city", "p.bio")
+                .from("users u")
+                .leftJoinToOne("addresses a", "a.user_id = u.id")
+                .leftJoinToOne("profiles p", "p.user_id = u.id")
+                .where("p.public = ?", true)
+                .orderBy("u.id")
+                .limit(10)
+                .offset(20);
+
+        // Act
+        QueryBuilder countQuery = queryBuilder.toCountQuery();
+
+        // Assert
+        assertEquals("SELECT COUNT(*) FROM users u LEFT JOIN profiles p ON p.user_id = u.id WHERE p.public = ?",
+                countQuery.getQuery());
+        assertArrayEquals(new Object[]{true}, countQuery.getParameters());
+    }
+
+    @Test
+    public void testCountQueryOfGroupedQueryUsesSubquery() {
+        // Arrange
+        QueryBuilder queryBuilder = QueryBuilder.select("status", "COUNT(*)")
+                .from("orders")
+                .where("total > ?", 5)
+                .groupBy("status")
+                .orderBy("status")
+                .limit(5);
+
+        // Act
+        QueryBuilder countQuery = queryBuilder.toCountQuery();
+
+        // Assert
+        assertEquals("SELECT COUNT(*) FROM (SELECT status, COUNT(*) FROM orders WHERE total > ? GROUP BY status) counted",
+                countQuery.getQuery());
+        assertArrayEquals(new Object[]{5}, countQuery.getParameters());
+    }
+
+    @Test
+    public void testHavingWithoutGroupBy() {
+        // Arrange & Act & Assert
+        assertThrows(IllegalStateException.class, () -> {
+            QueryBuilder.select().from("orders").having("COUNT(*) > ?", 1);
+        });
+    }
 }
@@ -0,0 +1,162 @@
+package dev.bnacar.springx.data.query;
+
+import dev.bnacar.springx.data.bulk.TableWriteEvent;
+import dev.bnacar.springx.data.repository.EntityChangeEvent;
+import jakarta.persistence.Entity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class QueryResultCacheTest {
+
+    private static final RowMapper<String> NAME_MAPPER = (rs, rowNum) -> rs.getString("name");
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private QueryResultCache cache;
+
+    @BeforeEach
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE order_line (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO order_line VALUES (1, 'Line 1')");
+        jdbcTemplate.update("INSERT INTO users VALUES (1, 'User 1')");
+        cache = new QueryResultCache(100, 60);
+    }
+
+    @AfterEach
+    public void teardown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testIdenticalQueriesAreServedFromCache() {
+        // Arrange
+        List<String> first = cache.query(jdbcTemplate, lineNames(), NAME_MAPPER);
+        jdbcTemplate.update("INSERT INTO order_line VALUES (2, 'Line 2')");
+
+        // Act
+        List<String> second = cache.query(jdbcTemplate, lineNames(), NAME_MAPPER);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(Collections.singletonList("Line 1"), second);
+    }
+
+    @Test
+    public void testBulkWriteInvalidatesOnlyAffectedTable() {
+        // Arrange
+        cache.query(jdbcTemplate, lineNames(), NAME_MAPPER);
+        List<String> users = cache.query(jdbcTemplate, QueryBuilder.select("name").from("users u"), NAME_MAPPER);
+        jdbcTemplate.update("INSERT INTO order_line VALUES (2, 'Line 2')");
+
+        // Act
+        cache.onTableWrite(new TableWriteEvent(this, "PUBLIC.ORDER_LINE", 1));
+
+        // Assert
+        assertEquals(2, cache.query(jdbcTemplate, lineNames(), NAME_MAPPER).size());
+        assertSame(users, cache.query(jdbcTemplate, QueryBuilder.select("name").from("users u"), NAME_MAPPER));
+    }
+
+    @Test
+    public void testRepositoryChangeInvalidatesEntityTable() {
+        // Arrange
+        cache.query(jdbcTemplate, lineNames(), NAME_MAPPER);
+        jdbcTemplate.update("INSERT INTO order_line VALUES (2, 'Line 2')");
+
+        // Act
+        cache.onEntityChange(new EntityChangeEvent(this, OrderLine.class,
+                EntityChangeEvent.ChangeType.CREATED, Collections.singletonList(2L)));
+
+        // Assert
+        assertEquals(2, cache.query(jdbcTemplate, lineNames(), NAME_MAPPER).size());
+    }
+
+    @Test
+    public void testRolledBackWritesAreNotCached() {
+        // Arrange
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(database));
+
+        // Act
+        List<String> withinTransaction = transaction.execute(status -> {
+            jdbcTemplate.update("INSERT INTO order_line VALUES (2, 'Line 2')");
+            cache.onEntityChange(new EntityChangeEvent(this, OrderLine.class,
+                    EntityChangeEvent.ChangeType.CREATED, Collections.singletonList(2L)));
+            List<String> result = cache.query(jdbcTemplate, lineNames(), NAME_MAPPER);
+            status.setRollbackOnly();
+            return result;
+        });
+        List<String> afterRollback = cache.query(jdbcTemplate, lineNames(), NAME_MAPPER);
+
+        // Assert
+        assertEquals(2, withinTransaction.size());
+        assertEquals(Collections.singletonList("Line 1"), afterRollback);
+    }
+
+    @Test
+    public void testTemplateResultsAreCachedPerParametersAndInvalidatedByTable() {
+        // Arrange
+        QueryTemplate template = lineNames().compile();
+        List<String> first = cache.query(jdbcTemplate, template, NAME_MAPPER, 0);
+        jdbcTemplate.update("INSERT INTO order_line VALUES (2, 'Line 2')");
+
+        // Act
+        List<String> cached = cache.query(jdbcTemplate, template, NAME_MAPPER, 0);
+        List<String> otherParameter = cache.query(jdbcTemplate, template, NAME_MAPPER, 1);
+        cache.onTableWrite(new TableWriteEvent(this, "order_line", 1));
+        List<String> invalidated = cache.query(jdbcTemplate, template, NAME_MAPPER, 0);
+
+        // Assert
+        assertSame(first, cached);
+        assertEquals(Collections.singletonList("Line 2"), otherParameter);
+        assertEquals(2, invalidated.size());
+    }
+
+    @Test
+    public void testSameQueryProjectedIntoDifferentTypesIsCachedSeparately() {
+        // Arrange
+        QueryBuilder query = QueryBuilder.select("id", "name").from("order_line").orderBy("id");
+
+        // Act
+        List<LineRecord> records = cache.query(jdbcTemplate, query, LineRecord.class);
+        List<LineName> names = cache.query(jdbcTemplate, query, LineName.class);
+
+        // Assert
+        assertEquals(new LineRecord(1L, "Line 1"), records.get(0));
+        assertEquals("Line 1", names.get(0).name());
+        assertSame(records, cache.query(jdbcTemplate, query, LineRecord.class));
+    }
+
+    // Query reading from the order_line table
+    private static QueryBuilder lineNames() {
+        return QueryBuilder.select("name").from("order_line").where("id > ?", 0).orderBy("id");
+    }
+
+    // Test record projected from order_line rows
+    record LineRecord(long id, String name) {
+    }
+
+    // Test record projecting only the name of order_line rows
+    record LineName(String name) {
+    }
+
+    // Test entity class mapped to the order_line table
+    @Entity
+    static class OrderLine {
+    }
+}
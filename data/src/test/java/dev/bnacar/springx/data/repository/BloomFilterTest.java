@@ -0,0 +1,79 @@
+package dev.bnacar.springx.data.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BloomFilterTest {
+
+    @Test
+    public void testAddedElementsArePresent() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        // Act
+        for (long id = 0; id < 1000; id++) {
+            filter.add(id);
+        }
+
+        // Assert
+        for (long id = 0; id < 1000; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+    }
+
+    @Test
+    public void testFalsePositiveRateIsBounded() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (long id = 0; id < 10_000; id++) {
+            filter.add(id);
+        }
+
+        // Act
+        int falsePositives = 0;
+        for (long id = 10_000; id < 110_000; id++) {
+            if (filter.mightContain(id)) {
+                falsePositives++;
+            }
+        }
+
+        // Assert
+        assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    }
+
+    @Test
+    public void testIntegralIdsOfDifferentTypesMatch() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(100, 0.01);
+
+        // Act
+        filter.add(7);
+
+        // Assert
+        assertTrue(filter.mightContain(7L));
+    }
+
+    @Test
+    public void testUuidIds() {
+        // Arrange
+        BloomFilter filter = new BloomFilter(100, 0.01);
+        UUID id = UUID.randomUUID();
+
+        // Act
+        filter.add(id);
+
+        // Assert
+        assertTrue(filter.mightContain(id));
+    }
+
+    @Test
+    public void testInvalidArguments() {
+        // Arrange & Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(100, 1.0));
+    }
+}
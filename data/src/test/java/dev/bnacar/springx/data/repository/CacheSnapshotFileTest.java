@@ -0,0 +1,164 @@
+package dev.bnacar.springx.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CacheSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTripRestoresKeysExpirationsAndValues() throws Exception {
+        // Arrange
+        byte[] large = new byte[200_000];
+        Arrays.fill(large, (byte) 7);
+        Map<String, List<CacheSnapshotFile.Entry>> caches = new LinkedHashMap<>();
+        caches.put("Users#findById", Arrays.asList(
+                CacheSnapshotFile.Entry.of("1", 1000L, "Alice"),
+                CacheSnapshotFile.Entry.of("2", 2000L, null),
+                CacheSnapshotFile.Entry.of("3", 3000L, Optional.empty()),
+                CacheSnapshotFile.Entry.of("4", 4000L, Optional.of("Bob"))));
+        caches.put("Files#findById", Collections.singletonList(CacheSnapshotFile.Entry.of("5", 5000L, large)));
+        Path file = directory.resolve("caches.snapshot");
+
+        // Act
+        CacheSnapshotFile.write(file, caches);
+        Map<String, List<CacheSnapshotFile.Entry>> read = CacheSnapshotFile.read(file);
+
+        // Assert
+        assertEquals(Arrays.asList("Users#findById", "Files#findById"), new ArrayList<>(read.keySet()));
+        List<CacheSnapshotFile.Entry> users = read.get("Users#findById");
+        assertEquals(4, users.size());
+        assertEquals("1", users.get(0).getKey());
+        assertEquals(1000L, users.get(0).getExpirationTime());
+        assertEquals("Alice", users.get(0).getValue());
+        assertNull(users.get(1).getValue());
+        assertEquals(Optional.empty(), users.get(2).getValue());
+        assertEquals(Optional.of("Bob"), users.get(3).getValue());
+        assertArrayEquals(large, (byte[]) read.get("Files#findById").get(0).getValue());
+    }
+
+    @Test
+    public void testSnapshotCanBeReplacedAfterReading() throws Exception {
+        // Arrange
+        Path file = directory.resolve("caches.snapshot");
+        CacheSnapshotFile.write(file, Collections.singletonMap("Users#findById",
+                Collections.singletonList(CacheSnapshotFile.Entry.of("1", 1000L, "Alice"))));
+        CacheSnapshotFile.read(file);
+
+        // Act
+        CacheSnapshotFile.write(file, Collections.singletonMap("Users#findById",
+                Collections.singletonList(CacheSnapshotFile.Entry.of("1", 1000L, "Carol"))));
+
+        // Assert
+        assertEquals("Carol", CacheSnapshotFile.read(file).get("Users#findById").get(0).getValue());
+        assertTrue(Files.notExists(directory.resolve("caches.snapshot.tmp")));
+    }
+
+    @Test
+    public void testOtherVersionIsRejected() throws Exception {
+        // Arrange
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putInt(Integer.BYTES, 2);
+        Files.write(file, bytes);
+
+        // Act
+        IOException exception = assertThrows(IOException.class, () -> CacheSnapshotFile.read(file));
+
+        // Assert
+        assertTrue(exception.getMessage().contains("version 2"));
+    }
+
+    @Test
+    public void testTruncatedFileIsRejected() throws Exception {
+        // Arrange
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Act & Assert
+        for (int length : new int[]{0, 6, 14, bytes.length - 1}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            assertThrows(IOException.class, () -> CacheSnapshotFile.read(file), "Truncated to " + length + " bytes");
+        }
+    }
+
+    @Test
+    public void testCorruptFileIsRejected() throws Exception {
+        // Arrange
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+        // A cache name length far beyond the file size must not be allocated
+        ByteBuffer.wrap(bytes).putInt(3 * Integer.BYTES, Integer.MAX_VALUE);
+        Files.write(file, bytes);
+        Path garbage = directory.resolve("garbage.snapshot");
+        Files.write(garbage, "not a cache snapshot".getBytes(StandardCharsets.UTF_8));
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(file));
+        assertThrows(IOException.class, () -> CacheSnapshotFile.read(garbage));
+    }
+
+    @Test
+    public void testCorruptValueFailsOnlyThatEntry() throws Exception {
+        // Arrange
+        Path file = writeSnapshot();
+        byte[] bytes = Files.readAllBytes(file);
+        // Overwrite the Java serialization stream magic at the start of the value
+        int valueOffset = bytes.length - 2;
+        while (bytes[valueOffset] != (byte) 0xAC || bytes[valueOffset + 1] != (byte) 0xED) {
+            valueOffset--;
+        }
+        bytes[valueOffset] = 0;
+        Files.write(file, bytes);
+
+        // Act
+        CacheSnapshotFile.Entry entry = CacheSnapshotFile.read(file).get("Users#findById").get(0);
+
+        // Assert
+        assertEquals("1", entry.getKey());
+        assertThrows(IOException.class, entry::getValue);
+    }
+
+    @Test
+    public void testUnserializableValueIsRejected() {
+        // Act & Assert
+        assertThrows(NotSerializableException.class, () -> CacheSnapshotFile.Entry.of("1", 1000L, new Object()));
+        assertThrows(NotSerializableException.class,
+                () -> CacheSnapshotFile.Entry.of("1", 1000L, Optional.of(new Object())));
+    }
+
+    /**
+     * Writes a snapshot holding one entry.
+     *
+     * @return the snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    private Path writeSnapshot() throws IOException {
+        Path file = directory.resolve("caches.snapshot");
+        CacheSnapshotFile.write(file, Collections.singletonMap("Users#findById",
+                Collections.singletonList(CacheSnapshotFile.Entry.of("1", 1000L, "Alice"))));
+        return file;
+    }
+}
@@ -0,0 +1,60 @@
+package dev.bnacar.springx.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class CacheSnapshotManagerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testMissingSnapshotIsNotRead() throws Exception {
+        // Arrange
+        CacheableRepositoryAspect aspect = mock(CacheableRepositoryAspect.class);
+        CacheSnapshotManager manager = new CacheSnapshotManager(aspect, directory.resolve("caches.snapshot"));
+
+        // Act
+        manager.afterPropertiesSet();
+
+        // Assert
+        verify(aspect, never()).readSnapshot(any());
+    }
+
+    @Test
+    public void testUnreadableSnapshotDoesNotFailStartup() throws Exception {
+        // Arrange
+        Path file = directory.resolve("caches.snapshot");
+        Files.write(file, "not a cache snapshot".getBytes(StandardCharsets.UTF_8));
+        CacheSnapshotManager manager = new CacheSnapshotManager(new CacheableRepositoryAspect(), file);
+
+        // Act & Assert
+        assertDoesNotThrow(manager::afterPropertiesSet);
+    }
+
+    @Test
+    public void testSnapshotWrittenOnShutdownIsReadAtStartup() throws Exception {
+        // Arrange
+        Path file = directory.resolve("snapshots").resolve("caches.snapshot");
+        new CacheSnapshotManager(new CacheableRepositoryAspect(), file).destroy();
+        CacheableRepositoryAspect restarted = mock(CacheableRepositoryAspect.class);
+
+        // Act
+        new CacheSnapshotManager(restarted, file).afterPropertiesSet();
+
+        // Assert
+        assertTrue(Files.exists(file));
+        verify(restarted).readSnapshot(file);
+    }
+}
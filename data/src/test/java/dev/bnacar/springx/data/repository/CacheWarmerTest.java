@@ -0,0 +1,145 @@
+package dev.bnacar.springx.data.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class CacheWarmerTest {
+
+    @Test
+    public void testWarmUpInvokesAnnotatedMethods() throws InterruptedException {
+        // Arrange
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean("testRepository", TestRepository.class);
+        context.refresh();
+        CacheWarmer warmer = new CacheWarmer(mock(RepositoryEntityResolver.class), Collections.emptyMap(), 2, 10);
+
+        // Act
+        warmer.warmUp(context);
+
+        // Assert
+        TestRepository repository = context.getBean(TestRepository.class);
+        assertEquals(1, repository.findAllCalls.get());
+        assertEquals(1, repository.findActiveCalls.get());
+        assertEquals(0, repository.findByNameCalls.get());
+        assertEquals(CacheWarmer.State.COMPLETED, warmer.getState());
+        assertEquals(3, warmer.getTotalTasks());
+        assertEquals(2, warmer.getCompletedTasks());
+        assertEquals(1, warmer.getFailedTasks());
+        context.close();
+    }
+
+    @Test
+    public void testWarmUpStopsAtTimeBudget() throws InterruptedException {
+        // Arrange
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean("slowRepository", SlowRepository.class);
+        context.refresh();
+        CacheWarmer warmer = new CacheWarmer(mock(RepositoryEntityResolver.class), Collections.emptyMap(), 1, 1);
+
+        // Act
+        long start = System.currentTimeMillis();
+        warmer.warmUp(context);
+
+        // Assert
+        assertEquals(CacheWarmer.State.TIMED_OUT, warmer.getState());
+        assertEquals(0, warmer.getCompletedTasks());
+        assertTrue(System.currentTimeMillis() - start < 5_000);
+        context.close();
+    }
+
+    @Test
+    public void testWarmUpInvokesMethodsOnceThroughJdkProxy() throws InterruptedException {
+        // Arrange
+        CountingRepositoryImpl target = new CountingRepositoryImpl();
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(CountingRepository.class);
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.registerBean("countingRepository", CountingRepository.class, () -> (CountingRepository) proxyFactory.getProxy());
+        context.refresh();
+        CacheWarmer warmer = new CacheWarmer(mock(RepositoryEntityResolver.class), Collections.emptyMap(), 2, 10);
+
+        // Act
+        warmer.warmUp(context);
+
+        // Assert
+        assertEquals(1, target.findAllCalls.get());
+        assertEquals(1, warmer.getTotalTasks());
+        assertEquals(1, warmer.getCompletedTasks());
+        assertEquals(0, warmer.getFailedTasks());
+        context.close();
+    }
+
+    @Test
+    public void testNonPositiveParallelismIsRejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new CacheWarmer(mock(RepositoryEntityResolver.class), Collections.emptyMap(), 0, 10));
+    }
+
+    @Repository
+    public interface CountingRepository {
+
+        @WarmUp
+        String findAll();
+    }
+
+    public static class CountingRepositoryImpl implements CountingRepository {
+        private final AtomicInteger findAllCalls = new AtomicInteger();
+
+        @WarmUp
+        @Override
+        public String findAll() {
+            findAllCalls.incrementAndGet();
+            return "all";
+        }
+    }
+
+    @Repository
+    public static class TestRepository {
+        private final AtomicInteger findAllCalls = new AtomicInteger();
+        private final AtomicInteger findActiveCalls = new AtomicInteger();
+        private final AtomicInteger findByNameCalls = new AtomicInteger();
+
+        @WarmUp
+        public String findAll() {
+            findAllCalls.incrementAndGet();
+            return "all";
+        }
+
+        @WarmUp
+        public String findActive() {
+            findActiveCalls.incrementAndGet();
+            return "active";
+        }
+
+        @WarmUp
+        public String findBroken() {
+            throw new IllegalStateException("Broken");
+        }
+
+        public String findByName(String name) {
+            findByNameCalls.incrementAndGet();
+            return name;
+        }
+    }
+
+    @Repository
+    public static class SlowRepository {
+
+        @WarmUp
+        public String findAll() throws InterruptedException {
+            Thread.sleep(30_000);
+            return "all";
+        }
+    }
+}
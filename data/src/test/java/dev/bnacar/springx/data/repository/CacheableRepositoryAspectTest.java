@@ -5,13 +5,21 @@ import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -135,6 +143,175 @@ public class CacheableRepositoryAspectTest {
         verify(joinPoint, times(2)).proceed(); // Should proceed twice because null results are not cached
     }
 
+    @Test
+    public void testCacheStatistics() throws Throwable {
+        // Arrange
+        Method method = TestRepository.class.getMethod("findById", Long.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{1L});
+        when(joinPoint.proceed()).thenReturn("Result for ID 1");
+
+        // Act
+        aspect.cacheable(joinPoint);
+        aspect.cacheable(joinPoint);
+        aspect.cacheable(joinPoint);
+
+        // Assert
+        CacheStatistics statistics = aspect.getCacheStatistics("TestRepository#findById");
+        assertEquals(2, statistics.getHitCount());
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getLoadCount());
+        assertEquals(0, statistics.getLoadFailureCount());
+        assertEquals(1, aspect.getCacheSize("TestRepository#findById"));
+    }
+
+    @Test
+    public void testCacheStatisticsLoadFailure() throws Throwable {
+        // Arrange
+        Method method = TestRepository.class.getMethod("findById", Long.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{1L});
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> aspect.cacheable(joinPoint));
+
+        // Assert
+        CacheStatistics statistics = aspect.getCacheStatistics("TestRepository#findById");
+        assertEquals(1, statistics.getMissCount());
+        assertEquals(1, statistics.getLoadFailureCount());
+        assertEquals(0, aspect.getCacheSize("TestRepository#findById"));
+    }
+
+    @Test
+    public void testClearCache() throws Throwable {
+        // Arrange
+        Method method = TestRepository.class.getMethod("findById", Long.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{1L});
+        when(joinPoint.proceed()).thenReturn("Result for ID 1");
+        aspect.cacheable(joinPoint);
+
+        // Act
+        boolean cleared = aspect.clearCache("TestRepository#findById");
+        aspect.cacheable(joinPoint);
+
+        // Assert
+        assertTrue(cleared);
+        assertFalse(aspect.clearCache("UnknownRepository#findById"));
+        assertEquals(1, aspect.getCacheStatistics("TestRepository#findById").getEvictionCount(EvictionCause.EXPLICIT));
+        verify(joinPoint, times(2)).proceed();
+    }
+
+    @Test
+    public void testWeightBudgetEvictsOldestEntries() throws Throwable {
+        // Arrange
+        Method method = TestRepository.class.getMethod("findByName", String.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(joinPoint.proceed()).thenReturn("Result");
+
+        // Act - Each entry weighs 10, the budget holds two
+        for (String name : new String[]{"a", "b", "c"}) {
+            when(joinPoint.getArgs()).thenReturn(new Object[]{name});
+            aspect.cacheable(joinPoint);
+        }
+        when(joinPoint.getArgs()).thenReturn(new Object[]{"a"});
+        aspect.cacheable(joinPoint);
+
+        // Assert
+        assertEquals(2, aspect.getCacheSize("TestRepository#findByName"));
+        assertEquals(20, aspect.getCacheWeight("TestRepository#findByName"));
+        assertEquals(2, aspect.getCacheStatistics("TestRepository#findByName").getEvictionCount(EvictionCause.SIZE));
+        verify(joinPoint, times(4)).proceed(); // "a" was evicted and loaded again
+    }
+
+    @Test
+    public void testSnapshotRestoresEntries(@TempDir Path directory) throws Throwable {
+        // Arrange
+        Method method = TestRepository.class.getMethod("findById", Long.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{1L});
+        when(joinPoint.proceed()).thenReturn("Result for ID 1");
+        aspect.cacheable(joinPoint);
+        Path file = directory.resolve("caches.snapshot");
+
+        // Act
+        int written = aspect.writeSnapshot(file);
+        CacheableRepositoryAspect restarted = new CacheableRepositoryAspect();
+        int read = restarted.readSnapshot(file);
+        Object result = restarted.cacheable(joinPoint);
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals(1, read);
+        assertEquals("Result for ID 1", result);
+        assertEquals(1, restarted.getCacheStatistics("TestRepository#findById").getHitCount());
+        verify(joinPoint, times(1)).proceed(); // The restarted aspect was served from the snapshot
+    }
+
+    @Test
+    public void testSnapshotSkipsValuesThatCannotBeSerialized(@TempDir Path directory) throws Throwable {
+        // Arrange
+        Method method = TestRepository.class.getMethod("findById", Long.class);
+        when(methodSignature.getMethod()).thenReturn(method);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{1L});
+        when(joinPoint.proceed()).thenReturn("Result for ID 1");
+        aspect.cacheable(joinPoint);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{2L});
+        when(joinPoint.proceed()).thenReturn(new Object());
+        aspect.cacheable(joinPoint);
+        Path file = directory.resolve("caches.snapshot");
+
+        // Act
+        int written = aspect.writeSnapshot(file);
+        int read = new CacheableRepositoryAspect().readSnapshot(file);
+
+        // Assert
+        assertEquals(1, written);
+        assertEquals(1, read);
+    }
+
+    @Test
+    public void testBatchLookupLoadsOnlyMissingIds() throws Throwable {
+        // Arrange
+        RepositoryEntityResolver resolver = mock(RepositoryEntityResolver.class);
+        TestRepository repository = new TestRepository();
+        when(resolver.getDomainType(repository)).thenAnswer(invocation -> String.class);
+        when(resolver.getId(eq(String.class), any())).thenAnswer(
+                invocation -> Long.valueOf(invocation.<String>getArgument(1).substring("Result for ID ".length())));
+        aspect.setEntityResolver(resolver);
+        when(joinPoint.getThis()).thenReturn(repository);
+
+        Method findById = TestRepository.class.getMethod("findById", Long.class);
+        Method findAllById = TestRepository.class.getMethod("findAllById", Iterable.class);
+        when(methodSignature.getMethod()).thenReturn(findById, findAllById, findById);
+        when(joinPoint.proceed()).thenReturn("Result for ID 1");
+        when(joinPoint.proceed(any(Object[].class))).thenAnswer(invocation -> {
+            List<String> loaded = new ArrayList<>();
+            for (Object id : (List<?>) invocation.<Object[]>getArgument(0)[0]) {
+                if (!id.equals(3L)) {
+                    loaded.add("Result for ID " + id);
+                }
+            }
+            return loaded;
+        });
+
+        // Act
+        when(joinPoint.getArgs()).thenReturn(new Object[]{1L});
+        aspect.cacheable(joinPoint);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{Arrays.asList(1L, 2L, 3L, 2L)});
+        Object result = aspect.cacheableBatch(joinPoint);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{3L});
+        Object absent = aspect.cacheable(joinPoint);
+
+        // Assert
+        assertEquals(Arrays.asList("Result for ID 1", "Result for ID 2"), result);
+        assertNull(absent);
+        assertEquals(3, aspect.getCacheSize("TestRepository#findById"));
+        verify(joinPoint, times(1)).proceed(new Object[]{Arrays.asList(2L, 3L)});
+        verify(joinPoint, times(1)).proceed(); // Id 3 was cached as absent by the batch lookup
+    }
+
     // Test repository class with annotated methods
     static class TestRepository {
 
@@ -143,6 +320,11 @@ public class CacheableRepositoryAspectTest {
             return "Result for ID " + id;
         }
 
+        @CacheableBatch
+        public List<String> findAllById(Iterable<Long> ids) {
+            return new ArrayList<>();
+        }
+
         @Cacheable(ttlSeconds = 300, cacheNull = true)
         public String findByIdWithNullCaching(Long id) {
             return null;
@@ -152,5 +334,19 @@ public class CacheableRepositoryAspectTest {
         public String findByIdWithNoNullCaching(Long id) {
             return null;
         }
+
+        @Cacheable(ttlSeconds = 300, maxWeight = 25, weigher = FixedWeigher.class)
+        public String findByName(String name) {
+            return "Result";
+        }
+    }
+
+    // Weigher giving every entry the same weight
+    public static class FixedWeigher implements Weigher {
+
+        @Override
+        public long weigh(String key, Object value) {
+            return 10;
+        }
     }
 }
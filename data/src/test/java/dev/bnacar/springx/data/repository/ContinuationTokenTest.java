@@ -0,0 +1,43 @@
+package dev.bnacar.springx.data.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ContinuationTokenTest {
+
+    @Test
+    public void testRoundTripConvertsValuesBack() {
+        // Arrange
+        String token = new ContinuationToken("createdOn:ASC", "2024-02-29", "42").encode();
+
+        // Act
+        ContinuationToken decoded = ContinuationToken.decode(token, "createdOn:ASC");
+
+        // Assert
+        assertEquals(2, decoded.getValueCount());
+        assertEquals(LocalDate.of(2024, 2, 29), decoded.getValue(0, LocalDate.class));
+        assertEquals(42L, decoded.getValue(1, Long.class));
+    }
+
+    @Test
+    public void testTokenForDifferentOrderingIsRejected() {
+        // Arrange
+        String token = new ContinuationToken("name:ASC", "Alice", "1").encode();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(token, "name:DESC"));
+    }
+
+    @Test
+    public void testMalformedTokenIsRejected() {
+        // Arrange & Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("not a token!", "id:ASC"));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode("YWJj", "id:ASC"));
+        assertThrows(IllegalArgumentException.class, () -> ContinuationToken.decode(
+                new ContinuationToken("id:ASC", "x", "x").encode(), "id:ASC").getValue(1, Long.class));
+    }
+}
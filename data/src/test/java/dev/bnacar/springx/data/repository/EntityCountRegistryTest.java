@@ -0,0 +1,245 @@
+package dev.bnacar.springx.data.repository;
+
+import dev.bnacar.springx.data.bulk.TableWriteEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class EntityCountRegistryTest {
+
+    private EntityCountRegistry registry;
+    private TypedQuery<Long> countQuery;
+    private TypedQuery<Long> assignedIdCountQuery;
+
+    @BeforeEach
+    public void setup() throws NoSuchFieldException {
+        RepositoryEntityResolver resolver = mock(RepositoryEntityResolver.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        when(resolver.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+
+        countQuery = mockEntity(resolver, entityManager, TestEntity.class);
+        assignedIdCountQuery = mockEntity(resolver, entityManager, AssignedIdEntity.class);
+        when(countQuery.getSingleResult()).thenReturn(10L);
+        when(assignedIdCountQuery.getSingleResult()).thenReturn(10L);
+
+        registry = new EntityCountRegistry(resolver, 0);
+    }
+
+    @Test
+    public void testCountIsSeededOnceAndAdjustedByChanges() {
+        // Act
+        long seeded = registry.count(TestEntity.class);
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.CREATED, Arrays.asList(11L, 12L)));
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.UPDATED, Collections.singletonList(1L)));
+        long adjusted = registry.count(TestEntity.class);
+
+        // Assert
+        assertEquals(10, seeded);
+        assertEquals(12, adjusted);
+        verify(countQuery, times(1)).getSingleResult();
+    }
+
+    @Test
+    public void testDeletingAbsentEntityKeepsCount() {
+        // Arrange
+        registry.count(TestEntity.class);
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.DELETED, Collections.singletonList(99L), 0));
+        long count = registry.count(TestEntity.class);
+
+        // Assert
+        assertEquals(10, count);
+        verify(countQuery, times(1)).getSingleResult();
+    }
+
+    @Test
+    public void testDeleteSubtractsRemovedRowsWithoutRecount() {
+        // Arrange
+        registry.count(TestEntity.class);
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.DELETED, Arrays.asList(1L, 99L), 1));
+        long count = registry.count(TestEntity.class);
+
+        // Assert
+        assertEquals(9, count);
+        verify(countQuery, times(1)).getSingleResult();
+    }
+
+    @Test
+    public void testDeleteWithUnknownEffectRecounts() {
+        // Arrange
+        registry.count(TestEntity.class);
+        when(countQuery.getSingleResult()).thenReturn(9L);
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.DELETED, Collections.singletonList(1L)));
+        long count = registry.count(TestEntity.class);
+
+        // Assert
+        assertEquals(9, count);
+        verify(countQuery, times(2)).getSingleResult();
+    }
+
+    @Test
+    public void testDeleteAllZeroesCountAndReconcilesInBackground() throws InterruptedException {
+        // Arrange
+        registry.count(TestEntity.class);
+        when(countQuery.getSingleResult()).thenReturn(2L);
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.DELETED_ALL, Collections.emptyList()));
+        long countAfterCommit = registry.count(TestEntity.class);
+
+        // Assert
+        assertTrue(countAfterCommit == 0 || countAfterCommit == 2);
+        awaitCount(TestEntity.class, 2);
+    }
+
+    @Test
+    public void testSavingAssignedIdEntityCountsInsert() {
+        // Arrange
+        registry.count(AssignedIdEntity.class);
+        when(assignedIdCountQuery.getSingleResult()).thenReturn(11L);
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(this, AssignedIdEntity.class,
+                EntityChangeEvent.ChangeType.UPDATED, Collections.singletonList(42L)));
+        long count = registry.count(AssignedIdEntity.class);
+
+        // Assert
+        assertEquals(11, count);
+    }
+
+    @Test
+    public void testUpdateThroughCountedRepositoryDoesNotRecount() {
+        // Arrange
+        registry.count(AssignedIdEntity.class);
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(mock(CountedRepository.class), AssignedIdEntity.class,
+                EntityChangeEvent.ChangeType.UPDATED, Collections.singletonList(1L)));
+        long count = registry.count(AssignedIdEntity.class);
+
+        // Assert
+        assertEquals(10, count);
+        verify(assignedIdCountQuery, times(1)).getSingleResult();
+    }
+
+    @Test
+    public void testChangeBeforeSeedingIsKept() {
+        // Arrange
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.CREATED, Collections.singletonList(11L)));
+
+        // Act
+        long count = registry.count(TestEntity.class);
+
+        // Assert
+        assertEquals(10, count);
+    }
+
+    @Test
+    public void testReconcileReplacesDriftedCount() {
+        // Arrange
+        registry.count(TestEntity.class);
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.CREATED, Collections.singletonList(11L)));
+        when(countQuery.getSingleResult()).thenReturn(25L);
+
+        // Act
+        registry.reconcileAll();
+
+        // Assert
+        assertEquals(25, registry.count(TestEntity.class));
+    }
+
+    @Test
+    public void testTableWriteReconcilesCount() throws InterruptedException {
+        // Arrange
+        registry.count(TestEntity.class);
+        when(countQuery.getSingleResult()).thenReturn(510L);
+
+        // Act
+        registry.onTableWrite(new TableWriteEvent(this, "test_entity", 500));
+
+        // Assert
+        awaitCount(TestEntity.class, 510);
+    }
+
+    /**
+     * Waits until a background reconciliation has set the count of an entity type, and asserts it.
+     *
+     * @param domainType the entity type
+     * @param expected the expected count
+     */
+    private void awaitCount(Class<?> domainType, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (registry.count(domainType) != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, registry.count(domainType));
+    }
+
+    /**
+     * Mocks the entity information and count query of an entity type.
+     *
+     * @param resolver the resolver mock
+     * @param entityManager the entity manager mock
+     * @param domainType the entity type, with a field named id
+     * @return the count query mock
+     */
+    @SuppressWarnings("unchecked")
+    private static TypedQuery<Long> mockEntity(RepositoryEntityResolver resolver, EntityManager entityManager,
+                                               Class<?> domainType) throws NoSuchFieldException {
+        JpaEntityInformation<?, ?> information = mock(JpaEntityInformation.class);
+        SingularAttribute<Object, ?> idAttribute = mock(SingularAttribute.class);
+        TypedQuery<Long> query = mock(TypedQuery.class);
+
+        doReturn(information).when(resolver).getEntityInformation(domainType);
+        doReturn(idAttribute).when(information).getRequiredIdAttribute();
+        when(idAttribute.getJavaMember()).thenReturn(domainType.getDeclaredField("id"));
+        when(information.getEntityName()).thenReturn(domainType.getSimpleName());
+        when(entityManager.createQuery("select count(e) from " + domainType.getSimpleName() + " e", Long.class)).thenReturn(query);
+        return query;
+    }
+
+    // Test entity class with a generated id
+    static class TestEntity {
+        @Id
+        @GeneratedValue
+        private Long id;
+    }
+
+    // Test entity class with an assigned id
+    static class AssignedIdEntity {
+        @Id
+        private Long id;
+    }
+}
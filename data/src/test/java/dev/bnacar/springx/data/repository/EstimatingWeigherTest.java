@@ -0,0 +1,70 @@
+package dev.bnacar.springx.data.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class EstimatingWeigherTest {
+
+    private final EstimatingWeigher weigher = new EstimatingWeigher();
+
+    @Test
+    public void testLargeListWeighsProportionallyMore() {
+        // Arrange
+        List<TestEntity> small = new ArrayList<>();
+        List<TestEntity> large = new ArrayList<>();
+        for (long i = 0; i < 100_000; i++) {
+            TestEntity entity = new TestEntity(i, "Entity " + i);
+            large.add(entity);
+            if (i < 1_000) {
+                small.add(entity);
+            }
+        }
+
+        // Act
+        long smallWeight = weigher.weigh("findAll:1", small);
+        long largeWeight = weigher.weigh("findAll:1", large);
+
+        // Assert
+        assertTrue(largeWeight > smallWeight * 50, "Small: " + smallWeight + ", large: " + largeWeight);
+    }
+
+    @Test
+    public void testEntityWeighsMoreThanItsShallowSize() {
+        // Arrange
+        TestEntity entity = new TestEntity(1L, "A fairly long entity name that dominates the size");
+
+        // Act
+        long weight = weigher.weigh("findById:1", Optional.of(entity));
+
+        // Assert
+        assertTrue(weight > 100, "Weight: " + weight);
+    }
+
+    @Test
+    public void testNullValue() {
+        // Arrange & Act
+        long nullWeight = weigher.weigh("findById:1", null);
+        long emptyWeight = weigher.weigh("findById:1", Optional.empty());
+
+        // Assert
+        assertTrue(nullWeight > 0);
+        assertEquals(nullWeight + 16, emptyWeight);
+    }
+
+    // Test entity class
+    static class TestEntity {
+        private final Long id;
+        private final String name;
+
+        TestEntity(Long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+    }
+}
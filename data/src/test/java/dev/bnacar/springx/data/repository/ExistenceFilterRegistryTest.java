@@ -0,0 +1,176 @@
+package dev.bnacar.springx.data.repository;
+
+import dev.bnacar.springx.data.bulk.TableWriteEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Query;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ExistenceFilterRegistryTest {
+
+    private ExistenceFilterRegistry registry;
+    private CachingRepository<?, ?> repository;
+    private final List<Long> ids = new CopyOnWriteArrayList<>(Collections.singletonList(1L));
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        RepositoryEntityResolver resolver = mock(RepositoryEntityResolver.class);
+        JpaEntityInformation<?, ?> information = mock(JpaEntityInformation.class);
+        SingularAttribute<Object, ?> idAttribute = mock(SingularAttribute.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        Query idQuery = mock(Query.class, RETURNS_SELF);
+        repository = mock(CachingRepository.class);
+
+        doReturn(TestEntity.class).when(resolver).getDomainType(repository);
+        doReturn(information).when(resolver).getEntityInformation(TestEntity.class);
+        doReturn(idAttribute).when(information).getRequiredIdAttribute();
+        when(idAttribute.getName()).thenReturn("id");
+        when(information.getEntityName()).thenReturn("TestEntity");
+        when(resolver.getEntityManagerFactory()).thenReturn(entityManagerFactory);
+        when(entityManagerFactory.createEntityManager()).thenReturn(entityManager);
+        when(entityManager.createQuery("select e.id from TestEntity e")).thenReturn(idQuery);
+        when(idQuery.getResultStream()).thenAnswer(invocation -> ids.stream());
+
+        // Sized for a single id with a high false positive probability so collisions are easy to find
+        registry = new ExistenceFilterRegistry(resolver, 1, 0.5, 100, 3600);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        registry.destroy();
+    }
+
+    @Test
+    public void testDeletingCollidingAbsentIdKeepsExistingIdFound() throws InterruptedException {
+        // Arrange
+        long collidingId = findId(true);
+        populate();
+        assertTrue(registry.isDefinitelyAbsent(repository, findId(false)));
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.DELETED, Collections.singletonList(collidingId)));
+
+        // Assert
+        assertFalse(registry.isDefinitelyAbsent(repository, 1L));
+    }
+
+    @Test
+    public void testSavedIdIsFoundBeforeRebuild() throws InterruptedException {
+        // Arrange
+        long savedId = findId(false);
+        populate();
+
+        // Act
+        registry.onEntityChange(new EntityChangeEvent(this, TestEntity.class,
+                EntityChangeEvent.ChangeType.CREATED, Collections.singletonList(savedId)));
+
+        // Assert
+        assertFalse(registry.isDefinitelyAbsent(repository, savedId));
+        assertFalse(registry.isDefinitelyAbsent(repository, 1L));
+    }
+
+    @Test
+    public void testTableWriteSwitchesFilterOffUntilRebuilt() throws InterruptedException {
+        // Arrange
+        long writtenId = findId(false);
+        populate();
+        ids.add(writtenId);
+        boolean absentBeforeCompletion;
+
+        // Act
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            registry.onTableWrite(new TableWriteEvent(this, "PUBLIC.TEST_ENTITY", 1));
+            absentBeforeCompletion = registry.isDefinitelyAbsent(repository, findId(false, writtenId));
+            TransactionSynchronizationUtils.invokeAfterCompletion(
+                    TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        awaitActive(findId(false, writtenId));
+
+        // Assert
+        assertFalse(absentBeforeCompletion);
+        assertFalse(registry.isDefinitelyAbsent(repository, writtenId));
+        assertTrue(registry.isDefinitelyAbsent(repository, findId(false, writtenId)));
+    }
+
+    @Test
+    public void testRebuildIntervalMustBePositive() {
+        // Arrange & Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExistenceFilterRegistry(mock(RepositoryEntityResolver.class), 1, 0.5, 100, 0));
+    }
+
+    /**
+     * Populates the filters and waits until the initial scan has completed.
+     */
+    private void populate() throws InterruptedException {
+        ApplicationReadyEvent event = mock(ApplicationReadyEvent.class);
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        when(event.getApplicationContext()).thenReturn(context);
+        doReturn(Collections.singletonMap("testRepository", repository)).when(context).getBeansOfType(CachingRepository.class);
+
+        registry.onApplicationReady(event);
+        awaitActive(findId(false));
+    }
+
+    /**
+     * Waits until the filter is active, i.e. reports an id missing from the scanned ids as absent.
+     *
+     * @param absentId an id the filter reports as absent once active
+     */
+    private void awaitActive(long absentId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!registry.isDefinitelyAbsent(repository, absentId) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Finds a new id that a filter holding the existing id 1 and further ids reports as present or absent.
+     *
+     * @param colliding whether the id should collide with the ids in the filter
+     * @param present the further ids in the filter
+     * @return the id
+     */
+    private static long findId(boolean colliding, long... present) {
+        BloomFilter reference = new BloomFilter(1, 0.5);
+        reference.add(1L);
+        Arrays.stream(present).forEach(reference::add);
+        long id = 2L;
+        while (reference.mightContain(id) != colliding) {
+            id++;
+        }
+        return id;
+    }
+
+    // Test entity class
+    static class TestEntity {
+    }
+}
@@ -0,0 +1,172 @@
+package dev.bnacar.springx.data.repository;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(classes = {KeysetRepositoryTest.TestConfig.class})
+public class KeysetRepositoryTest {
+
+    @Autowired
+    private ProductRepository repository;
+
+    private final List<Product> products = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        // Three categories of seven products, with repeated prices inside each category
+        repository.deleteAllInBatch();
+        products.clear();
+        for (long id = 1; id <= 21; id++) {
+            products.add(new Product(id, "category-" + (id % 3), (int) (id % 4) * 10));
+        }
+        repository.saveAll(products);
+    }
+
+    @Test
+    public void testMixedDirectionSortReturnsEveryRowOnceInOrder() {
+        // Arrange
+        Sort sort = Sort.by(Sort.Order.asc("category"), Sort.Order.desc("price"));
+        List<Long> expected = products.stream()
+                .sorted(Comparator.comparing(Product::getCategory)
+                        .thenComparing(Product::getPrice, Comparator.reverseOrder())
+                        .thenComparing(Product::getId, Comparator.reverseOrder()))
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        // Act
+        List<Long> ids = readAllPages(sort, 4);
+
+        // Assert
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    public void testTiesOnLeadingSortColumnAreNeitherSkippedNorRepeated() {
+        // Arrange
+        List<Long> expected = products.stream()
+                .sorted(Comparator.comparing(Product::getCategory).thenComparing(Product::getId))
+                .map(Product::getId)
+                .collect(Collectors.toList());
+
+        // Act
+        List<Long> ids = readAllPages(Sort.by(Sort.Order.asc("category")), 2);
+
+        // Assert
+        assertEquals(expected, ids);
+    }
+
+    @Test
+    public void testLastPageHasNoContinuationToken() {
+        // Arrange
+        KeysetPage<Product> first = repository.findPage(20, null);
+
+        // Act
+        KeysetPage<Product> last = repository.findPage(20, first.getNextToken());
+        KeysetPage<Product> exact = repository.findPage(21, null);
+
+        // Assert
+        assertNotNull(first.getNextToken());
+        assertEquals(1, last.getContent().size());
+        assertEquals(21L, last.getContent().get(0).getId());
+        assertFalse(last.hasNext());
+        assertNull(last.getNextToken());
+        assertEquals(21, exact.getContent().size());
+        assertFalse(exact.hasNext());
+    }
+
+    @Test
+    public void testTokenForDifferentSortIsRejected() {
+        // Arrange
+        Sort sort = Sort.by(Sort.Order.asc("category"), Sort.Order.desc("price"));
+        String token = repository.findPage(sort, 5, null).getNextToken();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(
+                Sort.by(Sort.Order.asc("category"), Sort.Order.asc("price")), 5, token));
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(Sort.Order.asc("category"), 5, token));
+        assertThrows(IllegalArgumentException.class, () -> repository.findPage(5, token));
+    }
+
+    /**
+     * Reads all pages of a sort and collects the ids.
+     *
+     * @param sort the sort
+     * @param size the page size
+     * @return the ids in page order
+     */
+    private List<Long> readAllPages(Sort sort, int size) {
+        List<Long> ids = new ArrayList<>();
+        String token = null;
+        do {
+            KeysetPage<Product> page = repository.findPage(sort, size, token);
+            page.getContent().forEach(product -> ids.add(product.getId()));
+            token = page.getNextToken();
+        } while (token != null);
+        return ids;
+    }
+
+    @Configuration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = KeysetRepositoryTest.class)
+    @EnableJpaRepositories(basePackageClasses = KeysetRepositoryTest.class, considerNestedRepositories = true,
+            repositoryBaseClass = SpringXJpaRepository.class,
+            includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ProductRepository.class))
+    static class TestConfig {
+    }
+
+    interface ProductRepository extends JpaRepository<Product, Long>, KeysetRepository<Product> {
+    }
+
+    // Test entity class
+    @Entity(name = "Product")
+    static class Product {
+        @Id
+        private Long id;
+        private String category;
+        private int price;
+
+        protected Product() {
+        }
+
+        Product(Long id, String category, int price) {
+            this.id = id;
+            this.category = category;
+            this.price = price;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public int getPrice() {
+            return price;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package dev.bnacar.springx.data.repository;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RepositoryEventAspectTest {
+
+    private RepositoryEntityResolver resolver;
+    private RepositoryEventAspect aspect;
+    private final List<EntityChangeEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        resolver = mock(RepositoryEntityResolver.class);
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        doAnswer(invocation -> events.add(invocation.getArgument(0))).when(eventPublisher)
+                .publishEvent(any(ApplicationEvent.class));
+
+        // Composite ids count as assigned ids
+        JpaEntityInformation<?, ?> information = mock(JpaEntityInformation.class);
+        when(information.hasCompositeId()).thenReturn(true);
+        doReturn(information).when(resolver).getEntityInformation(TestEntity.class);
+
+        aspect = new RepositoryEventAspect(resolver, eventPublisher);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDeleteThroughCountedRepositoryReportsRemovedRows() throws Throwable {
+        // Arrange
+        CountedRepository<TestEntity, Long> repository = mock(CountedRepository.class);
+        doReturn(TestEntity.class).when(resolver).getDomainType(repository);
+        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.existsById(2L)).thenReturn(false);
+
+        // Act
+        aspect.deleteIds(joinPoint("deleteAllById", Arrays.asList(1L, 2L, 2L)), repository);
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals(EntityChangeEvent.ChangeType.DELETED, events.get(0).getChangeType());
+        assertEquals(1, events.get(0).getAffectedRows());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDeleteThroughOtherRepositoryLeavesRemovedRowsUnknown() throws Throwable {
+        // Arrange
+        CachingRepository<TestEntity, Long> repository = mock(CachingRepository.class);
+        doReturn(TestEntity.class).when(resolver).getDomainType(repository);
+
+        // Act
+        aspect.deleteIds(joinPoint("deleteById", 1L), repository);
+
+        // Assert
+        assertEquals(-1, events.get(0).getAffectedRows());
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSaveOfAssignedIdWithoutRowIsReportedAsCreation() throws Throwable {
+        // Arrange
+        CountedRepository<TestEntity, Long> repository = mock(CountedRepository.class);
+        doReturn(TestEntity.class).when(resolver).getDomainType(repository);
+        TestEntity entity = new TestEntity();
+        when(resolver.isNew(TestEntity.class, entity)).thenReturn(false);
+        when(resolver.getId(TestEntity.class, entity)).thenReturn(5L);
+        when(repository.existsById(5L)).thenReturn(false);
+
+        // Act
+        aspect.saveOne(joinPoint("save", entity), repository);
+
+        // Assert
+        assertEquals(EntityChangeEvent.ChangeType.CREATED, events.get(0).getChangeType());
+    }
+
+    /**
+     * Creates a join point for a repository method call with one argument, returning the argument.
+     *
+     * @param methodName the method name
+     * @param argument the argument
+     * @return the join point
+     */
+    private static ProceedingJoinPoint joinPoint(String methodName, Object argument) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        Signature signature = mock(Signature.class);
+        when(signature.getName()).thenReturn(methodName);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{argument});
+        when(joinPoint.proceed()).thenReturn(argument);
+        return joinPoint;
+    }
+
+    // Test entity class
+    static class TestEntity {
+    }
+}
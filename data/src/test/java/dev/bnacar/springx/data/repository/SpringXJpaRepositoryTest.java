@@ -0,0 +1,85 @@
+package dev.bnacar.springx.data.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SpringXJpaRepositoryTest {
+
+    private SpringXJpaRepository<TestEntity, Long> repository;
+    private List<String> events;
+    private AtomicBoolean resultsClosed;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        JpaEntityInformation<TestEntity, Long> information = mock(JpaEntityInformation.class);
+        EntityManager entityManager = mock(EntityManager.class);
+        TypedQuery<TestEntity> query = mock(TypedQuery.class, RETURNS_SELF);
+        events = new ArrayList<>();
+        resultsClosed = new AtomicBoolean();
+
+        doReturn(TestEntity.class).when(information).getJavaType();
+        when(information.getEntityName()).thenReturn("TestEntity");
+        when(entityManager.getDelegate()).thenReturn(new Object());
+        when(entityManager.createQuery("select e from TestEntity e", TestEntity.class)).thenReturn(query);
+        when(query.getResultStream()).thenAnswer(invocation -> Stream.of(
+                new TestEntity(1), new TestEntity(2), new TestEntity(3), new TestEntity(4), new TestEntity(5))
+                .onClose(() -> resultsClosed.set(true)));
+        doAnswer(invocation -> events.add("clear")).when(entityManager).clear();
+
+        repository = new SpringXJpaRepository<>(information, entityManager);
+    }
+
+    @Test
+    public void testForEachEntityDetachesAfterEachBatch() {
+        // Act
+        long count = repository.forEachEntity(2, entity -> events.add("entity-" + entity.id));
+
+        // Assert
+        assertEquals(5, count);
+        assertEquals(Arrays.asList("entity-1", "entity-2", "clear", "entity-3", "entity-4", "clear", "entity-5"), events);
+        assertTrue(resultsClosed.get());
+    }
+
+    @Test
+    public void testClosingStreamClosesResults() {
+        // Arrange
+        Stream<TestEntity> stream = repository.streamAll(2);
+        stream.iterator().next();
+
+        // Act
+        boolean closedBefore = resultsClosed.get();
+        stream.close();
+
+        // Assert
+        assertFalse(closedBefore);
+        assertTrue(resultsClosed.get());
+    }
+
+    // Test entity class
+    static class TestEntity {
+        private final long id;
+
+        TestEntity(long id) {
+            this.id = id;
+        }
+    }
+}
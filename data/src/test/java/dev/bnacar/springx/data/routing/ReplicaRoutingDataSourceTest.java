@@ -0,0 +1,130 @@
+package dev.bnacar.springx.data.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private EmbeddedDatabase primary;
+    private EmbeddedDatabase replica;
+
+    @BeforeEach
+    public void setup() {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+    }
+
+    @AfterEach
+    public void teardown() {
+        primary.shutdown();
+        replica.shutdown();
+    }
+
+    @Test
+    public void testReadOnlyWorkIsRoutedToReplica() throws Exception {
+        // Arrange
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primary, Collections.singletonList(replica), ReplicaSelection.ROUND_ROBIN, null, 10, 0));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        readOnlyTransaction.setReadOnly(true);
+
+        // Act
+        String outside = readSource(jdbcTemplate);
+        String withinCall = ReplicaRoutingContext.callReadOnly(() -> readSource(jdbcTemplate));
+        String withinTransaction = readOnlyTransaction.execute(status -> readSource(jdbcTemplate));
+
+        // Assert
+        assertEquals("primary", outside);
+        assertEquals("replica", withinCall);
+        assertEquals("replica", withinTransaction);
+    }
+
+    @Test
+    public void testReadOnlyCallWithinReadWriteTransactionUsesPrimary() throws Exception {
+        // Arrange
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primary, Collections.singletonList(replica), ReplicaSelection.ROUND_ROBIN, null, 10, 0));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        TransactionTemplate readWriteTransaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        // Act
+        String source = readWriteTransaction.execute(status -> {
+            try {
+                // The first statement binds the transaction's connection
+                return ReplicaRoutingContext.callReadOnly(() -> readSource(jdbcTemplate));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Assert
+        assertEquals("primary", source);
+    }
+
+    @Test
+    public void testFailingReplicaFallsBackToPrimary() throws Exception {
+        // Arrange
+        DataSource failing = mock(DataSource.class);
+        when(failing.getConnection()).thenThrow(new SQLException("Connection refused"));
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(
+                primary, Collections.singletonList(failing), ReplicaSelection.LEAST_IN_FLIGHT, null, 10, 0);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Act
+        String source = ReplicaRoutingContext.callReadOnly(() -> readSource(jdbcTemplate));
+
+        // Assert
+        assertEquals("primary", source);
+        assertEquals(0, dataSource.getAvailableReplicaCount());
+    }
+
+    @Test
+    public void testLaggingReplicaIsSkipped() throws Exception {
+        // Arrange
+        new JdbcTemplate(replica).execute("CREATE TABLE replication_lag (seconds INT)");
+        new JdbcTemplate(replica).update("INSERT INTO replication_lag VALUES (30)");
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, Collections.singletonList(replica),
+                ReplicaSelection.ROUND_ROBIN, "SELECT seconds FROM replication_lag", 10, 0);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        // Act
+        dataSource.checkReplicas();
+        String source = ReplicaRoutingContext.callReadOnly(() -> readSource(jdbcTemplate));
+
+        // Assert
+        assertEquals("primary", source);
+        assertEquals(0, dataSource.getAvailableReplicaCount());
+    }
+
+    // Creates a database that identifies itself by name
+    private static EmbeddedDatabase createDatabase(String name) {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE source (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO source VALUES (?)", name);
+        return database;
+    }
+
+    // Reads the name of the database serving the query
+    private static String readSource(JdbcTemplate jdbcTemplate) {
+        return jdbcTemplate.queryForObject("SELECT name FROM source", String.class);
+    }
+}
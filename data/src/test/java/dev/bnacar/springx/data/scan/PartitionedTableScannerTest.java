@@ -0,0 +1,156 @@
+package dev.bnacar.springx.data.scan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PartitionedTableScannerTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private JdbcScanCheckpointStore checkpointStore;
+    private PartitionedTableScanner scanner;
+
+    @BeforeEach
+    public void setup() {
+        database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE orders (id BIGINT PRIMARY KEY, status VARCHAR(20))");
+        for (long i = 1; i <= 1000; i++) {
+            jdbcTemplate.update("INSERT INTO orders VALUES (?, ?)", i, i % 10 == 0 ? "CLOSED" : "OPEN");
+        }
+        // A sparse tail, so that equal id ranges hold very different numbers of rows
+        for (long i = 1; i <= 10; i++) {
+            jdbcTemplate.update("INSERT INTO orders VALUES (?, ?)", 1_000_000 * i, "OPEN");
+        }
+
+        checkpointStore = new JdbcScanCheckpointStore(database, JdbcScanCheckpointStore.DEFAULT_TABLE_NAME);
+        checkpointStore.initializeSchema();
+        scanner = new PartitionedTableScanner(database, checkpointStore, 4, 50);
+    }
+
+    @AfterEach
+    public void teardown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void testScanProcessesEveryMatchingRowOnce() throws InterruptedException {
+        // Arrange
+        TableScan scan = TableScan.of("orders", "id").columns("id").where("status = ?", "OPEN").partitions(8);
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+
+        // Act
+        long rows = scanner.scan(scan, (rs, rowNum) -> rs.getLong("id"), ids::addAll);
+
+        // Assert
+        assertEquals(910, rows);
+        assertEquals(910, new HashSet<>(ids).size());
+        assertTrue(checkpointStore.load("orders").isEmpty());
+    }
+
+    @Test
+    public void testQuantilePartitionsHoldEvenRowCounts() {
+        // Arrange
+        TableScan scan = TableScan.of("orders", "id").partitioning(ScanPartitioning.QUANTILES).partitions(4);
+
+        // Act
+        List<ScanPartition> partitions = scanner.computePartitions(scan);
+
+        // Assert
+        assertEquals(4, partitions.size());
+        assertNull(partitions.get(0).getLowerBound());
+        assertNull(partitions.get(3).getUpperBound());
+        for (ScanPartition partition : partitions) {
+            Long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE id >= ? AND id < ?", Long.class,
+                    partition.getLowerBound() != null ? partition.getLowerBound() : Long.MIN_VALUE,
+                    partition.getUpperBound() != null ? partition.getUpperBound() : Long.MAX_VALUE);
+            assertTrue(rows >= 252 && rows <= 253, "Partition " + partition + " has " + rows + " rows");
+        }
+    }
+
+    @Test
+    public void testFailedScanResumesFromCheckpoint() throws InterruptedException {
+        // Arrange
+        TableScan scan = TableScan.of("orders", "id").columns("id").name("reconcile").partitions(4);
+        Set<Long> firstRun = Collections.synchronizedSet(new HashSet<>());
+        AtomicBoolean failed = new AtomicBoolean();
+
+        // Act
+        assertThrows(IllegalStateException.class, () -> scanner.scan(scan, (rs, rowNum) -> rs.getLong("id"), batch -> {
+            if (batch.contains(100L) && failed.compareAndSet(false, true)) {
+                throw new IllegalArgumentException("Failing batch");
+            }
+            firstRun.addAll(batch);
+        }));
+        boolean checkpointed = !checkpointStore.load("reconcile").isEmpty();
+        Set<Long> secondRun = Collections.synchronizedSet(new HashSet<>());
+        long resumedRows = scanner.scan(scan, (rs, rowNum) -> rs.getLong("id"), secondRun::addAll);
+
+        // Assert
+        assertTrue(checkpointed);
+        assertEquals(1010 - firstRun.size(), resumedRows);
+        assertTrue(secondRun.contains(100L));
+        secondRun.retainAll(firstRun);
+        assertTrue(secondRun.isEmpty());
+        assertTrue(checkpointStore.load("reconcile").isEmpty());
+    }
+
+    @Test
+    public void testPartitionsRunInReadOnlyTransactionsWithCheckpointsOutside() throws InterruptedException {
+        // Arrange
+        TableScan scan = TableScan.of("orders", "id").columns("id").partitions(4);
+        AtomicBoolean readOnlyBatches = new AtomicBoolean(true);
+        AtomicBoolean checkpointsOutsideTransaction = new AtomicBoolean(true);
+        ScanCheckpointStore recordingStore = new ScanCheckpointStore() {
+            @Override
+            public List<ScanPartition> load(String scanName) {
+                return checkpointStore.load(scanName);
+            }
+
+            @Override
+            public void save(String scanName, ScanPartition partition) {
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    checkpointsOutsideTransaction.set(false);
+                }
+                checkpointStore.save(scanName, partition);
+            }
+
+            @Override
+            public void clear(String scanName) {
+                checkpointStore.clear(scanName);
+            }
+        };
+        PartitionedTableScanner recordingScanner = new PartitionedTableScanner(database, recordingStore, 4, 50);
+
+        // Act
+        long rows = recordingScanner.scan(scan, (rs, rowNum) -> rs.getLong("id"), batch -> {
+            if (!TransactionSynchronizationManager.isActualTransactionActive()
+                    || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+                readOnlyBatches.set(false);
+            }
+        });
+
+        // Assert
+        assertEquals(1010, rows);
+        assertTrue(readOnlyBatches.get());
+        assertTrue(checkpointsOutsideTransaction.get());
+    }
+}
@@ -0,0 +1,110 @@
+package dev.bnacar.springx.web.pagination;
+
+import java.util.List;
+
+/**
+ * A keyset pagination result for REST API responses.
+ * Unlike {@link PagedResult}, pages are not numbered: clients request the next page by
+ * passing back the opaque continuation token, so deep pages cost the same as the first one.
+ *
+ * @param <T> the type of data in the page
+ */
+public class KeysetPagedResult<T> {
+
+    private List<T> content;
+    private int pageSize;
+    private String nextToken;
+    private boolean last;
+
+    /**
+     * Default constructor.
+     */
+    public KeysetPagedResult() {
+    }
+
+    /**
+     * Constructs a new KeysetPagedResult with the specified parameters.
+     *
+     * @param content the content of the page
+     * @param pageSize the page size
+     * @param nextToken the continuation token of the next page, or null if this is the last page
+     */
+    public KeysetPagedResult(List<T> content, int pageSize, String nextToken) {
+        this.content = content;
+        this.pageSize = pageSize;
+        this.nextToken = nextToken;
+        this.last = nextToken == null;
+    }
+
+    /**
+     * Gets the content of the page.
+     *
+     * @return the content
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Sets the content of the page.
+     *
+     * @param content the content
+     */
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    /**
+     * Gets the page size.
+     *
+     * @return the page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Sets the page size.
+     *
+     * @param pageSize the page size
+     */
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Gets the continuation token of the next page.
+     *
+     * @return the next token, or null if this is the last page
+     */
+    public String getNextToken() {
+        return nextToken;
+    }
+
+    /**
+     * Sets the continuation token of the next page.
+     *
+     * @param nextToken the next token
+     */
+    public void setNextToken(String nextToken) {
+        this.nextToken = nextToken;
+    }
+
+    /**
+     * Gets whether this is the last page.
+     *
+     * @return true if this is the last page, false otherwise
+     */
+    public boolean isLast() {
+        return last;
+    }
+
+    /**
+     * Sets whether this is the last page.
+     *
+     * @param last true if this is the last page, false otherwise
+     */
+    public void setLast(boolean last) {
+        this.last = last;
+    }
+}